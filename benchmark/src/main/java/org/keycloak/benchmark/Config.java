@@ -214,6 +214,42 @@ public class Config {
      */
     public static final String joinGroup_groupName = System.getProperty("join-group-group-name");
 
+    // uma-ticket-scenario properties
+    /**
+     * The number of resources of the resource server. Permissions are requested for the resources from 0 to {@code resources-per-client} minus 1.
+     */
+    public static final int resourcesPerClient = Integer.getInteger("resources-per-client", 1);
+
+    /**
+     * The number of scopes of every resource. Permissions are requested for the scopes from 0 to {@code scopes-per-resource} minus 1.
+     */
+    public static final int scopesPerResource = Integer.getInteger("scopes-per-resource", 1);
+
+    /**
+     * Sets the prefix for the resource names. If not set, resource names use the {@code resource-} prefix. Eg.: resource-0, resource-1.
+     */
+    public static final String resourcePrefix = System.getProperty("resource-prefix", "resource-");
+
+    /**
+     * Sets the prefix for the scope names. If not set, scope names use the {@code scope-} prefix. Eg.: scope-0, scope-1.
+     */
+    public static final String scopePrefix = System.getProperty("scope-prefix", "scope-");
+
+    /**
+     * The number of permissions requested in every UMA grant request.
+     */
+    public static final int permissionsPerRequest = Integer.getInteger("permissions-per-request", 1);
+
+    /**
+     * The response mode of the UMA grant requests: {@code decision}, {@code permissions} or {@code rpt} to issue a requesting party token.
+     */
+    public static final String umaResponseMode = System.getProperty("uma-response-mode", "decision");
+
+    /**
+     * The number of UMA grant requests after logging in.
+     */
+    public static final int umaRequestCount = Integer.getInteger("uma-request-count", 1);
+
     static {
         // if KEYCLOAK_SERVER_URIS env var is set, and system property serverUris is not set
         String serversProp = System.getProperty("server-url");
@@ -316,6 +352,9 @@ public class Config {
         if (logoutPercentage < 0 || logoutPercentage > 100) {
             throw new RuntimeException("The `logoutPct` needs to be between 0 and 100.");
         }
+        if (!List.of("decision", "permissions", "rpt").contains(umaResponseMode)) {
+            throw new RuntimeException("The `uma-response-mode` needs to be one of `decision`, `permissions` or `rpt`.");
+        }
     }
 
 }
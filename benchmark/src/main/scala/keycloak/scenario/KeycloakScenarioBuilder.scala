@@ -771,6 +771,33 @@ class KeycloakScenarioBuilder {
     this
   }
 
+  private def umaTicketGrant(): ChainBuilder = {
+    val request = http("UMA ticket grant")
+      .post(TOKEN_ENDPOINT)
+      .header("Authorization", "Bearer #{accessToken}")
+      .formParam("grant_type", "urn:ietf:params:oauth:grant-type:uma-ticket")
+      .formParam("audience", "#{clientId}")
+      .multivaluedFormParam("permission", "#{permissions}")
+      // A denied permission is a regular result of the policy evaluation
+      .check(status.in(200, 403))
+
+    exec(s => {
+      val permissions = (1 to Config.permissionsPerRequest).map(_ =>
+        Config.resourcePrefix + Random.nextInt(Config.resourcesPerClient) + "#" + Config.scopePrefix + Random.nextInt(Config.scopesPerResource))
+      s.set("permissions", permissions)
+    })
+    .exec(if (Config.umaResponseMode == "rpt") request else request.formParam("response_mode", Config.umaResponseMode))
+    .exitHereIfFailed
+  }
+
+  def repeatUmaTicketGrant(): KeycloakScenarioBuilder = {
+    chainBuilder = chainBuilder
+      .repeat(Config.umaRequestCount, "uma_i") {
+        umaTicketGrant()
+      }
+    this
+  }
+
   def basicGet(endpoint: String): KeycloakScenarioBuilder = {
     chainBuilder = chainBuilder
       .exec(http("Hello")
@@ -0,0 +1,17 @@
+package keycloak.scenario.authorization
+
+import keycloak.scenario.{CommonSimulation, KeycloakScenarioBuilder}
+import org.keycloak.benchmark.Config
+
+class UmaTicket extends CommonSimulation {
+
+  Config.preventLocalhostServerUris()
+
+  setUp("Authorization - UMA Ticket", new KeycloakScenarioBuilder()
+    .openLoginPage(true)
+    .loginUsernamePassword()
+    .exchangeCode()
+    .repeatUmaTicketGrant()
+    .logout(true))
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.Arrays;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Limits the count of concurrently running transactions with additive increase and multiplicative decrease (AIMD).
+ * <p>
+ * The limit grows by one after a full round of transactions, which completed in time. It is reduced when a transaction fails or
+ * when its latency is much higher than the baseline latency, which is a low percentile of the latencies of the recent transactions. Growing latency is
+ * a sign that the transactions are waiting for the DB, for example because of lock contention, so adding more of them would
+ * only lead to transaction timeouts.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Latency higher than the baseline multiplied by this value is considered as the DB being overloaded
+    static final double LATENCY_TOLERANCE = 2.0;
+
+    static final double BACKOFF_RATIO = 0.75;
+
+    // Count of the recent successful transactions, whose latencies are used for the baseline. The baseline follows the latency up, as
+    // the transactions get naturally slower with growing tables, and a single unusually fast transaction does not pin it down
+    static final int BASELINE_WINDOW = 100;
+
+    // Percentile of the latencies in the window used as the baseline
+    static final double BASELINE_PERCENTILE = 0.1;
+
+    protected static final Logger logger = Logger.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private final long[] recentLatencies = new long[BASELINE_WINDOW];
+    private int recentCount;
+    private int nextRecent;
+    private int completedSinceBackoff;
+
+    public AdaptiveConcurrencyLimiter(int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        // Start low and let the limit grow, rather than overloading the DB right at the start
+        this.limit = Math.max(1, this.maxLimit / 4);
+    }
+
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= getLimit()) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        inFlight--;
+        completedSinceBackoff++;
+
+        if (failed) {
+            backoff("failed transaction");
+        } else {
+            recentLatencies[nextRecent] = latencyNanos;
+            nextRecent = (nextRecent + 1) % BASELINE_WINDOW;
+            recentCount = Math.min(recentCount + 1, BASELINE_WINDOW);
+
+            if (latencyNanos > getBaselineLatencyNanos() * LATENCY_TOLERANCE) {
+                backoff("slow transaction");
+            } else if (limit < maxLimit) {
+                int previous = getLimit();
+                limit = Math.min(maxLimit, limit + 1 / limit);
+                if (getLimit() != previous) {
+                    logger.debugf("Increased concurrency limit to %d", getLimit());
+                }
+            }
+        }
+
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized long getBaselineLatencyNanos() {
+        if (recentCount == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(recentLatencies, recentCount);
+        Arrays.sort(sorted);
+        return sorted[(int) ((recentCount - 1) * BASELINE_PERCENTILE)];
+    }
+
+    private void backoff(String reason) {
+        // The transactions started before the previous backoff still see the previous load, so do not back off again because of them
+        if (completedSinceBackoff < getLimit()) {
+            return;
+        }
+        completedSinceBackoff = 0;
+        limit = Math.max(1, limit * BACKOFF_RATIO);
+        logger.debugf("Decreased concurrency limit to %d because of %s", getLimit(), reason);
+    }
+}
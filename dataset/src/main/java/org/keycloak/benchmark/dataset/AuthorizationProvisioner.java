@@ -1,12 +1,19 @@
 package org.keycloak.benchmark.dataset;
 
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_AUTHZ_CLIENT;
+import static org.keycloak.benchmark.dataset.config.DatasetOperation.EVALUATE_AUTHZ_CLIENT;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -14,37 +21,55 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.resteasy.reactive.NoCache;
 import org.keycloak.authorization.AuthorizationProvider;
+import org.keycloak.authorization.common.DefaultEvaluationContext;
+import org.keycloak.authorization.identity.UserModelIdentity;
 import org.keycloak.authorization.model.Policy;
 import org.keycloak.authorization.model.Resource;
 import org.keycloak.authorization.model.ResourceServer;
 import org.keycloak.authorization.model.Scope;
+import org.keycloak.authorization.permission.ResourcePermission;
+import org.keycloak.authorization.policy.evaluation.EvaluationContext;
 import org.keycloak.authorization.store.PolicyStore;
 import org.keycloak.authorization.store.ResourceStore;
 import org.keycloak.authorization.store.ScopeStore;
 import org.keycloak.authorization.store.StoreFactory;
+import org.keycloak.benchmark.dataset.bulk.BulkAuthzWriter;
 import org.keycloak.benchmark.dataset.config.ConfigUtil;
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
 import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.http.HttpRequest;
 import org.keycloak.models.ClientModel;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.KeycloakSessionFactory;
-import org.keycloak.models.KeycloakSessionTask;
 import org.keycloak.models.KeycloakSessionTaskWithResult;
+import org.keycloak.models.KeycloakUriInfo;
 import org.keycloak.models.RealmModel;
 import org.keycloak.models.RealmProvider;
+import org.keycloak.models.UserModel;
 import org.keycloak.models.cache.CacheRealmProvider;
 import org.keycloak.models.utils.KeycloakModelUtils;
-import org.keycloak.representations.idm.authorization.AggregatePolicyRepresentation;
-import org.keycloak.representations.idm.authorization.DecisionStrategy;
+import org.keycloak.representations.idm.authorization.AuthorizationRequest;
+import org.keycloak.representations.idm.authorization.Permission;
 import org.keycloak.representations.idm.authorization.ScopePermissionRepresentation;
 import org.keycloak.representations.idm.authorization.UserPolicyRepresentation;
 
 public class AuthorizationProvisioner extends DatasetResourceProvider{
 
+    // Upper limit of the evaluations of a single task, as they run sequentially one after another
+    static final int MAX_EVALUATIONS = 100000;
+
+    // The progress of the evaluations is published to the other nodes after this many evaluations
+    private static final int EVALUATIONS_PER_PROGRESS = 1000;
+
     public AuthorizationProvisioner(KeycloakSession session) {
         super(session);
     }
 
+    // Used outside of the HTTP request, for example by the stage of the dataset spec
+    AuthorizationProvisioner(KeycloakSession session, HttpRequest httpRequest, KeycloakUriInfo uriInfo) {
+        super(session, httpRequest, uriInfo);
+    }
+
     @Path("create-resources")
     @GET
     @NoCache
@@ -63,10 +88,8 @@ public class AuthorizationProvisioner extends DatasetResourceProvider{
 
             taskAdded = true;
 
-            AuthorizationProvider provider = getAuthorizationProvider(baseSession);
-            ResourceStore resourceStore = provider.getStoreFactory().getResourceStore();
             ResourceServer resourceServer = getOrCreateResourceServer(config, baseSession);
-            int startIndex = getLastResourceIndex(resourceServer, resourceStore);
+            int startIndex = EntityIndexes.nextResourceIndex(baseSession, resourceServer.getId(), config.getResourcePrefix());
 
             config.setStart(startIndex);
 
@@ -74,8 +97,12 @@ public class AuthorizationProvisioner extends DatasetResourceProvider{
             RealmModel realm = getRealm(config, baseSession);
 
             context.setRealm(realm);
+            context.setSnapshot(RealmSnapshot.get(baseSession, realm, config));
+
+            // Reject invalid policy parameters before the task is started
+            AuthzPolicyMix policyMix = AuthzPolicyMix.parse(config, context.getSnapshot());
 
-            running = submitTask(context, task);
+            running = submitTask(context, task, policyMix);
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
         } catch (DatasetException de) {
@@ -87,24 +114,186 @@ public class AuthorizationProvisioner extends DatasetResourceProvider{
         }
     }
 
-    private void provision(Task task, RealmContext context, KeycloakSession session, int resourceStartIndex, int resourceEndIndex) {
+    @Path("evaluate-bench")
+    @GET
+    @NoCache
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response evaluateBench() {
+        boolean started = false;
+        boolean taskAdded = false;
+
+        try {
+            DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, EVALUATE_AUTHZ_CLIENT);
+
+            // Reject invalid parameters before the evaluation is started
+            if (config.getCount() < 1 || config.getCount() > MAX_EVALUATIONS || config.getPermissionsPerEvaluation() < 1) {
+                throw new DatasetException("Parameter 'count' must be between 1 and " + MAX_EVALUATIONS + " and 'permissions-per-evaluation' must be at least 1");
+            }
+
+            RealmModel realm = getRealm(config, baseSession);
+            ClientModel client = realm.getClientByClientId(config.getClientId());
+
+            if (client == null) {
+                throw new DatasetException("Client '" + config.getClientId() + "' not found in realm '" + realm.getName() + "'");
+            }
+
+            ResourceServer resourceServer = getAuthorizationProvider(baseSession).getStoreFactory().getResourceServerStore().findByClient(client);
+
+            if (resourceServer == null) {
+                throw new DatasetException("Client '" + config.getClientId() + "' has no authorization settings");
+            }
+
+            int resourceCount = EntityIndexes.nextResourceIndex(baseSession, resourceServer.getId(), config.getResourcePrefix());
+
+            if (resourceCount == 0) {
+                throw new DatasetException("No resources with the prefix '" + config.getResourcePrefix() + "' found in client '" + config.getClientId() + "'");
+            }
+
+            Task task = Task.start("Evaluation of " + config.getCount() + " permission requests in realm " + config.getRealmName()
+                    + " for client " + config.getClientId(), config.getCount());
+            Task existingTask = new TaskManager(baseSession).addTaskIfNotInProgress(task, config.getTaskTimeout());
+            if (existingTask != null) {
+                return Response.status(400).entity(TaskResponse.errorSomeTaskInProgress(existingTask, getStatusUrl())).build();
+            } else {
+                taskAdded = true;
+            }
+
+            logger.infof("Evaluating permissions of %d resources in client '%s': %s", resourceCount, config.getClientId(), config);
+
+            // Run this in separate thread to not block HTTP request
+            String resourceServerId = resourceServer.getId();
+            TaskThreads.start(config, () -> evaluateBenchImpl(task, config, resourceServerId, resourceCount));
+            started = true;
+
+            return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
+        } catch (DatasetException de) {
+            return handleDatasetException(de);
+        } finally {
+            if (taskAdded && !started) {
+                new TaskManager(baseSession).removeExistingTask(false);
+            }
+        }
+    }
+
+    // The statistics of the evaluations are the result of the task, which is available in the status of the completed task
+    private void evaluateBenchImpl(Task task, DatasetConfig config, String resourceServerId, int resourceCount) {
+        KeycloakSessionFactory sessionFactory = baseSession.getKeycloakSessionFactory();
+
+        try {
+            // Every evaluation runs in its own transaction, so it does not benefit from the models loaded by the previous evaluations
+            LongAdder granted = new LongAdder();
+            long[] latencies = new long[config.getCount()];
+
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                        session -> evaluate(session, config, resourceServerId, resourceCount, granted));
+                task.getProgress().created(1);
+
+                if ((i + 1) % EVALUATIONS_PER_PROGRESS == 0) {
+                    KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> new TaskManager(session).saveProgress(task));
+                }
+            }
+
+            Arrays.sort(latencies);
+            String result = String.format("Evaluated %d requests with %d permissions each in client %s: mean %.3f ms, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms, granted %d of %d permissions",
+                    latencies.length, config.getPermissionsPerEvaluation(), config.getClientId(), toMillis(Arrays.stream(latencies).sum() / latencies.length),
+                    toMillis(percentile(latencies, 50)), toMillis(percentile(latencies, 95)), toMillis(percentile(latencies, 99)),
+                    toMillis(latencies[latencies.length - 1]), granted.sum(), (long) latencies.length * config.getPermissionsPerEvaluation());
+
+            logger.info(result);
+
+            KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> new TaskManager(session).removeExistingTask(true, result));
+        } catch (Throwable ex) {
+            logException(ex);
+            KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> new TaskManager(session).removeExistingTask(false));
+        }
+    }
+
+    /**
+     * Evaluate the permissions of a random user for random resources, each with one of its scopes, like the UMA grant with the permissions
+     * {@code resource#scope}.
+     *
+     * @return time of the evaluation in nanoseconds, which does not include the lookup of the user and the resources
+     */
+    private long evaluate(KeycloakSession session, DatasetConfig config, String resourceServerId, int resourceCount, LongAdder granted) {
+        AuthorizationProvider authorization = getAuthorizationProvider(session);
+        StoreFactory storeFactory = authorization.getStoreFactory();
+        ResourceServer resourceServer = storeFactory.getResourceServerStore().findById(resourceServerId);
+        ResourceStore resourceStore = storeFactory.getResourceStore();
+        RealmModel realm = getRealm(config, session);
+        Random random = ThreadLocalRandom.current();
+
+        session.getContext().setRealm(realm);
+
+        String userName = config.getUserPrefix() + random.nextInt(config.getUsersPerRealm());
+        UserModel user = session.users().getUserByUsername(realm, userName);
+
+        if (user == null) {
+            throw new DatasetException("User '" + userName + "' not found in realm '" + realm.getName() + "'");
+        }
+
+        List<ResourcePermission> permissions = new ArrayList<>();
+
+        for (int i = 0; i < config.getPermissionsPerEvaluation(); i++) {
+            String resourceName = config.getResourcePrefix() + random.nextInt(resourceCount);
+            Resource resource = resourceStore.findByName(resourceServer, resourceName);
+
+            if (resource == null) {
+                throw new DatasetException("Resource '" + resourceName + "' not found in client '" + config.getClientId() + "'");
+            }
+
+            List<Scope> scopes = resource.getScopes();
+            List<Scope> requestedScopes = scopes.isEmpty() ? List.of() : List.of(scopes.get(random.nextInt(scopes.size())));
+
+            permissions.add(new ResourcePermission(resource, requestedScopes, resourceServer));
+        }
+
+        EvaluationContext context = new DefaultEvaluationContext(new UserModelIdentity(realm, user), session);
+        long start = System.nanoTime();
+        Collection<Permission> results = authorization.evaluators().from(permissions, resourceServer, context)
+                .evaluate(resourceServer, new AuthorizationRequest());
+        long time = System.nanoTime() - start;
+
+        granted.add(results.size());
+
+        return time;
+    }
+
+    private static long percentile(long[] sortedValues, int percentile) {
+        return sortedValues[(int) Math.ceil(percentile / 100.0 * sortedValues.length) - 1];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private void provision(Task task, RealmContext context, KeycloakSession session, List<String> scopeIds, AuthzPolicyMix policyMix,
+            int resourceStartIndex, int resourceEndIndex) {
         AuthorizationProvider provider = session.getProvider(AuthorizationProvider.class);
         StoreFactory storeFactory = provider.getStoreFactory();
         ScopeStore scopeStore = storeFactory.getScopeStore();
         DatasetConfig config = context.getConfig();
         ResourceServer resourceServer = getOrCreateResourceServer(config, session);
-        int scopeCount = config.getScopesPerResource();
-        String scopePrefix = config.getScopePrefix();
+        Random random = ThreadLocalRandom.current();
 
-        ResourceStore resourceStore = storeFactory.getResourceStore();
-        PolicyStore policyStore = storeFactory.getPolicyStore();
+        if (config.getBulk()) {
+            provisionInBulk(context, session, resourceServer, scopeIds, policyMix, resourceStartIndex, resourceEndIndex);
+        } else {
+            // The scopes are the same for all resources, so they are looked up only once in the transaction
+            List<Scope> scopes = new ArrayList<>();
+            for (String scopeId : scopeIds) {
+                scopes.add(scopeStore.findById(resourceServer, scopeId));
+            }
 
-        for (int currentResourceIndex = resourceStartIndex; currentResourceIndex < resourceEndIndex; currentResourceIndex++) {
-            Set<Scope> scopes = createScopes(scopeStore, resourceServer, scopeCount, scopePrefix);
-            Resource resource = createResource(config, resourceServer, resourceStore, currentResourceIndex, scopes);
-            List<Policy> policies = createUserPolicies(config, resourceServer, policyStore, currentResourceIndex);
-            createScopePermission(scopeStore, resourceServer, scopeCount, scopePrefix, policyStore, currentResourceIndex, resource, policies);
-            context.incResourceCount();
+            ResourceStore resourceStore = storeFactory.getResourceStore();
+            PolicyStore policyStore = storeFactory.getPolicyStore();
+
+            for (int currentResourceIndex = resourceStartIndex; currentResourceIndex < resourceEndIndex; currentResourceIndex++) {
+                Resource resource = createResource(config, resourceServer, resourceStore, currentResourceIndex, new HashSet<>(scopes));
+                Policy policy = createPolicy(resourceServer, policyStore, policyMix.createPolicy(currentResourceIndex, random));
+                createScopePermission(resourceServer, scopes, config.getScopePrefix(), policyStore, currentResourceIndex, resource, List.of(policy));
+                context.incResourceCount();
+            }
         }
 
         task.debug(logger, "Created %d resources in client %s", context.getResourceCount(), config.getClientId());
@@ -115,59 +304,92 @@ public class AuthorizationProvisioner extends DatasetResourceProvider{
         }
     }
 
-    private boolean submitTask(RealmContext context, Task task) {
-        KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), new KeycloakSessionTask() {
-            @Override
-            public void run(KeycloakSession session) {
-                DatasetConfig config = context.getConfig();
-                ResourceServer resourceServer = getOrCreateResourceServer(config, session);
-                AuthorizationProvider provider = session.getProvider(AuthorizationProvider.class);
-                StoreFactory storeFactory = provider.getStoreFactory();
-                ScopeStore scopeStore = storeFactory.getScopeStore();
-                int startScopeIndex = getLastScopeIndex(resourceServer, scopeStore);
-                int scopeCount = config.getScopesPerResource();
-                String scopePrefix = config.getScopePrefix();
-
-                for (int i = startScopeIndex; i < scopeCount; i++) {
-                    scopeStore.create(resourceServer, scopePrefix + i);
-                }
+    // The rows written with the bulk inserts bypass the authorization cache, which may already contain the queries of the resource server,
+    // like the resources with some name or the policies of some scope. Clearing the realm cache clears also the authorization cache on all nodes
+    private void clearCachesAfterBulk(DatasetConfig config) {
+        if (!config.getBulk()) {
+            return;
+        }
+        KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session -> {
+            CacheRealmProvider cache = session.getProvider(CacheRealmProvider.class);
+            if (cache != null) {
+                cache.clear();
             }
         });
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                KeycloakSessionFactory sessionFactory = baseSession.getKeycloakSessionFactory();
-                DatasetConfig config = context.getConfig();
-                RealmModel realm = context.getRealm();
-                ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config);
+    }
 
-                try {
-                    logger.infof("Will start creating resources in client '%s' from '%s' to '%s'", config.getClientId(), config.getResourcePrefix() + config.getStart(), config.getResourcePrefix() + (
-                            config.getStart() + config.getCount() - 1));
+    // Same resources, policies and permissions as created through the stores, but written with batched JDBC inserts
+    private void provisionInBulk(RealmContext context, KeycloakSession session, ResourceServer resourceServer, List<String> scopeIds,
+            AuthzPolicyMix policyMix, int resourceStartIndex, int resourceEndIndex) {
+        DatasetConfig config = context.getConfig();
+        RealmModel realm = context.getRealm();
+        BulkAuthzWriter writer = new BulkAuthzWriter(session, resourceServer.getId());
+        Random random = ThreadLocalRandom.current();
+
+        // Create the policies of all resources first, so the ids of their users are looked up with a single query
+        List<AuthzPolicyMix.PolicyNode> policies = new ArrayList<>();
+        List<UserPolicyRepresentation> userPolicies = new ArrayList<>();
+        for (int i = resourceStartIndex; i < resourceEndIndex; i++) {
+            AuthzPolicyMix.PolicyNode policy = policyMix.createPolicy(i, random);
+            policies.add(policy);
+            collectUserPolicies(policy, userPolicies);
+        }
 
-                    for (int i = config.getStart(); i < (config.getStart() + config.getCount()); i += config.getEntriesPerTransaction()) {
-                        int resourceStartIndex = i;
-                        int endIndex = Math.min(resourceStartIndex + config.getEntriesPerTransaction(), config.getStart() + config.getCount());
+        // Usernames are always stored in lower case
+        Set<String> missingUsers = new HashSet<>();
+        userPolicies.forEach(policy -> policy.getUsers().forEach(userName -> missingUsers.add(userName.toLowerCase())));
+        Map<String, String> userIds = writer.findUserIds(realm.getId(), missingUsers);
+        missingUsers.removeAll(userIds.keySet());
+        if (!missingUsers.isEmpty()) {
+            throw new DatasetException("Users " + missingUsers + " not found in realm '" + realm.getName() + "'");
+        }
+        for (UserPolicyRepresentation policy : userPolicies) {
+            policy.setUsers(policy.getUsers().stream().map(userName -> userIds.get(userName.toLowerCase())).collect(Collectors.toSet()));
+        }
 
-                        // Run this concurrently with multiple threads
-                        executor.addTaskRunningInTransaction(session -> {
-                            session.getContext().setRealm(realm);
+        for (int currentResourceIndex = resourceStartIndex; currentResourceIndex < resourceEndIndex; currentResourceIndex++) {
+            String resourceId = writer.addResource(config.getResourcePrefix() + currentResourceIndex, scopeIds);
+            List<String> policyIds = List.of(addPolicy(writer, policies.get(currentResourceIndex - resourceStartIndex)));
 
-                            // Eagerly register invalidation to make sure we don't cache the realm in this transaction. Caching will result in bunch of
-                            // unneeded SQL queries (triggered from constructor of org.keycloak.models.cache.infinispan.entities.CachedRealm) and we need to invalidate realm anyway in this transaction
-                            RealmProvider realmProvider = session.realms();
+            for (int k = 0; k < scopeIds.size(); k++) {
+                writer.addScopePermission(config.getScopePrefix() + k + "-permission-" + currentResourceIndex, resourceId, scopeIds.get(k), policyIds);
+            }
+            context.incResourceCount();
+        }
 
-                            if (realmProvider instanceof CacheRealmProvider) {
-                                ((CacheRealmProvider) realmProvider).registerRealmInvalidation(realm.getId(), realm.getName());
-                            }
+        writer.flush();
+    }
+
+    private String addPolicy(BulkAuthzWriter writer, AuthzPolicyMix.PolicyNode policy) {
+        List<String> associatedPolicyIds = new ArrayList<>();
+        for (AuthzPolicyMix.PolicyNode associatedPolicy : policy.getPolicies()) {
+            associatedPolicyIds.add(addPolicy(writer, associatedPolicy));
+        }
+        return writer.addPolicy(policy.getRepresentation(), associatedPolicyIds);
+    }
 
-                            provision(task, context, session, resourceStartIndex, endIndex);
+    private void collectUserPolicies(AuthzPolicyMix.PolicyNode policy, List<UserPolicyRepresentation> userPolicies) {
+        if (policy.getRepresentation() instanceof UserPolicyRepresentation) {
+            userPolicies.add((UserPolicyRepresentation) policy.getRepresentation());
+        }
+        policy.getPolicies().forEach(associatedPolicy -> collectUserPolicies(associatedPolicy, userPolicies));
+    }
 
-                        });
+    private boolean submitTask(RealmContext context, Task task, AuthzPolicyMix policyMix) {
+        List<String> scopeIds = createMissingScopes(context);
+        TaskThreads.start(context.getConfig(), new Runnable() {
+            @Override
+            public void run() {
+                KeycloakSessionFactory sessionFactory = baseSession.getKeycloakSessionFactory();
+                DatasetConfig config = context.getConfig();
+                RealmModel realm = context.getRealm();
+                ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config);
 
-                    }
+                try {
+                    addResourceCreationTasks(task, context, executor, scopeIds, policyMix);
 
                     executor.waitForAllToFinish();
+                    clearCachesAfterBulk(config);
                     success();
                     task.info(logger, "Created all %d resources in client %s and realm %s", context.getResourceCount(), config.getClientId(), realm.getName());
                 } catch (Throwable ex) {
@@ -176,95 +398,123 @@ public class AuthorizationProvisioner extends DatasetResourceProvider{
                     cleanup(executor);
                 }
             }
-        }).start();
+        });
 
         return true;
     }
 
-    private void createScopePermission(ScopeStore scopeStore, ResourceServer resourceServer, int scopeCount, String scopePrefix,
-            PolicyStore policyStore, int currentResourceIndex, Resource resource, List<Policy> policies) {
-        for (int k = 0; k < scopeCount; k++) {
-            ScopePermissionRepresentation permission = new ScopePermissionRepresentation();
-
-            permission.setName(scopePrefix + k + "-permission-" + currentResourceIndex);
-            permission.addResource(resource.getId());
-            permission.addScope(scopeStore.findByName(resourceServer, scopePrefix + k).getId());
-            permission.addPolicy(policies.stream().map(Policy::getId).toArray(String[]::new));
+    /**
+     * Create the resources with the given executor and wait until they are created. Unlike the {@code create-resources} endpoint,
+     * everything is looked up in the separate transactions, so it can run outside of the HTTP request.
+     */
+    void createResources(Task task, DatasetConfig config, ExecutorHelper executor) {
+        RealmContext context = new RealmContext(config);
+        AuthzPolicyMix policyMix = KeycloakModelUtils.runJobInTransactionWithResult(baseSession.getKeycloakSessionFactory(), session -> {
+            RealmModel realm = getRealm(config, session);
+            if (realm.getClientByClientId(config.getClientId()) == null) {
+                throw new DatasetException("Client '" + config.getClientId() + "' not found in realm '" + realm.getName() + "'");
+            }
+            ResourceServer resourceServer = getOrCreateResourceServer(config, session);
+            config.setStart(EntityIndexes.nextResourceIndex(session, resourceServer.getId(), config.getResourcePrefix()));
+            context.setRealm(realm);
+            context.setSnapshot(RealmSnapshot.get(session, realm, config));
+            return AuthzPolicyMix.parse(config, context.getSnapshot());
+        });
 
-            policyStore.create(resourceServer, permission);
-        }
+        List<String> scopeIds = createMissingScopes(context);
+        addResourceCreationTasks(task, context, executor, scopeIds, policyMix);
+        executor.waitForAllToFinish();
+        clearCachesAfterBulk(config);
+        task.info(logger, "Created all %d resources in client %s and realm %s", context.getResourceCount(), config.getClientId(), context.getRealm().getName());
     }
 
-    private List<Policy> createUserPolicies(DatasetConfig config, ResourceServer resourceServer, PolicyStore policyStore, int currentResourceIndex) {
-        List<Policy> policies = new ArrayList<>();
+    /**
+     * @return ids of the scopes of the resources ordered by their index
+     */
+    private List<String> createMissingScopes(RealmContext context) {
+        return KeycloakModelUtils.runJobInTransactionWithResult(baseSession.getKeycloakSessionFactory(), new KeycloakSessionTaskWithResult<List<String>>() {
+            @Override
+            public List<String> run(KeycloakSession session) {
+                DatasetConfig config = context.getConfig();
+                ResourceServer resourceServer = getOrCreateResourceServer(config, session);
+                AuthorizationProvider provider = session.getProvider(AuthorizationProvider.class);
+                StoreFactory storeFactory = provider.getStoreFactory();
+                ScopeStore scopeStore = storeFactory.getScopeStore();
+                int startScopeIndex = EntityIndexes.nextScopeIndex(session, resourceServer.getId(), config.getScopePrefix());
+                int scopeCount = config.getScopesPerResource();
+                String scopePrefix = config.getScopePrefix();
+                List<String> scopeIds = new ArrayList<>();
 
-        if (config.getUsersPerUserPolicy() == 1) {
-            policies.add(createUserPolicy(config, resourceServer, policyStore, currentResourceIndex));
-        } else {
-            AggregatePolicyRepresentation policyRep = new AggregatePolicyRepresentation();
+                for (int i = 0; i < scopeCount; i++) {
+                    Scope scope = i < startScopeIndex ? scopeStore.findByName(resourceServer, scopePrefix + i) : null;
 
-            policyRep.setName("aggregated-" + currentResourceIndex);
-            policyRep.setDecisionStrategy(DecisionStrategy.AFFIRMATIVE);
+                    if (scope == null) {
+                        scope = scopeStore.create(resourceServer, scopePrefix + i);
+                    }
 
-            Policy policy = policyStore.create(resourceServer, policyRep);
+                    scopeIds.add(scope.getId());
+                }
 
-            for (int i = 0; i < config.getUsersPerUserPolicy(); i++) {
-                policy.addAssociatedPolicy(createUserPolicy(config, resourceServer, policyStore, currentResourceIndex));
+                return scopeIds;
             }
+        });
+    }
 
-            policies.add(policy);
-        }
+    private void addResourceCreationTasks(Task task, RealmContext context, ExecutorHelper executor, List<String> scopeIds, AuthzPolicyMix policyMix) {
+        DatasetConfig config = context.getConfig();
+        RealmModel realm = context.getRealm();
 
-        return policies;
-    }
+        logger.infof("Will start creating resources in client '%s' from '%s' to '%s'", config.getClientId(), config.getResourcePrefix() + config.getStart(), config.getResourcePrefix() + (
+                config.getStart() + config.getCount() - 1));
 
-    private Resource createResource(DatasetConfig config, ResourceServer resourceServer,
-            ResourceStore resourceStore, int currentResourceIndex, Set<Scope> scopes) {
-        Resource resource = resourceStore.create(resourceServer, config.getResourcePrefix() + currentResourceIndex, resourceServer.getId());
+        // Run this concurrently with multiple threads. The tasks for the transactions are created lazily as the previous ones complete
+        executor.addTasksRunningInTransaction(config.getStart(), config.getStart() + config.getCount(), config.getEntriesPerTransaction(), (resourceStartIndex, endIndex) -> session -> {
+            session.getContext().setRealm(realm);
 
-        resource.updateScopes(scopes);
+            // Eagerly register invalidation to make sure we don't cache the realm in this transaction. Caching will result in bunch of
+            // unneeded SQL queries (triggered from constructor of org.keycloak.models.cache.infinispan.entities.CachedRealm) and we need to invalidate realm anyway in this transaction
+            RealmProvider realmProvider = session.realms();
 
-        return resource;
-    }
+            if (realmProvider instanceof CacheRealmProvider) {
+                ((CacheRealmProvider) realmProvider).registerRealmInvalidation(realm.getId(), realm.getName());
+            }
 
-    private Set<Scope> createScopes(ScopeStore scopeStore, ResourceServer resourceServer, int scopeCount,
-            String scopePrefix) {
-        Set<Scope> scopes = new HashSet<>();
+            provision(task, context, session, scopeIds, policyMix, resourceStartIndex, endIndex);
 
-        for (int i = 0; i < scopeCount; i++) {
-            scopes.add(scopeStore.findByName(resourceServer, scopePrefix + i));
-        }
-        return scopes;
+        }, (resourceStartIndex, endIndex) -> task.getProgress().created(endIndex - resourceStartIndex));
     }
 
-    private Policy createUserPolicy(DatasetConfig config, ResourceServer resourceServer, PolicyStore policyStore,
-            int currentResourceIndex) {
-        UserPolicyRepresentation policy = new UserPolicyRepresentation();
-        String userName = config.getUserPrefix() + new Random().ints(0, config.getUsersPerRealm()).findFirst().getAsInt();
+    private void createScopePermission(ResourceServer resourceServer, List<Scope> scopes, String scopePrefix,
+            PolicyStore policyStore, int currentResourceIndex, Resource resource, List<Policy> policies) {
+        for (int k = 0; k < scopes.size(); k++) {
+            ScopePermissionRepresentation permission = new ScopePermissionRepresentation();
 
-        policy.setName(userName + "-policy-" + currentResourceIndex);
+            permission.setName(scopePrefix + k + "-permission-" + currentResourceIndex);
+            permission.addResource(resource.getId());
+            permission.addScope(scopes.get(k).getId());
+            permission.addPolicy(policies.stream().map(Policy::getId).toArray(String[]::new));
 
-        Policy existingPolicy = policyStore.findByName(resourceServer, policy.getName());
+            policyStore.create(resourceServer, permission);
+        }
+    }
+
+    private Policy createPolicy(ResourceServer resourceServer, PolicyStore policyStore, AuthzPolicyMix.PolicyNode policyNode) {
+        Policy policy = policyStore.create(resourceServer, policyNode.getRepresentation());
 
-        if (existingPolicy == null) {
-            policy.addUser(userName);
-            policy.setDecisionStrategy(DecisionStrategy.AFFIRMATIVE);
-            return policyStore.create(resourceServer, policy);
+        for (AuthzPolicyMix.PolicyNode associatedPolicy : policyNode.getPolicies()) {
+            policy.addAssociatedPolicy(createPolicy(resourceServer, policyStore, associatedPolicy));
         }
 
-        return existingPolicy;
+        return policy;
     }
 
-    private int getLastResourceIndex(ResourceServer resourceServer, ResourceStore resourceStore) {
-        int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-            String resourceName = "resource-" + index;
-            return resourceStore.findByName(resourceServer, resourceName) != null;
-        });
-        return startIndex;
-    }
+    private Resource createResource(DatasetConfig config, ResourceServer resourceServer,
+            ResourceStore resourceStore, int currentResourceIndex, Set<Scope> scopes) {
+        Resource resource = resourceStore.create(resourceServer, config.getResourcePrefix() + currentResourceIndex, resourceServer.getId());
 
-    private int getLastScopeIndex(ResourceServer resourceServer, ScopeStore scopeStore) {
-        return ConfigUtil.findFreeEntityIndex(index -> scopeStore.findByName(resourceServer, "scope-" + index) != null);
+        resource.updateScopes(scopes);
+
+        return resource;
     }
 
     private AuthorizationProvider getAuthorizationProvider(KeycloakSession session) {
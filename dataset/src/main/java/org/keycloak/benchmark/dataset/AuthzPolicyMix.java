@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.representations.idm.authorization.AbstractPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.AggregatePolicyRepresentation;
+import org.keycloak.representations.idm.authorization.ClientPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.DecisionStrategy;
+import org.keycloak.representations.idm.authorization.GroupPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.RegexPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.RolePolicyRepresentation;
+import org.keycloak.representations.idm.authorization.TimePolicyRepresentation;
+import org.keycloak.representations.idm.authorization.UserPolicyRepresentation;
+
+/**
+ * Policies of the resources created by the {@link AuthorizationProvisioner}. The type of every policy is picked at random with the
+ * weights of the {@code policy-mix} parameter. Every aggregate policy contains {@code aggregate-policy-fan-out} policies picked from
+ * the same mix, and the aggregate policies are nested up to {@code aggregate-policy-depth} levels.
+ * <p>
+ * The role, group and client policies reference the roles, groups and clients of the {@link RealmSnapshot} of the realm by their ids.
+ */
+public class AuthzPolicyMix {
+
+    public static final String USER = "user";
+    public static final String ROLE = "role";
+    public static final String GROUP = "group";
+    public static final String CLIENT = "client";
+    public static final String TIME = "time";
+    public static final String REGEX = "regex";
+    public static final String AGGREGATE = "aggregate";
+
+    static final List<String> TYPES = List.of(USER, ROLE, GROUP, CLIENT, TIME, REGEX, AGGREGATE);
+
+    // Upper limit of the policies aggregated by the policy of a single resource, which grows as fan-out to the power of the depth
+    static final int MAX_AGGREGATED_POLICIES = 1000;
+
+    private final DatasetConfig config;
+    private final RealmSnapshot snapshot;
+    private final WeightedMix mix;
+    // Same mix without the aggregate policies, which is used at the maximum depth
+    private final WeightedMix leafMix;
+    private final List<String> roleIds;
+
+    private AuthzPolicyMix(DatasetConfig config, RealmSnapshot snapshot, WeightedMix mix) {
+        this.config = config;
+        this.snapshot = snapshot;
+        this.mix = mix;
+        this.leafMix = mix.without(AGGREGATE);
+        this.roleIds = new ArrayList<>(snapshot.getRealmRoleIds());
+        this.roleIds.addAll(snapshot.getClientRoleIds());
+    }
+
+    public static AuthzPolicyMix parse(DatasetConfig config, RealmSnapshot snapshot) {
+        WeightedMix mix = WeightedMix.parse("policy-mix", config.getPolicyMix());
+        for (String type : mix.getValues()) {
+            if (!TYPES.contains(type)) {
+                throw new DatasetException("Unknown value '" + type + "' in the parameter 'policy-mix'. Supported values are " + TYPES);
+            }
+        }
+        if (mix.without(AGGREGATE) == null) {
+            throw new DatasetException("Parameter 'policy-mix' needs at least one policy type other than '" + AGGREGATE + "'");
+        }
+        if (config.getAggregatePolicyDepth() < 1 || config.getAggregatePolicyFanOut() < 1) {
+            throw new DatasetException("Parameters 'aggregate-policy-depth' and 'aggregate-policy-fan-out' must be at least 1");
+        }
+        if (mix.getValues().contains(AGGREGATE)) {
+            long aggregatedPolicies = 1;
+            for (int i = 0; i < config.getAggregatePolicyDepth() && aggregatedPolicies <= MAX_AGGREGATED_POLICIES; i++) {
+                aggregatedPolicies *= config.getAggregatePolicyFanOut();
+            }
+            if (aggregatedPolicies > MAX_AGGREGATED_POLICIES) {
+                throw new DatasetException("Parameter 'aggregate-policy-fan-out' to the power of 'aggregate-policy-depth' can be at most "
+                        + MAX_AGGREGATED_POLICIES);
+            }
+        }
+
+        AuthzPolicyMix policyMix = new AuthzPolicyMix(config, snapshot, mix);
+        policyMix.checkReferences(ROLE, policyMix.roleIds, "realm roles with the prefix '" + config.getRealmRolePrefix() + "' or client roles");
+        policyMix.checkReferences(GROUP, snapshot.getGroupIds(), "groups with the prefix '" + config.getGroupPrefix() + "'");
+        policyMix.checkReferences(CLIENT, snapshot.getClientIds(), "clients with the prefix '" + config.getClientPrefix() + "'");
+        return policyMix;
+    }
+
+    /**
+     * @return the policy of the resource with the given index together with the policies it aggregates
+     */
+    public PolicyNode createPolicy(int resourceIndex, Random random) {
+        return createPolicy(resourceIndex, "", 0, random);
+    }
+
+    // The path of the policy in the aggregate policies makes the names unique within the resource
+    private PolicyNode createPolicy(int resourceIndex, String path, int depth, Random random) {
+        String type = depth == config.getAggregatePolicyDepth() ? leafMix.pick(random) : mix.pick(random);
+
+        switch (type) {
+            case USER:
+                return createUserPolicies(resourceIndex, path, random);
+            case AGGREGATE:
+                List<PolicyNode> policies = new ArrayList<>();
+                for (int i = 0; i < config.getAggregatePolicyFanOut(); i++) {
+                    policies.add(createPolicy(resourceIndex, path + "-" + i, depth + 1, random));
+                }
+                return aggregate("aggregated-" + resourceIndex + path, policies);
+            default:
+                return new PolicyNode(createPolicy(type, type + "-policy-" + resourceIndex + path, random), List.of());
+        }
+    }
+
+    // Same policies as created before the policy mix: a user policy or an aggregate policy of user policies with distinct users
+    private PolicyNode createUserPolicies(int resourceIndex, String path, Random random) {
+        int count = Math.min(config.getUsersPerUserPolicy(), config.getUsersPerRealm());
+        List<String> userNames = random.ints(0, config.getUsersPerRealm()).distinct().limit(count)
+                .mapToObj(index -> config.getUserPrefix() + index)
+                .collect(Collectors.toList());
+
+        List<PolicyNode> policies = new ArrayList<>();
+        for (String userName : userNames) {
+            UserPolicyRepresentation policy = new UserPolicyRepresentation();
+            policy.setName(userName + "-policy-" + resourceIndex + path);
+            policy.addUser(userName);
+            policies.add(new PolicyNode(withDecisionStrategy(policy), List.of()));
+        }
+
+        return config.getUsersPerUserPolicy() == 1 ? policies.get(0) : aggregate("aggregated-" + resourceIndex + path, policies);
+    }
+
+    private AbstractPolicyRepresentation createPolicy(String type, String name, Random random) {
+        AbstractPolicyRepresentation policy;
+        switch (type) {
+            case ROLE:
+                RolePolicyRepresentation rolePolicy = new RolePolicyRepresentation();
+                rolePolicy.addRole(roleIds.get(random.nextInt(roleIds.size())));
+                policy = rolePolicy;
+                break;
+            case GROUP:
+                GroupPolicyRepresentation groupPolicy = new GroupPolicyRepresentation();
+                groupPolicy.addGroup(snapshot.getGroupIds().get(random.nextInt(snapshot.getGroupIds().size())));
+                policy = groupPolicy;
+                break;
+            case CLIENT:
+                ClientPolicyRepresentation clientPolicy = new ClientPolicyRepresentation();
+                clientPolicy.addClient(snapshot.getClientIds().get(random.nextInt(snapshot.getClientIds().size())));
+                policy = clientPolicy;
+                break;
+            case TIME:
+                // Grants the access during the whole day, so the result does not depend on the time of the benchmark
+                TimePolicyRepresentation timePolicy = new TimePolicyRepresentation();
+                timePolicy.setHour("0");
+                timePolicy.setHourEnd("23");
+                policy = timePolicy;
+                break;
+            case REGEX:
+                // Matches the usernames ending with the given digit, which is roughly a tenth of the users
+                RegexPolicyRepresentation regexPolicy = new RegexPolicyRepresentation();
+                regexPolicy.setTargetClaim("preferred_username");
+                regexPolicy.setPattern("^" + Pattern.quote(config.getUserPrefix().toLowerCase()) + "\\d*" + random.nextInt(10) + "$");
+                policy = regexPolicy;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported policy type " + type);
+        }
+        policy.setName(name);
+        return withDecisionStrategy(policy);
+    }
+
+    private PolicyNode aggregate(String name, List<PolicyNode> policies) {
+        AggregatePolicyRepresentation policy = new AggregatePolicyRepresentation();
+        policy.setName(name);
+        return new PolicyNode(withDecisionStrategy(policy), policies);
+    }
+
+    private AbstractPolicyRepresentation withDecisionStrategy(AbstractPolicyRepresentation policy) {
+        policy.setDecisionStrategy(DecisionStrategy.AFFIRMATIVE);
+        return policy;
+    }
+
+    private void checkReferences(String type, List<String> ids, String description) {
+        if (mix.getValues().contains(type) && ids.isEmpty()) {
+            throw new DatasetException("Policy type '" + type + "' of the parameter 'policy-mix' needs " + description + " in realm '"
+                    + config.getRealmName() + "'");
+        }
+    }
+
+    /**
+     * Policy with the policies it aggregates, which are empty unless it is an aggregate policy.
+     */
+    public static class PolicyNode {
+
+        private final AbstractPolicyRepresentation representation;
+        private final List<PolicyNode> policies;
+
+        private PolicyNode(AbstractPolicyRepresentation representation, List<PolicyNode> policies) {
+            this.representation = representation;
+            this.policies = policies;
+        }
+
+        public AbstractPolicyRepresentation getRepresentation() {
+            return representation;
+        }
+
+        public List<PolicyNode> getPolicies() {
+            return policies;
+        }
+    }
+}
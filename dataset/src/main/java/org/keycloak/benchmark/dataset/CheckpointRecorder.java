@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.utils.KeycloakModelUtils;
+
+/**
+ * Periodically stores the {@link TaskCheckpoint} of the running task through the {@link TaskManager}. Every write also works
+ * as a heartbeat, so that other nodes can find out that the task is not running anymore.
+ */
+public class CheckpointRecorder implements AutoCloseable {
+
+    static final long HEARTBEAT_INTERVAL_MS = TimeUnit.SECONDS.toMillis(10);
+
+    // The task is considered as not running anymore after few missed heartbeats
+    static final long ABANDONED_AFTER_MS = 6 * HEARTBEAT_INTERVAL_MS;
+
+    protected static final Logger logger = Logger.getLogger(CheckpointRecorder.class);
+
+    private final KeycloakSessionFactory sessionFactory;
+    private final TaskCheckpoint checkpoint;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean completed;
+
+    public CheckpointRecorder(KeycloakSessionFactory sessionFactory, TaskCheckpoint checkpoint) {
+        this.sessionFactory = sessionFactory;
+        this.checkpoint = checkpoint;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        save();
+        scheduler.scheduleWithFixedDelay(this::save, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public TaskCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Called when all the entities were created. The checkpoint is removed as there is nothing to resume.
+     */
+    public void completed() {
+        completed = true;
+        scheduler.shutdownNow();
+        KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> new TaskManager(session).removeCheckpoint());
+    }
+
+    /**
+     * Stores the last state of the checkpoint, so that the task can be resumed later, unless it was completed.
+     */
+    @Override
+    public void close() {
+        if (!completed) {
+            scheduler.shutdownNow();
+            save();
+            logger.infof("Task not completed. It can be resumed from the checkpoint: %s", checkpoint);
+        }
+    }
+
+    private synchronized void save() {
+        try {
+            checkpoint.heartbeat();
+            KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> new TaskManager(session).saveCheckpoint(checkpoint));
+        } catch (Throwable ex) {
+            logger.warn("Failed to store the task checkpoint", ex);
+        }
+    }
+}
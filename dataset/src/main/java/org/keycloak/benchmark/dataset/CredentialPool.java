@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.jboss.logging.Logger;
+import org.keycloak.common.util.Time;
+import org.keycloak.credential.CredentialModel;
+import org.keycloak.credential.hash.PasswordHashProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.PasswordPolicy;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.credential.PasswordCredentialModel;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.util.JsonSerialization;
+
+/**
+ * Pool of the encoded passwords {@code password-0}, {@code password-1}, ... used when creating users with {@code unique-credential-count}.
+ * <p>
+ * The passwords are hashed just once for every combination of the hash algorithm and the hash iterations and reused for all realms
+ * with the same password policy. They are also stored in a local file, so they are reused by the next tasks and after restart of Keycloak.
+ * The directory of the files is configured on the server with the system property {@value #DIRECTORY_PROPERTY}, and it can not be
+ * changed by the requests.
+ * Hashing runs in a dedicated {@link ForkJoinPool} with a single Keycloak session and without any DB transaction.
+ */
+public class CredentialPool {
+
+    static final String FILE_PREFIX = "credentials-";
+    static final String DEFAULT_DIRECTORY = "keycloak-dataset-credential-pool";
+    static final String DIRECTORY_PROPERTY = "keycloak.dataset.credential-pool-dir";
+
+    private static final String KEY_SECRET_DATA = "secretData";
+    private static final String KEY_CREDENTIAL_DATA = "credentialData";
+    private static final String KEY_CREATED_DATE = "createdDate";
+
+    protected static final Logger logger = Logger.getLogger(CredentialPool.class);
+
+    private static final Map<String, List<PasswordCredentialModel>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @return encoded passwords with the password policy of the given realm, where the password at the index {@code i} is {@code password-i}
+     */
+    public static List<PasswordCredentialModel> getCredentials(KeycloakSessionFactory sessionFactory, RealmModel realm, int count) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+
+        PasswordPolicy policy = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                session -> session.realms().getRealm(realm.getId()).getPasswordPolicy());
+        String key = (policy.getHashAlgorithm() == null ? "default" : policy.getHashAlgorithm()) + "-" + policy.getHashIterations();
+
+        // Realms are created concurrently and most likely with the same policy, so let the first one hash the passwords and others wait for it
+        synchronized (CredentialPool.class) {
+            List<PasswordCredentialModel> pool = pools.get(key);
+            if (pool == null || pool.size() < count) {
+                Path file = getDirectory().resolve(FILE_PREFIX + key.replaceAll("[^a-zA-Z0-9_-]", "_") + ".json");
+                pool = pool != null ? pool : load(file);
+                if (pool.size() < count) {
+                    pool = hash(sessionFactory, policy, pool, count);
+                    store(file, pool);
+                }
+                pools.put(key, Collections.unmodifiableList(pool));
+            }
+            return pool.subList(0, count);
+        }
+    }
+
+    private static List<PasswordCredentialModel> hash(KeycloakSessionFactory sessionFactory, PasswordPolicy policy, List<PasswordCredentialModel> existing, int count) {
+        logger.infof("Hashing %d passwords with the hash algorithm %s and %d iterations", count - existing.size(), policy.getHashAlgorithm(), policy.getHashIterations());
+        long start = Time.currentTimeMillis();
+
+        // Provider classes are loaded by the Quarkus class loader, so make it available to the worker threads
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool hashingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+
+        try (KeycloakSession session = sessionFactory.create()) {
+            PasswordHashProvider hashProvider = policy.getHashAlgorithm() != null ?
+                    session.getProvider(PasswordHashProvider.class, policy.getHashAlgorithm()) :
+                    session.getProvider(PasswordHashProvider.class);
+
+            List<PasswordCredentialModel> hashed = hashingPool.submit(() -> IntStream.range(existing.size(), count)
+                    .parallel()
+                    .mapToObj(i -> hashProvider.encodedCredential("password-" + i, policy.getHashIterations()))
+                    .collect(Collectors.toList())).get();
+
+            List<PasswordCredentialModel> result = new ArrayList<>(existing);
+            result.addAll(hashed);
+            logger.infof("Hashed %d passwords in %d ms", hashed.size(), Time.currentTimeMillis() - start);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to hash passwords", e.getCause());
+        } finally {
+            hashingPool.shutdown();
+        }
+    }
+
+    private static Path getDirectory() {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_DIRECTORY);
+        }
+        return Paths.get(directory);
+    }
+
+    private static List<PasswordCredentialModel> load(Path file) {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try (InputStream is = Files.newInputStream(file)) {
+            List<Map<String, String>> stored = JsonSerialization.readValue(is, new TypeReference<>() {});
+            List<PasswordCredentialModel> result = new ArrayList<>(stored.size());
+            for (Map<String, String> entry : stored) {
+                CredentialModel credential = new CredentialModel();
+                credential.setType(PasswordCredentialModel.TYPE);
+                credential.setSecretData(entry.get(KEY_SECRET_DATA));
+                credential.setCredentialData(entry.get(KEY_CREDENTIAL_DATA));
+                if (entry.get(KEY_CREATED_DATE) != null) {
+                    credential.setCreatedDate(Long.parseLong(entry.get(KEY_CREATED_DATE)));
+                }
+                result.add(PasswordCredentialModel.createFromCredentialModel(credential));
+            }
+            logger.infof("Loaded %d hashed passwords from %s", result.size(), file);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            logger.warnf(e, "Failed to load hashed passwords from %s. Passwords will be hashed again", file);
+            return new ArrayList<>();
+        }
+    }
+
+    private static void store(Path file, List<PasswordCredentialModel> credentials) {
+        List<Map<String, String>> stored = new ArrayList<>(credentials.size());
+        for (PasswordCredentialModel credential : credentials) {
+            Map<String, String> entry = new HashMap<>();
+            entry.put(KEY_SECRET_DATA, credential.getSecretData());
+            entry.put(KEY_CREDENTIAL_DATA, credential.getCredentialData());
+            if (credential.getCreatedDate() != null) {
+                entry.put(KEY_CREATED_DATE, Long.toString(credential.getCreatedDate()));
+            }
+            stored.add(entry);
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            // Write to a temporary file first, so a partially written file is never loaded
+            Path tmp = Files.createTempFile(file.getParent(), FILE_PREFIX, ".tmp");
+            Files.write(tmp, JsonSerialization.writeValueAsBytes(stored));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.infof("Stored %d hashed passwords to %s", credentials.size(), file);
+        } catch (IOException e) {
+            // Not fatal, the passwords are just hashed again next time
+            logger.warnf(e, "Failed to store hashed passwords to %s", file);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.jboss.logging.Logger;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+/**
+ * Stages of the dataset creation, which depend on each other. Every stage is started as soon as all the stages it depends on
+ * are finished, so the stages independent of each other run concurrently. When a stage fails, the stages depending on it are skipped.
+ * <p>
+ * Dependencies on the stages, which are not part of the pipeline, are ignored.
+ */
+public class DatasetPipeline {
+
+    protected static final Logger logger = Logger.getLogger(DatasetPipeline.class);
+
+    private final Map<String, List<String>> dependencies = new LinkedHashMap<>();
+    private final Map<String, Runnable> stages = new HashMap<>();
+
+    public DatasetPipeline addStage(String name, Collection<String> dependsOn, Runnable stage) {
+        if (stages.containsKey(name)) {
+            throw new DatasetException("Stage '" + name + "' is already defined");
+        }
+        dependencies.put(name, new ArrayList<>(dependsOn));
+        stages.put(name, stage);
+        return this;
+    }
+
+    /**
+     * @return names of the stages grouped by the level. The stages of the same level do not depend on each other and every stage depends
+     * only on the stages of the previous levels
+     */
+    public List<List<String>> getLevels() {
+        Map<String, Integer> levels = new HashMap<>();
+        for (String name : dependencies.keySet()) {
+            computeLevel(name, levels, new ArrayList<>());
+        }
+
+        List<List<String>> result = new ArrayList<>();
+        for (String name : dependencies.keySet()) {
+            int level = levels.get(name);
+            while (result.size() <= level) {
+                result.add(new ArrayList<>());
+            }
+            result.get(level).add(name);
+        }
+        return result;
+    }
+
+    private int computeLevel(String name, Map<String, Integer> levels, List<String> path) {
+        Integer level = levels.get(name);
+        if (level != null) {
+            return level;
+        }
+        if (path.contains(name)) {
+            path.add(name);
+            throw new DatasetException("Cyclic dependency of the stages: " + String.join(" -> ", path));
+        }
+        path.add(name);
+
+        level = 0;
+        for (String dependency : getDependencies(name)) {
+            level = Math.max(level, computeLevel(dependency, levels, path) + 1);
+        }
+        path.remove(path.size() - 1);
+        levels.put(name, level);
+        return level;
+    }
+
+    private List<String> getDependencies(String name) {
+        return dependencies.get(name).stream()
+                .filter(dependencies::containsKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Run all the stages and wait until they are finished.
+     *
+     * @param executor runs every stage. It should run each of them in a separate thread, so the independent stages run concurrently
+     * @throws RuntimeException if any of the stages failed. The failures of the stages are added as suppressed exceptions
+     */
+    public void run(Executor executor) {
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+        // The levels are in the order of the dependencies, so the futures of the dependencies are always created first
+        for (List<String> level : getLevels()) {
+            for (String name : level) {
+                CompletableFuture<?>[] dependsOn = getDependencies(name).stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+
+                Runnable stage = stages.get(name);
+                futures.put(name, CompletableFuture.allOf(dependsOn).thenRunAsync(() -> {
+                    logger.infof("Started stage '%s'", name);
+                    try {
+                        stage.run();
+                    } catch (RuntimeException | Error e) {
+                        logger.errorf(e, "Stage '%s' failed", name);
+                        failures.put(name, e);
+                        throw e;
+                    }
+                    logger.infof("Finished stage '%s'", name);
+                }, executor));
+            }
+        }
+
+        List<String> skipped = new ArrayList<>();
+        futures.forEach((name, future) -> {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException e) {
+                if (!failures.containsKey(name)) {
+                    skipped.add(name);
+                }
+            }
+        });
+
+        if (!failures.isEmpty() || !skipped.isEmpty()) {
+            RuntimeException ex = new RuntimeException("Failed stages " + new ArrayList<>(failures.keySet()) + ". Skipped stages " + skipped);
+            failures.values().forEach(ex::addSuppressed);
+            throw ex;
+        }
+    }
+}
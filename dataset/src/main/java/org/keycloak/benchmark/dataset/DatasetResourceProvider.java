@@ -19,9 +19,11 @@
 package org.keycloak.benchmark.dataset;
 
 import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
@@ -30,24 +32,36 @@ import jakarta.ws.rs.core.Response;
 import org.hibernate.Session;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.reactive.NoCache;
+import org.keycloak.benchmark.dataset.bulk.BulkClientWriter;
+import org.keycloak.benchmark.dataset.bulk.BulkEventWriter;
+import org.keycloak.benchmark.dataset.bulk.BulkRealmRemover;
+import org.keycloak.benchmark.dataset.bulk.BulkUserWriter;
+import org.keycloak.benchmark.dataset.bulk.SessionPool;
 import org.keycloak.benchmark.dataset.config.ConfigUtil;
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
 import org.keycloak.benchmark.dataset.config.DatasetException;
 import org.keycloak.benchmark.dataset.organization.OrganizationProvisioner;
+import org.keycloak.broker.oidc.KeycloakOIDCIdentityProviderFactory;
+import org.keycloak.common.Profile;
 import org.keycloak.common.util.Time;
 import org.keycloak.connections.infinispan.InfinispanConnectionProvider;
 import org.keycloak.connections.jpa.JpaConnectionProvider;
 import org.keycloak.connections.jpa.support.EntityManagers;
 import org.keycloak.connections.jpa.util.JpaUtils;
-import org.keycloak.credential.hash.PasswordHashProvider;
+import org.keycloak.events.Details;
 import org.keycloak.events.Event;
 import org.keycloak.events.EventStoreProvider;
 import org.keycloak.events.EventType;
+import org.keycloak.events.admin.AdminEvent;
+import org.keycloak.events.admin.AuthDetails;
+import org.keycloak.events.admin.OperationType;
+import org.keycloak.events.admin.ResourceType;
 import org.keycloak.http.HttpRequest;
 import org.keycloak.models.AuthenticatedClientSessionModel;
 import org.keycloak.models.ClientModel;
+import org.keycloak.models.FederatedIdentityModel;
 import org.keycloak.models.GroupModel;
-import org.keycloak.models.GroupProvider;
+import org.keycloak.models.IdentityProviderModel;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.KeycloakSessionFactory;
 import org.keycloak.models.KeycloakUriInfo;
@@ -59,7 +73,9 @@ import org.keycloak.models.UserCredentialModel;
 import org.keycloak.models.UserModel;
 import org.keycloak.models.UserSessionModel;
 import org.keycloak.models.cache.CacheRealmProvider;
+import org.keycloak.models.cache.UserCache;
 import org.keycloak.models.credential.PasswordCredentialModel;
+import org.keycloak.models.session.UserSessionPersisterProvider;
 import org.keycloak.models.utils.KeycloakModelUtils;
 import org.keycloak.protocol.oidc.OIDCAdvancedConfigWrapper;
 import org.keycloak.protocol.oidc.OIDCLoginProtocol;
@@ -74,16 +90,19 @@ import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_ADMIN_EVENTS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_CLIENTS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_EVENTS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_GROUPS;
@@ -114,9 +133,14 @@ public class DatasetResourceProvider implements RealmResourceProvider {
     private SecureRandom random = new SecureRandom();
 
     public DatasetResourceProvider(KeycloakSession session) {
+        this(session, session.getContext().getHttpRequest(), session.getContext().getUri());
+    }
+
+    // Used outside of the HTTP request, for example by the stages of the dataset spec, which run in the session of the task
+    protected DatasetResourceProvider(KeycloakSession session, HttpRequest httpRequest, KeycloakUriInfo uriInfo) {
         this.baseSession = session;
-        this.httpRequest = session.getContext().getHttpRequest();
-        this.uriInfo = session.getContext().getUri();
+        this.httpRequest = httpRequest;
+        this.uriInfo = uriInfo;
     }
 
     @Override
@@ -135,13 +159,13 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         boolean taskAdded = false;
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_REALMS);
+            // Reject invalid distribution and attribute parameters before the task is started
+            new UserDistribution(config);
+            UserAttributes.validate(config);
 
             logger.infof("Trigger creating realms with the configuration: %s", config);
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String realmName = config.getRealmPrefix() + index;
-                return baseSession.getProvider(RealmProvider.class).getRealmByName(realmName) != null;
-            });
+            int startIndex = EntityIndexes.nextRealmIndex(baseSession, config.getRealmPrefix());
             config.setStart(startIndex);
 
 
@@ -157,7 +181,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             }
 
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> createRealmsImpl(task, config, startIndex, realmEndIndex)).start();
+            TaskThreads.start(config, () -> createRealmsImpl(task, config, startIndex, realmEndIndex));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -172,106 +196,165 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
     // Implementation of creating many realms. This is triggered outside of HTTP request to not block HTTP request
     private void createRealmsImpl(Task task, DatasetConfig config, int startIndex, int realmEndIndex) {
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
         try {
-            logger.infof("Will start creating realms from '%s' to '%s'", config.getRealmPrefix() + startIndex, config.getRealmPrefix() + (realmEndIndex - 1));
+            doCreateRealms(task, config, startIndex, realmEndIndex, executor);
+            success();
+        } catch (Throwable ex) {
+            logException(ex);
+        } finally {
+            cleanup(executor);
+        }
+    }
 
-            for (int realmIndex = startIndex; realmIndex < realmEndIndex; realmIndex++) {
+    private void doCreateRealms(Task task, DatasetConfig config, int startIndex, int realmEndIndex, ExecutorHelper executor) {
+        Collection<RealmContext> bulkCreatedRealms = new ConcurrentLinkedQueue<>();
+        logger.infof("Will start creating realms from '%s' to '%s'", config.getRealmPrefix() + startIndex, config.getRealmPrefix() + (realmEndIndex - 1));
 
-                final int currentRealmIndex = realmIndex;
+        for (int realmIndex = startIndex; realmIndex < realmEndIndex; realmIndex++) {
 
-                // Run this concurrently in multiple threads
-                executor.addTask(() -> {
-                    logger.infof("Started creation of realm %s", config.getRealmPrefix() + currentRealmIndex);
+            final int currentRealmIndex = realmIndex;
 
-                    RealmContext context = new RealmContext(config);
+            // Run this concurrently in multiple threads
+            executor.addTask(() -> {
+                logger.infof("Started creation of realm %s", config.getRealmPrefix() + currentRealmIndex);
 
-                    // Step 1 - create realm, realmRoles and groups
-                    KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(), session -> {
-                        createAndSetRealm(context, currentRealmIndex, session);
-                        task.debug(logger, "Created realm %s", context.getRealm().getName());
+                RealmContext context = new RealmContext(config);
 
-                        createRealmRoles(context);
-                        task.debug(logger, "Created %d roles in realm %s", context.getRealmRoles().size(), context.getRealm().getName());
+                // Step 1 - create realm, realmRoles and groups
+                KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(), session -> {
+                    createAndSetRealm(context, currentRealmIndex, session);
+                    task.debug(logger, "Created realm %s", context.getRealm().getName());
 
-                    }, config.getTransactionTimeoutInSeconds());
+                    createRealmRoles(context);
+                    task.debug(logger, "Created %d roles in realm %s", config.getRealmRolesPerRealm(), context.getRealm().getName());
 
-                    // create each 100 groups per transaction as default case
-                    // (to avoid transaction timeouts when creating too many groups in one transaction)
-                    createGroupsInMultipleTransactions(config, context, task, config.getGroupsPerRealm());
+                }, config.getTransactionTimeoutInSeconds());
 
-                    // Step 2 - create clients (Using single executor for now... For multiple executors run separate create-clients endpoint)
-                    for (int i = 0; i < config.getClientsPerRealm(); i += config.getClientsPerTransaction()) {
-                        int clientsStartIndex = i;
-                        int endIndex = Math.min(clientsStartIndex + config.getClientsPerTransaction(), config.getClientsPerRealm());
-                        logger.tracef("clientsStartIndex: %d, clientsEndIndex: %d", clientsStartIndex, endIndex);
+                // create each 100 groups per transaction as default case
+                // (to avoid transaction timeouts when creating too many groups in one transaction)
+                createGroupsInMultipleTransactions(config, context, task, config.getGroupsPerRealm());
 
-                        KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(), session -> {
-                            KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
-                            createClients(context, task, session, clientsStartIndex, endIndex);
-                        }, config.getTransactionTimeoutInSeconds());
+                // Step 2 - create clients (Using single executor for now... For multiple executors run separate create-clients endpoint)
+                for (int i = 0; i < config.getClientsPerRealm(); i += config.getClientsPerTransaction()) {
+                    int clientsStartIndex = i;
+                    int endIndex = Math.min(clientsStartIndex + config.getClientsPerTransaction(), config.getClientsPerRealm());
+                    logger.tracef("clientsStartIndex: %d, clientsEndIndex: %d", clientsStartIndex, endIndex);
 
-                        task.debug(logger, "Created %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
-                    }
-                    task.info(logger, "Created all %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
-
-                    // Step 3 - cache realm. This will cache the realm in Keycloak cache (looks like best regarding performance to do it in separate transaction)
-                    cacheRealmAndPopulateContext(context);
+                    KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(), session -> {
+                        KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
+                        createClients(context, task, session, clientsStartIndex, endIndex);
+                    }, config.getTransactionTimeoutInSeconds());
 
-                    // Step 4 - create users
-                    addUserCreationTasks(context, task, config, executor, 0, config.getUsersPerRealm());
-                    task.info(logger, "Triggered creation of %d users in realm %s. Finished creation of realm.", config.getUsersPerRealm(), context.getRealm().getName());
-                });
-            }
-            executor.waitForAllToFinish();
-            task.info(logger, "Created all realms from '%s' to '%s'", config.getRealmPrefix() + startIndex, config.getRealmPrefix() + (realmEndIndex - 1));
-            success();
-        } catch (Throwable ex) {
-            logException(ex);
-        } finally {
-            cleanup(executor);
+                    task.debug(logger, "Created %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
+                }
+                task.info(logger, "Created all %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
+                RealmSnapshot.invalidate(context.getRealm().getId());
+
+                // Step 3 - cache realm. This will cache the realm in Keycloak cache (looks like best regarding performance to do it in separate transaction)
+                createUserIdentityProviders(context);
+                cacheRealmAndPopulateContext(context);
+
+                // Step 4 - create users
+                addUserCreationTasks(context, task, config, executor, 0, config.getUsersPerRealm());
+                task.info(logger, "Triggered creation of %d users in realm %s. Finished creation of realm.", config.getUsersPerRealm(), context.getRealm().getName());
+                if (config.getBulk()) {
+                    bulkCreatedRealms.add(context);
+                }
+            });
         }
+        executor.waitForAllToFinish();
+        bulkCreatedRealms.forEach(this::invalidateUserCache);
+        task.info(logger, "Created all realms from '%s' to '%s'", config.getRealmPrefix() + startIndex, config.getRealmPrefix() + (realmEndIndex - 1));
     }
 
     private void createGroupsInMultipleTransactions(DatasetConfig config, RealmContext context, Task task, int topLevelCount) {
-        boolean hierarchicalGroups = Boolean.parseBoolean(config.getGroupsWithHierarchy());
-        int hierarchyDepth = config.getGroupsHierarchyDepth();
-        int countGroupsAtEachLevel = hierarchicalGroups ? config.getCountGroupsAtEachLevel() : 0;
-        String realmName = context.getRealm().getName();
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
-        Long groupsCount = getGroupsCount(realmName);
-
-        for (AtomicInteger index = new AtomicInteger(0); index.get() < topLevelCount; index.incrementAndGet()) {
-            KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), baseSession.getContext(), session -> {
-                EntityManagers.runInBatch(session, () -> {
-                    RealmModel realm = session.realms().getRealmByName(realmName);
-                    session.getContext().setRealm(realm);
-                    String groupName = config.getGroupPrefix() + index.get();
+        int countGroupsAtEachLevel = config.getCountGroupsAtEachLevel();
+        int levels = getGroupLevels(config);
+        String realmId = context.getRealm().getId();
+        KeycloakSessionFactory sessionFactory = baseSession.getKeycloakSessionFactory();
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config, task);
+        long createdGroups = 0;
 
-                    while (session.groups().getGroupByName(realm, null, groupName) != null) {
-                        groupName = config.getGroupPrefix() + index.incrementAndGet();
-                    }
+        try {
+            int startIndex = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                    session -> EntityIndexes.nextGroupIndex(session, session.realms().getRealm(realmId), config.getGroupPrefix()));
+
+            // The groups are created level by level, the children of the group at the index "i" of the previous level are at the indexes
+            // from "i * groups-count-each-level" of the next level. So the parents are passed by their ids and never searched by the name
+            String[] parentIds = null;
+            String[] parentNames = null;
+            int levelSize = topLevelCount;
+            for (int level = 0; level < levels && levelSize > 0; level++) {
+                String[] ids = new String[levelSize];
+                String[] names = new String[levelSize];
+                String[] levelParentIds = parentIds;
+                String[] levelParentNames = parentNames;
+
+                // The siblings are split into chunks, which are created concurrently
+                executor.addTasksRunningInTransaction(0, levelSize, config.getGroupsPerTransaction(), (start, end) -> session -> {
+                    EntityManagers.runInBatch(session, () -> {
+                        RealmModel realm = session.realms().getRealm(realmId);
+                        session.getContext().setRealm(realm);
+                        GroupModel parent = null;
+                        for (int i = start; i < end; i++) {
+                            if (levelParentIds == null) {
+                                names[i] = config.getGroupPrefix() + (startIndex + i);
+                            } else {
+                                int parentIndex = i / countGroupsAtEachLevel;
+                                if (parent == null || !parent.getId().equals(levelParentIds[parentIndex])) {
+                                    parent = session.groups().getGroupById(realm, levelParentIds[parentIndex]);
+                                }
+                                names[i] = levelParentNames[parentIndex] + GROUP_NAME_SEPARATOR + (i % countGroupsAtEachLevel);
+                            }
+                            ids[i] = session.groups().createGroup(realm, names[i], parent).getId();
+                        }
+                    }, false);
+                }, (start, end) -> task.getProgress().created(end - start));
+                executor.waitForAllToFinish();
 
-                    String finalGroupName = groupName;
-                    session.groups().createGroup(realm, finalGroupName);
-                    logger.infof("Creating top-level group %s in realm %s", groupName, context.getRealm().getName());
-                    createGroupLevel(session, countGroupsAtEachLevel, hierarchyDepth, groupName, executor);
-                }, false);
-            });
+                createdGroups += levelSize;
+                task.debug(logger, "Created %d groups at the level %d in realm %s", levelSize, level, context.getRealm().getName());
+
+                parentIds = ids;
+                parentNames = names;
+                levelSize = level + 1 < levels ? Math.multiplyExact(levelSize, countGroupsAtEachLevel) : 0;
+            }
+        } finally {
+            executor.shutDown();
+            RealmSnapshot.invalidate(realmId);
         }
 
-        executor.waitForAllToFinish();
+        task.info(logger, "Created all %d groups in realm %s", createdGroups, context.getRealm().getName());
+    }
 
-        task.info(logger, "Created all %d groups in realm %s", getGroupsCount(realmName) - groupsCount, context.getRealm().getName());
+    // Count of the levels of the groups including the top-level groups. Like the previous recursive implementation, every top-level group
+    // has "groups-hierarchy-depth + 1" levels of subgroups
+    private static int getGroupLevels(DatasetConfig config) {
+        boolean hierarchicalGroups = Boolean.parseBoolean(config.getGroupsWithHierarchy());
+        return hierarchicalGroups && config.getCountGroupsAtEachLevel() > 0 ? config.getGroupsHierarchyDepth() + 2 : 1;
     }
 
-    private Long getGroupsCount(String realmName) {
-        return KeycloakModelUtils.runJobInTransactionWithResult(baseSession.getKeycloakSessionFactory(), baseSession.getContext(), session -> {
-            RealmModel realm = session.realms().getRealmByName(realmName);
-            return session.groups().getGroupsCount(realm, false);
-        }, "dataset:get-groups-count");
+    // Count of all the groups created by createGroupsInMultipleTransactions
+    private static long getGroupsTotal(DatasetConfig config, int topLevelCount) {
+        long total = 0;
+        long levelSize = topLevelCount;
+        for (int level = 0; level < getGroupLevels(config) && levelSize > 0; level++) {
+            total += levelSize;
+            levelSize = Math.multiplyExact(levelSize, config.getCountGroupsAtEachLevel());
+        }
+        return total;
+    }
+
+    private int findLastRealmIndex(KeycloakSession session, DatasetConfig config) {
+        int lastRealmIndex = EntityIndexes.nextRealmIndex(session, config.getRealmPrefix()) - 1;
+        if (lastRealmIndex < 0) {
+            throw new DatasetException("Not found any realm with prefix '" + config.getRealmPrefix() + "'");
+        }
+        return lastRealmIndex;
     }
 
+
     protected Response handleDatasetException(DatasetException de) {
         if (de.getCause() != null) {
             logger.error(de.getMessage(), de.getCause());
@@ -291,7 +374,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_CLIENTS);
 
-            Task task = Task.start("Creation of " + config.getCount() + " clients in the realm " + config.getRealmName());
+            Task task = Task.start("Creation of " + config.getCount() + " clients in the realm " + config.getRealmName(), config.getCount());
             TaskManager taskManager = new TaskManager(baseSession);
             Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
             if (existingTask != null) {
@@ -308,14 +391,13 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                 throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
             }
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String clientId = config.getClientPrefix() + index;
-                return realm.getClientByClientId(clientId) != null;
-            });
+            int startIndex = EntityIndexes.nextClientIndex(baseSession, realm, config.getClientPrefix());
             config.setStart(startIndex);
 
+            TaskCheckpoint checkpoint = TaskCheckpoint.start(CREATE_CLIENTS, task, ConfigUtil.getQueryParams(httpRequest), startIndex, startIndex + config.getCount());
+
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> createClientsImpl(task, baseSession.getKeycloakSessionFactory(), config, realm)).start();
+            TaskThreads.start(config, () -> createClientsImpl(task, baseSession.getKeycloakSessionFactory(), config, realm, checkpoint));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -329,48 +411,63 @@ public class DatasetResourceProvider implements RealmResourceProvider {
     }
 
     // Implementation of creating many clients. This is triggered outside of HTTP request to not block HTTP request
-    private void createClientsImpl(Task task, KeycloakSessionFactory sessionFactory, DatasetConfig config, RealmModel realm) {
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config);
+    private void createClientsImpl(Task task, KeycloakSessionFactory sessionFactory, DatasetConfig config, RealmModel realm, TaskCheckpoint checkpoint) {
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config, task);
+        CheckpointRecorder checkpointRecorder = new CheckpointRecorder(sessionFactory, checkpoint);
         try {
-            int startIndex = config.getStart();
-            logger.infof("Will start creating clients in the realm '%s' from '%s' to '%s'", config.getRealmName(), config.getClientPrefix() + startIndex, config.getClientPrefix() + (startIndex + config.getCount() - 1));
-
-            RealmContext context = new RealmContext(config);
-            context.setRealm(realm);
+            doCreateClients(task, config, realm, checkpoint, executor);
+            checkpointRecorder.completed();
+            success();
 
-            // Create clients now
-            for (int i = startIndex; i < (startIndex + config.getCount()); i += config.getClientsPerTransaction()) {
-                final int clientsStartIndex = i;
-                final int endIndex = Math.min(clientsStartIndex + config.getClientsPerTransaction(), startIndex + config.getCount());
+        } catch (Throwable ex) {
+            logException(ex);
+        } finally {
+            checkpointRecorder.close();
+            cleanup(executor);
+        }
+    }
 
-                logger.tracef("clientsStartIndex: %d, clientsEndIndex: %d", clientsStartIndex, endIndex);
+    // The checkpoint is null when the clients are not created by a task, which can be resumed
+    private void doCreateClients(Task task, DatasetConfig config, RealmModel realm, TaskCheckpoint checkpoint, ExecutorHelper executor) {
+        int startIndex = config.getStart();
+        logger.infof("Will start creating clients in the realm '%s' from '%s' to '%s'", config.getRealmName(), config.getClientPrefix() + startIndex, config.getClientPrefix() + (startIndex + config.getCount() - 1));
 
-                // Run this concurrently with multiple threads
-                executor.addTaskRunningInTransaction(session -> {
-                    KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
+        RealmContext context = new RealmContext(config);
+        context.setRealm(realm);
 
-                    createClients(context, task, session, clientsStartIndex, endIndex);
+        // Create clients now. In case of resumed task, only the missing ranges are created
+        IndexRanges ranges = checkpoint != null ? checkpoint.getMissingRanges() : IndexRanges.of(startIndex, startIndex + config.getCount());
+        ranges.forEach((rangeStartIndex, rangeEndIndex) -> {
+            // Run this concurrently with multiple threads. The tasks for the transactions are created lazily as the previous ones complete
+            executor.addTasksRunningInTransaction(rangeStartIndex, rangeEndIndex, config.getClientsPerTransaction(), (clientsStartIndex, endIndex) -> session -> {
+                logger.tracef("clientsStartIndex: %d, clientsEndIndex: %d", clientsStartIndex, endIndex);
 
-                    task.debug(logger, "Created clients in realm %s from %d to %d", context.getRealm().getName(), clientsStartIndex, endIndex);
+                KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
 
-                    if (((endIndex - startIndex) / config.getClientsPerTransaction()) % 20 == 0) {
-                        task.info(logger, "Created %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
-                    }
+                if (checkpoint != null && checkpoint.isResumed() && session.clients().getClientByClientId(session.realms().getRealm(realm.getId()), config.getClientPrefix() + clientsStartIndex) != null) {
+                    logger.debugf("Clients from %d to %d were already created before the task was resumed", clientsStartIndex, endIndex);
+                    return;
+                }
 
-                });
+                createClients(context, task, session, clientsStartIndex, endIndex);
 
-            }
+                task.debug(logger, "Created clients in realm %s from %d to %d", context.getRealm().getName(), clientsStartIndex, endIndex);
 
-            executor.waitForAllToFinish();
+                if (((endIndex - startIndex) / config.getClientsPerTransaction()) % 20 == 0) {
+                    task.info(logger, "Created %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
+                }
+            }, (clientsStartIndex, endIndex) -> {
+                if (checkpoint != null) {
+                    checkpoint.completed(clientsStartIndex, endIndex);
+                }
+                task.getProgress().created(endIndex - clientsStartIndex);
+            });
+        });
 
-            task.info(logger, "Created all %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
-            success();
+        executor.waitForAllToFinish();
+        RealmSnapshot.invalidate(realm.getId());
 
-        } catch (Throwable ex) {
-            logException(ex);
-        } finally {
-            cleanup(executor);
-        }
+        task.info(logger, "Created all %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
     }
 
 
@@ -383,8 +480,11 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         boolean taskAdded = false;
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_USERS);
+            // Reject invalid distribution and attribute parameters before the task is started
+            new UserDistribution(config);
+            UserAttributes.validate(config);
 
-            Task task = Task.start("Creation of " + config.getCount() + " users in the realm " + config.getRealmName());
+            Task task = Task.start("Creation of " + config.getCount() + " users in the realm " + config.getRealmName(), config.getCount());
             TaskManager taskManager = new TaskManager(baseSession);
             Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
             if (existingTask != null) {
@@ -401,14 +501,13 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                 throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
             }
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String username = config.getUserPrefix() + index;
-                return baseSession.users().getUserByUsername(realm, username) != null;
-            });
+            int startIndex = EntityIndexes.nextUserIndex(baseSession, realm, config.getUserPrefix());
             config.setStart(startIndex);
 
+            TaskCheckpoint checkpoint = TaskCheckpoint.start(CREATE_USERS, task, ConfigUtil.getQueryParams(httpRequest), startIndex, startIndex + config.getCount());
+
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> createUsersImpl(task, config, realm)).start();
+            TaskThreads.start(config, () -> createUsersImpl(task, config, realm, checkpoint));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -422,79 +521,98 @@ public class DatasetResourceProvider implements RealmResourceProvider {
     }
 
     // Implementation of creating many users. This is triggered outside of HTTP request to not block HTTP request
-    private void createUsersImpl(Task task, DatasetConfig config, RealmModel realm) {
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
+    private void createUsersImpl(Task task, DatasetConfig config, RealmModel realm, TaskCheckpoint checkpoint) {
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
+        CheckpointRecorder checkpointRecorder = new CheckpointRecorder(baseSession.getKeycloakSessionFactory(), checkpoint);
         try {
-            int startIndex = config.getStart();
-
-            logger.infof("Will start creating users in the realm '%s' from '%s' to '%s'", config.getRealmName(), config.getUserPrefix() + startIndex, config.getUserPrefix() + (startIndex + config.getCount() - 1));
-            logger.infof("Realm password policy: %s", realm.getPasswordPolicy().toString());
-
-            RealmContext context = new RealmContext(config);
-            context.setRealm(realm);
-
-            // Cache the realm (It is probably good due the defaultRoles and defaultGroups when creating users, which would otherwise need to be lookup from DB)
-            cacheRealmAndPopulateContext(context);
-            task.info(logger, "Cached realm %s", context.getRealm().getName());
-
-            // Create users now
-            addUserCreationTasks(context, task, config, executor, startIndex, config.getCount());
-            executor.waitForAllToFinish();
-
-            task.info(logger, "Created all %d users in realm %s", context.getUserCount(), context.getRealm().getName());
+            doCreateUsers(task, config, realm, checkpoint, executor);
+            checkpointRecorder.completed();
             success();
 
         } catch (Throwable ex) {
             logException(ex);
         } finally {
+            checkpointRecorder.close();
             cleanup(executor);
         }
     }
 
+    // The checkpoint is null when the users are not created by a task, which can be resumed
+    private void doCreateUsers(Task task, DatasetConfig config, RealmModel realm, TaskCheckpoint checkpoint, ExecutorHelper executor) {
+        int startIndex = config.getStart();
+
+        logger.infof("Will start creating users in the realm '%s' from '%s' to '%s'", config.getRealmName(), config.getUserPrefix() + startIndex, config.getUserPrefix() + (startIndex + config.getCount() - 1));
+        logger.infof("Realm password policy: %s", realm.getPasswordPolicy().toString());
+
+        RealmContext context = new RealmContext(config);
+        context.setRealm(realm);
+
+        // The identity providers are created before caching the realm as creating them invalidates the realm
+        createUserIdentityProviders(context);
+
+        // Cache the realm (It is probably good due the defaultRoles and defaultGroups when creating users, which would otherwise need to be lookup from DB)
+        cacheRealmAndPopulateContext(context);
+        task.info(logger, "Cached realm %s", context.getRealm().getName());
+
+        // Create users now. In case of resumed task, only the missing ranges are created
+        IndexRanges ranges = checkpoint != null ? checkpoint.getMissingRanges() : IndexRanges.of(startIndex, startIndex + config.getCount());
+        addUserCreationTasks(context, task, config, executor, ranges, checkpoint);
+        executor.waitForAllToFinish();
+
+        if (config.getBulk()) {
+            invalidateUserCache(context);
+            task.info(logger, "Invalidated user cache of realm %s", context.getRealm().getName());
+        }
+
+        task.info(logger, "Created all %d users in realm %s", context.getUserCount(), context.getRealm().getName());
+    }
+
     private void addUserCreationTasks(RealmContext context, Task task, DatasetConfig config, ExecutorHelper executor, int startIndex, int usersCount) {
-        // Initialize password credentials if unique-credentials-count is configured
-        List<PasswordCredentialModel> credentials = initializeCredentials(config, usersCount, context);
+        addUserCreationTasks(context, task, config, executor, IndexRanges.of(startIndex, startIndex + usersCount), null);
+    }
 
-        for (int i = startIndex; i < (startIndex + usersCount); i += config.getUsersPerTransaction()) {
-            final int usersStartIndex = i;
-            final int endIndex = Math.min(usersStartIndex + config.getUsersPerTransaction(), startIndex + usersCount);
+    private void addUserCreationTasks(RealmContext context, Task task, DatasetConfig config, ExecutorHelper executor, IndexRanges ranges, TaskCheckpoint checkpoint) {
+        // Initialize password credentials if unique-credentials-count is configured
+        List<PasswordCredentialModel> credentials = initializeCredentials(config, ranges.size(), context);
 
-            logger.tracef("usersStartIndex: %d, usersEndIndex: %d", usersStartIndex, endIndex);
+        ranges.forEach((rangeStartIndex, rangeEndIndex) -> {
+            // Run this concurrently with multiple threads. The tasks for the transactions are created lazily as the previous ones complete
+            executor.addTasksRunningInTransaction(rangeStartIndex, rangeEndIndex, config.getUsersPerTransaction(), (usersStartIndex, endIndex) -> session -> {
+                logger.tracef("usersStartIndex: %d, usersEndIndex: %d", usersStartIndex, endIndex);
 
-            // Run this concurrently with multiple threads
-            executor.addTaskRunningInTransaction(session -> {
                 EntityManagers.runInBatch(session, () -> {
                     KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
 
-                    createUsers(context, session, usersStartIndex, endIndex, credentials);
+                    if (checkpoint != null && checkpoint.isResumed() && session.users().getUserByUsername(session.realms().getRealm(context.getRealm().getId()), config.getUserPrefix() + usersStartIndex) != null) {
+                        logger.debugf("Users from %d to %d were already created before the task was resumed", usersStartIndex, endIndex);
+                        return;
+                    }
+
+                    if (config.getBulk()) {
+                        new BulkUserWriter(session, context, credentials).createUsers(usersStartIndex, endIndex);
+                    } else {
+                        createUsers(context, session, usersStartIndex, endIndex, credentials);
+                    }
 
                     task.debug(logger, "Created users in realm %s from %d to %d", context.getRealm().getName(), usersStartIndex, endIndex);
 
-                    if (((endIndex - startIndex) / config.getUsersPerTransaction()) % 20 == 0) {
+                    if (((endIndex - rangeStartIndex) / config.getUsersPerTransaction()) % 20 == 0) {
                         task.info(logger, "Created %d users in realm %s", context.getUserCount(), context.getRealm().getName());
                     }
                 }, false);
+            }, (usersStartIndex, endIndex) -> {
+                if (checkpoint != null) {
+                    checkpoint.completed(usersStartIndex, endIndex);
+                }
+                task.getProgress().created(endIndex - usersStartIndex);
             });
-        }
+        });
     }
 
     private List<PasswordCredentialModel> initializeCredentials(DatasetConfig config, int usersCount, RealmContext context) {
-        var map = IntStream.range(0, Math.min(usersCount, config.getUniqueCredentialCount()))
-              .parallel()
-              .mapToObj(i -> KeycloakModelUtils.runJobInTransactionWithResult(baseSession.getKeycloakSessionFactory(), session -> {
-                  KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
-                  PasswordPolicy policy = context.getRealm().getPasswordPolicy();
-                  PasswordHashProvider hash = policy.getHashAlgorithm() != null ?
-                        baseSession.getProvider(PasswordHashProvider.class, policy.getHashAlgorithm()) :
-                        baseSession.getProvider(PasswordHashProvider.class);
-                  return Map.entry(i, hash.encodedCredential("password-" + i, policy.getHashIterations()));
-              }))
-              .collect(Collectors.toConcurrentMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        return map.entrySet().stream()
-              .sorted(Comparator.comparingInt(Map.Entry::getKey))
-              .map(Map.Entry::getValue)
-              .toList();
+        // The hashed passwords are shared by all realms with the same password policy and reused by the next tasks
+        return CredentialPool.getCredentials(baseSession.getKeycloakSessionFactory(), context.getRealm(),
+                Math.min(usersCount, config.getUniqueCredentialCount()));
     }
 
     @GET
@@ -506,16 +624,12 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         boolean taskAdded = false;
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_EVENTS);
+            // Reject invalid event parameters before the task is started
+            parseEventTypes(config);
 
-            int lastRealmIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String realmName = config.getRealmPrefix() + index;
-                return baseSession.getProvider(RealmProvider.class).getRealmByName(realmName) != null;
-            }) - 1;
-            if (lastRealmIndex < 0) {
-                throw new DatasetException("Not found any realm with prefix '" + config.getRealmName() + "'");
-            }
+            int lastRealmIndex = findLastRealmIndex(baseSession, config);
 
-            Task task = Task.start("Creation of " + config.getCount() + " events");
+            Task task = Task.start("Creation of " + config.getCount() + " events", config.getCount());
             TaskManager taskManager = new TaskManager(baseSession);
             Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
             if (existingTask != null) {
@@ -528,7 +642,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             logger.infof("Will create events in the realms '" + config.getRealmPrefix() + "0' - '" + config.getRealmPrefix() + lastRealmIndex + "'");
 
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> createEventsImpl(task, config, lastRealmIndex)).start();
+            TaskThreads.start(config, () -> createEventsImpl(task, config, lastRealmIndex));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -543,55 +657,160 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
     // Implementation of creating many events. This is triggered outside of HTTP request to not block HTTP request
     private void createEventsImpl(Task task, DatasetConfig config, int lastRealmIndex) {
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
         try {
-            // Create events now
-            int eventsPerTransaction = 10000;
-            for (int i = 0; i < config.getCount(); i += eventsPerTransaction) {
-                final int eventsStartIndex = i;
-				final int eventsEndIndex;
-
-				if (i + eventsPerTransaction < config.getCount()) {
-					eventsEndIndex = i + eventsPerTransaction;
-				}
-				else {
-					eventsEndIndex = config.getCount();
-				}
-
-                // Run this concurrently with multiple threads
-                executor.addTaskRunningInTransaction(session -> {
-                    KeycloakModelUtils.cloneContextRealmClientToSession(baseSession.getContext(), session);
+            doCreateEvents(task, config, lastRealmIndex, executor);
+            success();
 
-                    EventStoreProvider eventStore = session.getProvider(EventStoreProvider.class);
-
-        		    for (int j = eventsStartIndex; j < eventsEndIndex; j++) {
-                        int realmIdx = new Random().nextInt(lastRealmIndex + 1);
-                        String realmName = config.getRealmPrefix() + realmIdx;
-
-                        Event event = new Event();
-                        event.setClientId("account");
-                        event.setDetails(new HashMap<>());
-                        event.setError("error");
-                        event.setIpAddress("127.0.0.1");
-                        event.setRealmId(realmName);
-                        event.setSessionId(null);
-                        event.setTime(System.currentTimeMillis());
-                        event.setType(EventType.LOGIN);
-                        event.setUserId("123");
+        } catch (Throwable ex) {
+            logException(ex);
+        } finally {
+            cleanup(executor);
+        }
+    }
+
+    private void doCreateEvents(Task task, DatasetConfig config, int lastRealmIndex, ExecutorHelper executor) {
+        long startTime = Time.currentTimeMillis();
+        int eventsPerTransaction = config.getEventsPerTransaction();
+        WeightedMix eventTypes = parseEventTypes(config);
+        String payload = config.getEventDetailsSize() > 0 ? "x".repeat(config.getEventDetailsSize()) : null;
+        // The events refer to the ids of the existing users and clients
+        Map<String, SessionPool> pools = new ConcurrentHashMap<>();
+        // Run this concurrently with multiple threads
+        executor.addTasksRunningInTransaction(0, config.getCount(), eventsPerTransaction, (eventsStartIndex, eventsEndIndex) -> session -> {
+            EntityManagers.runInBatch(session, () -> {
+                int realmIdx = new Random().nextInt(lastRealmIndex + 1);
+                String realmName = config.getRealmPrefix() + realmIdx;
+                RealmModel realm = session.realms().getRealmByName(realmName);
+                if (realm == null) {
+                    throw new IllegalStateException("Not found realm with name '" + realmName + "'");
+                }
+                session.getContext().setRealm(realm);
+
+                SessionPool pool = pools.computeIfAbsent(realm.getId(), realmId -> SessionPool.load(session, realm, config));
+                Random random = ThreadLocalRandom.current();
+                BulkEventWriter bulkWriter = config.getBulk() ? new BulkEventWriter(session) : null;
+                EventStoreProvider eventStore = session.getProvider(EventStoreProvider.class);
+
+                for (int j = eventsStartIndex; j < eventsEndIndex; j++) {
+                    long time = startTime - (config.getEventTimeSpread() > 0 ? (long) (random.nextDouble() * config.getEventTimeSpread() * 1000) : 0);
+                    Event event = createEvent(realm, pool, EventType.valueOf(eventTypes.pick(random)), payload, time, random);
+                    if (bulkWriter != null) {
+                        bulkWriter.addEvent(event);
+                    } else {
                         eventStore.onEvent(event);
                     }
+                }
 
-                    if (eventsEndIndex % (config.getThreadsCount() * eventsPerTransaction) == 0) {
-                        task.info(logger, "Created %d events", eventsEndIndex);
-                    }
+                if (bulkWriter != null) {
+                    bulkWriter.flush();
+                }
+            }, false);
 
-                });
+            if (eventsEndIndex % (config.getThreadsCount() * eventsPerTransaction) == 0) {
+                task.info(logger, "Created %d events", eventsEndIndex);
+            }
+
+        }, (eventsStartIndex, eventsEndIndex) -> task.getProgress().created(eventsEndIndex - eventsStartIndex));
+
+        executor.waitForAllToFinish();
+
+        task.info(logger, "Created all %d events", config.getCount());
+    }
+
+    private Event createEvent(RealmModel realm, SessionPool pool, EventType type, String payload, long time, Random random) {
+        int userIndex = random.nextInt(pool.getUserCount());
+        boolean error = type.name().endsWith("_ERROR");
+
+        Map<String, String> details = new HashMap<>();
+        details.put(Details.AUTH_METHOD, OIDCLoginProtocol.LOGIN_PROTOCOL);
+        details.put(Details.USERNAME, pool.getUsername(userIndex));
+        if (payload != null) {
+            details.put("dataset_payload", payload);
+        }
+
+        Event event = new Event();
+        event.setClientId(pool.getClientId(random.nextInt(pool.getClientCount())));
+        event.setDetails(details);
+        event.setError(error ? "invalid_user_credentials" : null);
+        event.setIpAddress("127.0.0.1");
+        event.setRealmId(realm.getId());
+        event.setSessionId(error ? null : KeycloakModelUtils.generateId());
+        event.setTime(time);
+        event.setType(type);
+        event.setUserId(pool.getUserId(userIndex));
+        return event;
+    }
+
+    private WeightedMix parseEventTypes(DatasetConfig config) {
+        WeightedMix eventTypes = parseEnumMix("event-types", config.getEventTypes(), EventType.class);
+        if (config.getEventDetailsSize() < 0 || config.getEventTimeSpread() < 0) {
+            throw new DatasetException("Parameters 'event-details-size' and 'event-time-spread' cannot be negative");
+        }
+        if (config.getBulk() && config.getEventDetailsSize() > BulkEventWriter.MAX_PAYLOAD_SIZE) {
+            throw new DatasetException("Parameter 'event-details-size' can be at most " + BulkEventWriter.MAX_PAYLOAD_SIZE + " with 'bulk=true'");
+        }
+        return eventTypes;
+    }
 
+    private static <E extends Enum<E>> WeightedMix parseEnumMix(String paramName, String value, Class<E> type) {
+        WeightedMix mix = WeightedMix.parse(paramName, value);
+        for (String item : mix.getValues()) {
+            try {
+                Enum.valueOf(type, item);
+            } catch (IllegalArgumentException e) {
+                throw new DatasetException("Unknown value '" + item + "' in the parameter '" + paramName + "'");
             }
+        }
+        return mix;
+    }
 
-            executor.waitForAllToFinish();
+    @GET
+    @Path("/create-admin-events")
+    @NoCache
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response createAdminEvents() {
+        boolean started = false;
+        boolean taskAdded = false;
+        try {
+            DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_ADMIN_EVENTS);
+            // Reject invalid admin event parameters before the task is started
+            parseEnumMix("admin-operation-types", config.getAdminOperationTypes(), OperationType.class);
+            parseEnumMix("admin-resource-types", config.getAdminResourceTypes(), ResourceType.class);
+
+            int lastRealmIndex = findLastRealmIndex(baseSession, config);
+
+            Task task = Task.start("Creation of " + config.getCount() + " admin events", config.getCount());
+            TaskManager taskManager = new TaskManager(baseSession);
+            Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
+            if (existingTask != null) {
+                return Response.status(400).entity(TaskResponse.errorSomeTaskInProgress(existingTask, getStatusUrl())).build();
+            } else {
+                taskAdded = true;
+            }
+
+            logger.infof("Trigger creating admin events with the configuration: %s", config);
+            logger.infof("Will create admin events in the realms '" + config.getRealmPrefix() + "0' - '" + config.getRealmPrefix() + lastRealmIndex + "'");
+
+            // Run this in separate thread to not block HTTP request
+            TaskThreads.start(config, () -> createAdminEventsImpl(task, config, lastRealmIndex));
+            started = true;
+
+            return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
+        } catch (DatasetException de) {
+            return handleDatasetException(de);
+        } finally {
+            if (taskAdded && !started) {
+                new TaskManager(baseSession).removeExistingTask(false);
+            }
+        }
+    }
 
-            task.info(logger, "Created all %d events", config.getCount());
+    // Implementation of creating many admin events. This is triggered outside of HTTP request to not block HTTP request
+    private void createAdminEventsImpl(Task task, DatasetConfig config, int lastRealmIndex) {
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
+        try {
+            doCreateAdminEvents(task, config, lastRealmIndex, executor);
             success();
 
         } catch (Throwable ex) {
@@ -601,6 +820,99 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         }
     }
 
+    private void doCreateAdminEvents(Task task, DatasetConfig config, int lastRealmIndex, ExecutorHelper executor) {
+        long startTime = Time.currentTimeMillis();
+        int eventsPerTransaction = config.getEventsPerTransaction();
+        WeightedMix operationTypes = parseEnumMix("admin-operation-types", config.getAdminOperationTypes(), OperationType.class);
+        WeightedMix resourceTypes = parseEnumMix("admin-resource-types", config.getAdminResourceTypes(), ResourceType.class);
+        int representationSize = config.getAdminRepresentationSize();
+        // Same size as requested, as "{"payload":""}" has 14 characters
+        String representation = representationSize > 0 ? "{\"payload\":\"" + "x".repeat(Math.max(0, representationSize - 14)) + "\"}" : null;
+        // The admin events refer to the ids of the existing users and clients
+        Map<String, SessionPool> pools = new ConcurrentHashMap<>();
+        // Run this concurrently with multiple threads
+        executor.addTasksRunningInTransaction(0, config.getCount(), eventsPerTransaction, (eventsStartIndex, eventsEndIndex) -> session -> {
+            EntityManagers.runInBatch(session, () -> {
+                int realmIdx = new Random().nextInt(lastRealmIndex + 1);
+                String realmName = config.getRealmPrefix() + realmIdx;
+                RealmModel realm = session.realms().getRealmByName(realmName);
+                if (realm == null) {
+                    throw new IllegalStateException("Not found realm with name '" + realmName + "'");
+                }
+                session.getContext().setRealm(realm);
+
+                SessionPool pool = pools.computeIfAbsent(realm.getId(), realmId -> SessionPool.load(session, realm, config));
+                Random random = ThreadLocalRandom.current();
+                BulkEventWriter bulkWriter = config.getBulk() ? new BulkEventWriter(session) : null;
+                EventStoreProvider eventStore = session.getProvider(EventStoreProvider.class);
+
+                for (int j = eventsStartIndex; j < eventsEndIndex; j++) {
+                    long time = startTime - (config.getEventTimeSpread() > 0 ? (long) (random.nextDouble() * config.getEventTimeSpread() * 1000) : 0);
+                    AdminEvent event = createAdminEvent(realm, pool, OperationType.valueOf(operationTypes.pick(random)),
+                            ResourceType.valueOf(resourceTypes.pick(random)), representation, time, random);
+                    if (bulkWriter != null) {
+                        bulkWriter.addAdminEvent(event);
+                    } else {
+                        eventStore.onEvent(event, representation != null);
+                    }
+                }
+
+                if (bulkWriter != null) {
+                    bulkWriter.flush();
+                }
+            }, false);
+
+            if (eventsEndIndex % (config.getThreadsCount() * eventsPerTransaction) == 0) {
+                task.info(logger, "Created %d admin events", eventsEndIndex);
+            }
+
+        }, (eventsStartIndex, eventsEndIndex) -> task.getProgress().created(eventsEndIndex - eventsStartIndex));
+
+        executor.waitForAllToFinish();
+
+        task.info(logger, "Created all %d admin events", config.getCount());
+    }
+
+    private AdminEvent createAdminEvent(RealmModel realm, SessionPool pool, OperationType operationType, ResourceType resourceType,
+                                        String representation, long time, Random random) {
+        String userId = pool.getUserId(random.nextInt(pool.getUserCount()));
+
+        // The admin performing the operation is one of the users of the same realm
+        AuthDetails authDetails = new AuthDetails();
+        authDetails.setRealmId(realm.getId());
+        authDetails.setClientId(pool.getClientUuid(random.nextInt(pool.getClientCount())));
+        authDetails.setUserId(pool.getUserId(random.nextInt(pool.getUserCount())));
+        authDetails.setIpAddress("127.0.0.1");
+
+        String resourcePath;
+        switch (resourceType) {
+            case USER:
+                resourcePath = "users/" + userId;
+                break;
+            case GROUP_MEMBERSHIP:
+                resourcePath = "users/" + userId + "/groups/" + KeycloakModelUtils.generateId();
+                break;
+            case REALM_ROLE_MAPPING:
+                resourcePath = "users/" + userId + "/role-mappings/realm";
+                break;
+            case CLIENT:
+                resourcePath = "clients/" + pool.getClientUuid(random.nextInt(pool.getClientCount()));
+                break;
+            default:
+                resourcePath = resourceType.name().toLowerCase().replace('_', '-') + "/" + KeycloakModelUtils.generateId();
+        }
+
+        AdminEvent event = new AdminEvent();
+        event.setTime(time);
+        event.setRealmId(realm.getId());
+        event.setAuthDetails(authDetails);
+        event.setOperationType(operationType);
+        event.setResourceType(resourceType);
+        event.setResourcePath(resourcePath);
+        event.setRepresentation(representation);
+        return event;
+    }
+
     @GET
     @Path("/create-sessions")
     @NoCache
@@ -610,16 +922,11 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         boolean taskAdded = false;
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_SESSIONS);
+            validateSessionsConfig(config);
 
-            int lastRealmIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String realmName = config.getRealmPrefix() + index;
-                return baseSession.getProvider(RealmProvider.class).getRealmByName(realmName) != null;
-            }) - 1;
-            if (lastRealmIndex < 0) {
-                throw new DatasetException("Not found any realm with prefix '" + config.getRealmName() + "'");
-            }
+            int lastRealmIndex = findLastRealmIndex(baseSession, config);
 
-            Task task = Task.start("Creation of " + config.getCount() + " sessions");
+            Task task = Task.start("Creation of " + config.getCount() + " sessions", config.getCount());
             TaskManager taskManager = new TaskManager(baseSession);
             Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
             if (existingTask != null) {
@@ -632,7 +939,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             logger.infof("Will create sessions in the realms '" + config.getRealmPrefix() + "0' - '" + config.getRealmPrefix() + lastRealmIndex + "'");
 
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> createSessionsImpl(task, config, lastRealmIndex)).start();
+            TaskThreads.start(config, () -> createSessionsImpl(task, config, lastRealmIndex));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -647,70 +954,134 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
     // Implementation of creating many sessions. This is triggered outside of HTTP request to not block HTTP request
     private void createSessionsImpl(Task task, DatasetConfig config, int lastRealmIndex) {
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
+        try {
+            doCreateSessions(task, config, lastRealmIndex, executor);
+            success();
+
+        } catch (Throwable ex) {
+            logException(ex);
+        } finally {
+            cleanup(executor);
+        }
+    }
+
+    // Reject invalid distribution parameters and the bulk mode without the persistent user sessions before the task is started
+    private static void validateSessionsConfig(DatasetConfig config) {
+        new SessionDistribution(config);
+        if (config.getBulk() && !Profile.isFeatureEnabled(Profile.Feature.PERSISTENT_USER_SESSIONS)) {
+            throw new DatasetException("Parameter 'bulk' of the sessions requires the feature '" + Profile.Feature.PERSISTENT_USER_SESSIONS.getKey() + "' to be enabled");
+        }
+    }
+
+    private void doCreateSessions(Task task, DatasetConfig config, int lastRealmIndex, ExecutorHelper executor) {
         int startTime = Time.currentTime();
 
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
-        try {
-            int sessionsPerTransaction = config.getSessionsPerTransaction();
-            AtomicInteger numberOfSessions = new AtomicInteger();
-            for (int i = 0; i < config.getCount(); i += sessionsPerTransaction) {
-                int startIndex = i;
-                int endIndex = Math.min(i + sessionsPerTransaction, startIndex + config.getCount());
-
-                // Run this concurrently with multiple threads
-                executor.addTaskRunningInTransaction(session -> {
-                    EntityManagers.runInBatch(session, () -> {
-                        int realmIdx = new Random().nextInt(lastRealmIndex + 1);
-                        String realmName = config.getRealmPrefix() + realmIdx;
-                        RealmModel realm = session.realms().getRealmByName(realmName);
-                        if (realm == null) {
-                            throw new IllegalStateException("Not found realm with name '" + realmName + "'");
-                        }
-                        session.getContext().setRealm(realm);
+        int sessionsPerTransaction = config.getSessionsPerTransaction();
+        AtomicInteger numberOfSessions = new AtomicInteger();
+        // Ids of the users and clients are loaded once per realm instead of looking them up for every session
+        Map<String, SessionPool> pools = new ConcurrentHashMap<>();
+        SessionDistribution distribution = new SessionDistribution(config);
+        int expirationInterval = config.getSessionExpirationInterval();
+        // Run this concurrently with multiple threads
+        executor.addTasksRunningInTransaction(0, config.getCount(), sessionsPerTransaction, (startIndex, endIndex) -> session -> {
+            EntityManagers.runInBatch(session, () -> {
+                int realmIdx = new Random().nextInt(lastRealmIndex + 1);
+                String realmName = config.getRealmPrefix() + realmIdx;
+                RealmModel realm = session.realms().getRealmByName(realmName);
+                if (realm == null) {
+                    throw new IllegalStateException("Not found realm with name '" + realmName + "'");
+                }
+                session.getContext().setRealm(realm);
+
+                SessionPool pool = pools.computeIfAbsent(realm.getId(), realmId -> SessionPool.load(session, realm, config));
+                Map<String, ClientModel> clients = new HashMap<>();
+                // The shared SecureRandom would be contended by all the threads
+                Random random = ThreadLocalRandom.current();
+                UserSessionPersisterProvider persister = session.getProvider(UserSessionPersisterProvider.class);
+                // The transient sessions are not stored anywhere, so they are written to the database by the persister once they are complete
+                // and then imported to the caches together with the other sessions of the transaction
+                UserSessionModel.SessionPersistenceState persistenceState = config.getBulk() ? UserSessionModel.SessionPersistenceState.TRANSIENT
+                        : UserSessionModel.SessionPersistenceState.PERSISTENT;
+                List<UserSessionModel> userSessions = new ArrayList<>();
+                List<UserSessionModel> offlineUserSessions = new ArrayList<>();
+
+                for (int j = startIndex; j < endIndex; j++) {
+                    UserModel user = pool.getUser(session, realm, random.nextInt(pool.getUserCount()));
+                    var userSession = session.sessions().createUserSession(null, realm, user, user.getUsername(), "127.0.0.1", "form", false, null, null, persistenceState);
+                    if (distribution.getNote() != null) {
+                        userSession.setNote(SessionDistribution.NOTE_NAME, distribution.getNote());
+                    }
 
-                        for (int j = startIndex; j < endIndex; j++) {
-                            UserModel user = session.users().getUserByUsername(realm, "user-" + random.nextInt(config.getUsersPerRealm()));
-                            var userSession = session.sessions().createUserSession(null, realm, user, user.getUsername(), "127.0.0.1", "form", false, null, null, UserSessionModel.SessionPersistenceState.PERSISTENT);
-                            ClientModel client = session.clients().getClientByClientId(realm, "client-" + random.nextInt(config.getClientsPerRealm()));
+                    // The sessions are moved to the past by their age and staggered in the expiration interval
+                    int age = distribution.age(random);
+                    boolean refreshed = age > 0 || expirationInterval > 0;
+                    if (refreshed) {
+                        userSession.setLastSessionRefresh(startTime - age + (expirationInterval > 0 ? random.nextInt(expirationInterval) : 0));
+                    }
 
-                            AuthenticatedClientSessionModel clientSession = session.sessions().createClientSession(realm, client, userSession);
-                            if (config.getSessionExpirationInterval() > 0) {
-                                userSession.setLastSessionRefresh(startTime + random.nextInt(config.getSessionExpirationInterval()));
-                                clientSession.setTimestamp(startTime + random.nextInt(config.getSessionExpirationInterval()));
-                            }
-                            numberOfSessions.incrementAndGet();
-                        }
-                        task.info(logger, "Created %d sessions", numberOfSessions.get());
-                    }, false);
-                });
-            }
+                    // Distinct clients starting from a random one
+                    int firstClient = random.nextInt(pool.getClientCount());
+                    int clientsCount = distribution.clientsPerSession(random, pool.getClientCount());
+                    List<AuthenticatedClientSessionModel> clientSessions = new ArrayList<>(clientsCount);
+                    for (int k = 0; k < clientsCount; k++) {
+                        ClientModel client = clients.computeIfAbsent(pool.getClientUuid((firstClient + k) % pool.getClientCount()), realm::getClientById);
 
-            executor.waitForAllToFinish();
+                        AuthenticatedClientSessionModel clientSession = session.sessions().createClientSession(realm, client, userSession);
+                        if (distribution.getNote() != null) {
+                            clientSession.setNote(SessionDistribution.NOTE_NAME, distribution.getNote());
+                        }
+                        if (refreshed) {
+                            clientSession.setTimestamp(startTime - age + (expirationInterval > 0 ? random.nextInt(expirationInterval) : 0));
+                        }
+                        clientSessions.add(clientSession);
+                    }
 
-            KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session -> {
-                EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
-                String dbProductName = em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
-                String dbKind = JpaUtils.getDatabaseType(dbProductName);
-
-                if (dbKind.equals("postgresql")) {
-                    task.info(logger, "Analyzing table for %s", dbProductName);
-                    em.createNativeQuery("ANALYZE OFFLINE_USER_SESSION").executeUpdate();
-                    em.createNativeQuery("ANALYZE OFFLINE_CLIENT_SESSION").executeUpdate();
-                } else if (dbKind.equals("h2")) {
-                    task.info(logger, "Analyzing table for %s", dbProductName);
-                    em.createNativeQuery("ANALYZE TABLE OFFLINE_USER_SESSION").executeUpdate();
-                    em.createNativeQuery("ANALYZE TABLE OFFLINE_CLIENT_SESSION").executeUpdate();
+                    boolean offline = distribution.isOffline(random);
+                    if (config.getBulk()) {
+                        persister.createUserSession(userSession, false);
+                        clientSessions.forEach(clientSession -> persister.createClientSession(clientSession, false));
+                        userSessions.add(userSession);
+                        if (offline) {
+                            persister.createUserSession(userSession, true);
+                            clientSessions.forEach(clientSession -> persister.createClientSession(clientSession, true));
+                            offlineUserSessions.add(userSession);
+                        }
+                    } else if (offline) {
+                        UserSessionManager userSessionManager = new UserSessionManager(session);
+                        clientSessions.forEach(clientSession -> userSessionManager.createOrUpdateOfflineSession(clientSession, userSession));
+                    }
+                    numberOfSessions.incrementAndGet();
                 }
-            });
+                if (config.getBulk()) {
+                    session.sessions().importUserSessions(userSessions, false);
+                    if (!offlineUserSessions.isEmpty()) {
+                        session.sessions().importUserSessions(offlineUserSessions, true);
+                    }
+                }
+                task.info(logger, "Created %d sessions", numberOfSessions.get());
+            }, false);
+        }, (startIndex, endIndex) -> task.getProgress().created(endIndex - startIndex));
 
-            task.info(logger, "Created %d sessions", numberOfSessions.get());
-            success();
+        executor.waitForAllToFinish();
 
-        } catch (Throwable ex) {
-            logException(ex);
-        } finally {
-            cleanup(executor);
-        }
+        KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session -> {
+            EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+            String dbProductName = em.unwrap(Session.class).doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            String dbKind = JpaUtils.getDatabaseType(dbProductName);
+
+            if (dbKind.equals("postgresql")) {
+                task.info(logger, "Analyzing table for %s", dbProductName);
+                em.createNativeQuery("ANALYZE OFFLINE_USER_SESSION").executeUpdate();
+                em.createNativeQuery("ANALYZE OFFLINE_CLIENT_SESSION").executeUpdate();
+            } else if (dbKind.equals("h2")) {
+                task.info(logger, "Analyzing table for %s", dbProductName);
+                em.createNativeQuery("ANALYZE TABLE OFFLINE_USER_SESSION").executeUpdate();
+                em.createNativeQuery("ANALYZE TABLE OFFLINE_CLIENT_SESSION").executeUpdate();
+            }
+        });
+
+        task.info(logger, "Created %d sessions", numberOfSessions.get());
     }
 
     @GET
@@ -723,15 +1094,9 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_OFFLINE_SESSIONS);
 
-            int lastRealmIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String realmName = config.getRealmPrefix() + index;
-                return baseSession.getProvider(RealmProvider.class).getRealmByName(realmName) != null;
-            }) - 1;
-            if (lastRealmIndex < 0) {
-                throw new DatasetException("Not found any realm with prefix '" + config.getRealmName() + "'");
-            }
+            int lastRealmIndex = findLastRealmIndex(baseSession, config);
 
-            Task task = Task.start("Creation of " + config.getCount() + " offline sessions");
+            Task task = Task.start("Creation of " + config.getCount() + " offline sessions", config.getCount());
             TaskManager taskManager = new TaskManager(baseSession);
             Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
             if (existingTask != null) {
@@ -744,7 +1109,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             logger.infof("Will create offline sessions in the realms '" + config.getRealmPrefix() + "0' - '" + config.getRealmPrefix() + lastRealmIndex + "'");
 
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> createOfflineSessionsImpl(task, config, lastRealmIndex)).start();
+            TaskThreads.start(config, () -> createOfflineSessionsImpl(task, config, lastRealmIndex));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -759,61 +1124,67 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
     // Implementation of creating many offline sessions. This is triggered outside of HTTP request to not block HTTP request
     private void createOfflineSessionsImpl(Task task, DatasetConfig config, int lastRealmIndex) {
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
         try {
-            // Create events now
-            int offlineSessionsPerTransaction = 100;
-            for (int i = 0; i < config.getCount(); i += offlineSessionsPerTransaction) {
-                final int sessionIndex = i + offlineSessionsPerTransaction;
-
-                // Run this concurrently with multiple threads
-                executor.addTaskRunningInTransaction(session -> {
-
-                    int realmIdx = new Random().nextInt(lastRealmIndex + 1);
-                    String realmName = config.getRealmPrefix() + realmIdx;
-                    RealmModel realm = session.realms().getRealmByName(realmName);
-                    if (realm == null) {
-                        throw new IllegalStateException("Not found realm with name '" + realmName + "'");
-                    }
-                    session.getContext().setRealm(realm);
-                    // Just use user like "user-0"
-                    String username = config.getUserPrefix() + "0";
-                    UserModel user = session.users().getUserByUsername(realm, username);
-                    if (user == null) {
-                        throw new IllegalStateException("Not found user with username '" + username + "' in the realm '" + realmName + "'");
-                    }
-                    // Just use client like "client-0"
-                    String clientId = config.getClientPrefix() + "0";
-                    ClientModel client = session.clients().getClientByClientId(realm, clientId);
-                    if (client == null) {
-                        throw new IllegalStateException("Not found client with clientId  '" + client + "' in the realm '" + clientId + "'");
-                    }
+            doCreateOfflineSessions(task, config, lastRealmIndex, executor);
+            success();
+
+        } catch (Throwable ex) {
+            logException(ex);
+        } finally {
+            cleanup(executor);
+        }
+    }
 
-                    for (int j = 0; j < offlineSessionsPerTransaction; j++) {
-                        UserSessionModel userSession = session.sessions().createUserSession(null, realm, user, username, "127.0.0.1", "form", false, null, null, UserSessionModel.SessionPersistenceState.PERSISTENT);
+    private void doCreateOfflineSessions(Task task, DatasetConfig config, int lastRealmIndex, ExecutorHelper executor) {
+        int offlineSessionsPerTransaction = config.getOfflineSessionsPerTransaction();
+        // The offline sessions are spread across the users and clients of the realm
+        Map<String, SessionPool> pools = new ConcurrentHashMap<>();
+        // Run this concurrently with multiple threads
+        executor.addTasksRunningInTransaction(0, config.getCount(), offlineSessionsPerTransaction, (startIndex, sessionIndex) -> session -> {
+            EntityManagers.runInBatch(session, () -> {
+                int realmIdx = new Random().nextInt(lastRealmIndex + 1);
+                String realmName = config.getRealmPrefix() + realmIdx;
+                RealmModel realm = session.realms().getRealmByName(realmName);
+                if (realm == null) {
+                    throw new IllegalStateException("Not found realm with name '" + realmName + "'");
+                }
+                session.getContext().setRealm(realm);
+
+                SessionPool pool = pools.computeIfAbsent(realm.getId(), realmId -> SessionPool.load(session, realm, config));
+                Map<String, ClientModel> clients = new HashMap<>();
+                Random random = ThreadLocalRandom.current();
+                UserSessionManager userSessionManager = new UserSessionManager(session);
+                UserSessionPersisterProvider persister = session.getProvider(UserSessionPersisterProvider.class);
+
+                for (int j = startIndex; j < sessionIndex; j++) {
+                    UserModel user = pool.getUser(session, realm, random.nextInt(pool.getUserCount()));
+                    ClientModel client = clients.computeIfAbsent(pool.getClientUuid(random.nextInt(pool.getClientCount())), realm::getClientById);
+
+                    if (config.getBulk()) {
+                        // The transient sessions are not stored anywhere, so only the offline sessions are written to the database
+                        UserSessionModel userSession = session.sessions().createUserSession(null, realm, user, user.getUsername(), "127.0.0.1", "form", false, null, null, UserSessionModel.SessionPersistenceState.TRANSIENT);
+                        AuthenticatedClientSessionModel clientSession = session.sessions().createClientSession(realm, client, userSession);
+                        persister.createUserSession(userSession, true);
+                        persister.createClientSession(clientSession, true);
+                    } else {
+                        UserSessionModel userSession = session.sessions().createUserSession(null, realm, user, user.getUsername(), "127.0.0.1", "form", false, null, null, UserSessionModel.SessionPersistenceState.PERSISTENT);
                         AuthenticatedClientSessionModel clientSession = session.sessions().createClientSession(userSession.getRealm(), client, userSession);
 
                         // Convert user and client sessions to offline.
-                        new UserSessionManager(session).createOrUpdateOfflineSession(clientSession, userSession);
-
+                        userSessionManager.createOrUpdateOfflineSession(clientSession, userSession);
                     }
+                }
+            }, false);
 
-                    if (sessionIndex % (config.getThreadsCount() * offlineSessionsPerTransaction) == 0) {
-                        task.info(logger, "Created %d offline sessions", sessionIndex);
-                    }
-                });
+            if (sessionIndex % (config.getThreadsCount() * offlineSessionsPerTransaction) == 0) {
+                task.info(logger, "Created %d offline sessions", sessionIndex);
             }
+        }, (startIndex, sessionIndex) -> task.getProgress().created(sessionIndex - startIndex));
 
-            executor.waitForAllToFinish();
-
-            task.info(logger, "Created all %d offline sessions", config.getCount());
-            success();
+        executor.waitForAllToFinish();
 
-        } catch (Throwable ex) {
-            logException(ex);
-        } finally {
-            cleanup(executor);
-        }
+        task.info(logger, "Created all %d offline sessions", config.getCount());
     }
 
     @GET
@@ -829,6 +1200,10 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             if (!config.getRemoveAll() && (config.getFirstToRemove() == -1 || config.getLastToRemove() == -1)) {
                 throw new DatasetException("Either remove-all need to be true OR both first-to-remove and last-to-remove need to be filled");
             }
+            // Reject invalid delete parameters before the task is started. Some databases do not allow more than 1000 items in the IN clause
+            if (config.getFastDelete() && (config.getDeleteBatchSize() < 1 || config.getDeleteBatchSize() > 1000)) {
+                throw new DatasetException("Parameter 'delete-batch-size' must be between 1 and 1000");
+            }
 
             Task task;
             if (config.getRemoveAll()) {
@@ -848,7 +1223,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             logger.infof("Trigger removing realms with the configuration: %s", config);
 
             // Run this in separate thread to not block HTTP request
-            new Thread(() -> removeRealmsImpl(task, config)).start();
+            TaskThreads.start(config, () -> removeRealmsImpl(task, config));
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -863,7 +1238,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
     // Implementation of removing all realms. This is triggered outside of HTTP request to not block HTTP request
     private void removeRealmsImpl(Task task, DatasetConfig config) {
-        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config);
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
         try {
             final List<String> realmIds = new ArrayList<>();
             KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(), session -> {
@@ -884,32 +1259,25 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                     }
                 }
             }, config.getTransactionTimeoutInSeconds());
+            task.getProgress().setTotal(realmIds.size());
 
             for (String realmId : realmIds) {
-                executor.addTaskRunningInTransaction(session -> {
-                    logger.debugf("Will delete realm %s", realmId);
-
-                    // first delete the realm - but keep the realm name for later to remove the client
-                    RealmModel realm = session.realms().getRealm(realmId);
-                    session.getContext().setRealm(realm);
-                    boolean deleted = session.realms().removeRealm(realmId);
-
-                    if (deleted) {
-                        // then delete the client associated with the realm
-                        RealmModel master = session.realms().getRealmByName("master");
-                        session.getContext().setRealm(master);
-                        ClientModel clientByClientId = session.clients().getClientByClientId(master, realm.getName() + "-realm");
-                        if (clientByClientId != null) {
-                            session.clients().removeClient(master, clientByClientId.getId());
-                        }
-                    }
-
-                    if (deleted) {
-                        task.info(logger, "Deleted realm %s", realmId);
-                    } else {
-                        logger.warnf("Realm %s did not exist", realmId);
-                    }
-                });
+                if (config.getFastDelete()) {
+                    // The dependent rows are deleted in many small transactions, so only the realm removal itself runs in the transaction with timeout
+                    executor.addTask(() -> {
+                        BulkRealmRemover remover = new BulkRealmRemover(baseSession.getKeycloakSessionFactory(), realmId, config.getDeleteBatchSize());
+                        long sessions = remover.removeSessions();
+                        long events = remover.removeEvents();
+                        long users = remover.removeUsers();
+                        task.debug(logger, "Deleted %d users, %d sessions and %d events of the realm %s", users, sessions, events, realmId);
+
+                        KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(),
+                                session -> removeRealm(task, session, realmId), config.getTransactionTimeoutInSeconds());
+                        task.getProgress().created(1);
+                    });
+                } else {
+                    executor.addTaskRunningInTransaction(session -> removeRealm(task, session, realmId), () -> task.getProgress().created(1));
+                }
             }
 
             executor.waitForAllToFinish();
@@ -924,6 +1292,32 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         }
     }
 
+    private void removeRealm(Task task, KeycloakSession session, String realmId) {
+        logger.debugf("Will delete realm %s", realmId);
+
+        // first delete the realm - but keep the realm name for later to remove the client
+        RealmModel realm = session.realms().getRealm(realmId);
+        session.getContext().setRealm(realm);
+        boolean deleted = session.realms().removeRealm(realmId);
+        RealmSnapshot.invalidate(realmId);
+
+        if (deleted) {
+            // then delete the client associated with the realm
+            RealmModel master = session.realms().getRealmByName("master");
+            session.getContext().setRealm(master);
+            ClientModel clientByClientId = session.clients().getClientByClientId(master, realm.getName() + "-realm");
+            if (clientByClientId != null) {
+                session.clients().removeClient(master, clientByClientId.getId());
+            }
+        }
+
+        if (deleted) {
+            task.info(logger, "Deleted realm %s", realmId);
+        } else {
+            logger.warnf("Realm %s did not exist", realmId);
+        }
+    }
+
 
     @GET
     @Path("/status")
@@ -966,6 +1360,74 @@ public class DatasetResourceProvider implements RealmResourceProvider {
     }
 
 
+    // Resume the last task, which was not completed, for example because the Keycloak node running it was restarted.
+    // Only the entities missing in the checkpoint of the task are created.
+    @GET
+    @Path("/resume")
+    @NoCache
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response resume() {
+        boolean started = false;
+        boolean taskAdded = false;
+        try {
+            TaskManager taskManager = new TaskManager(baseSession);
+            TaskCheckpoint previousCheckpoint = taskManager.getCheckpoint();
+            if (previousCheckpoint == null) {
+                throw new DatasetException("No checkpoint of an uncompleted task found");
+            }
+
+            Task runningTask = taskManager.getExistingTask();
+            if (runningTask != null) {
+                if (!previousCheckpoint.isAbandoned()) {
+                    return Response.status(400).entity(TaskResponse.errorSomeTaskInProgress(runningTask, getStatusUrl())).build();
+                }
+                logger.infof("Task '%s' is not running anymore as its checkpoint was not updated recently. Removing it", runningTask);
+                taskManager.removeExistingTask(false);
+            }
+
+            TaskCheckpoint checkpoint = previousCheckpoint.resume();
+            DatasetConfig config = ConfigUtil.createConfigFromParams(checkpoint.getParams(), checkpoint.getOperation());
+            config.setStart(checkpoint.getStart());
+
+            Task task = Task.start("Resume of the task '" + checkpoint.getTaskMessage() + "'. Remaining " + checkpoint.getMissingRanges().size() + " entities", checkpoint.getMissingRanges().size());
+            Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
+            if (existingTask != null) {
+                return Response.status(400).entity(TaskResponse.errorSomeTaskInProgress(existingTask, getStatusUrl())).build();
+            } else {
+                taskAdded = true;
+            }
+
+            logger.infof("Trigger resuming the task from the checkpoint %s with the configuration: %s", checkpoint, config);
+
+            // Avoid cache (Realm will be invalidated from the cache anyway)
+            RealmModel realm = baseSession.getProvider(RealmProvider.class).getRealmByName(config.getRealmName());
+            if (realm == null) {
+                throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
+            }
+
+            // Run this in separate thread to not block HTTP request
+            switch (checkpoint.getOperation()) {
+                case CREATE_USERS:
+                    TaskThreads.start(config, () -> createUsersImpl(task, config, realm, checkpoint));
+                    break;
+                case CREATE_CLIENTS:
+                    TaskThreads.start(config, () -> createClientsImpl(task, baseSession.getKeycloakSessionFactory(), config, realm, checkpoint));
+                    break;
+                default:
+                    throw new DatasetException("Resuming of the operation " + checkpoint.getOperation() + " is not supported");
+            }
+            started = true;
+
+            return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
+        } catch (DatasetException de) {
+            return handleDatasetException(de);
+        } finally {
+            if (taskAdded && !started) {
+                new TaskManager(baseSession).removeExistingTask(false);
+            }
+        }
+    }
+
     @GET
     @Path("/last-realm")
     @NoCache
@@ -975,10 +1437,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, LAST_REALM);
             logger.infof("Request to obtain last realm. Configuration: %s", config.toString());
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String realmName = config.getRealmPrefix() + index;
-                return baseSession.getProvider(RealmProvider.class).getRealmByName(realmName) != null;
-            });
+            int startIndex = EntityIndexes.nextRealmIndex(baseSession, config.getRealmPrefix());
 
             String response = startIndex == 0 ? "No realm created yet" : config.getRealmPrefix() + (startIndex - 1);
 
@@ -1003,10 +1462,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                 throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
             }
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String clientId = config.getClientPrefix() + index;
-                return realm.getClientByClientId(clientId) != null;
-            });
+            int startIndex = EntityIndexes.nextClientIndex(baseSession, realm, config.getClientPrefix());
 
             String response = startIndex == 0 ? "No client created yet in realm " + realm.getName() : config.getClientPrefix() + (startIndex - 1);
 
@@ -1031,10 +1487,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                 throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
             }
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String username = config.getUserPrefix() + index;
-                return baseSession.users().getUserByUsername(realm, username) != null;
-            });
+            int startIndex = EntityIndexes.nextUserIndex(baseSession, realm, config.getUserPrefix());
 
             String response = startIndex == 0 ? "No user created yet in realm " + realm.getName() : config.getUserPrefix() + (startIndex - 1);
 
@@ -1112,7 +1565,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         try {
             DatasetConfig config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_GROUPS);
 
-            Task task = Task.start("Creation of " + config.getCount() + " groups in the realm " + config.getRealmName());
+            Task task = Task.start("Creation of " + config.getCount() + " groups in the realm " + config.getRealmName(), getGroupsTotal(config, config.getCount()));
             TaskManager taskManager = new TaskManager(baseSession);
             Task existingTask = taskManager.addTaskIfNotInProgress(task, config.getTaskTimeout());
             if (existingTask != null) {
@@ -1129,18 +1582,12 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                 throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
             }
 
-            int startIndex = ConfigUtil.findFreeEntityIndex(index -> {
-                String name = config.getGroupPrefix() + index;
-                return baseSession.groups().getGroupByName(realm, null, name) != null;
-            });
-            config.setStart(startIndex);
-
             // Run this in separate thread to not block HTTP request
             RealmContext context = new RealmContext(config);
 
             context.setRealm(realm);
 
-            new Thread(() -> {
+            TaskThreads.start(config, () -> {
                 try {
                     createGroupsInMultipleTransactions(config, context, task, config.getCount());
                     success();
@@ -1148,7 +1595,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
                     KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session
                             -> new TaskManager(session).removeExistingTask(false));
                 }
-            }).start();
+            });
             started = true;
 
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
@@ -1161,6 +1608,198 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         }
     }
 
+    // Create the whole dataset described by the JSON document in a single task. See "DatasetSpec" class for the format of the document
+    @POST
+    @Path("/apply")
+    @NoCache
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response apply(String body) {
+        boolean started = false;
+        boolean taskAdded = false;
+        try {
+            DatasetSpec spec = DatasetSpec.parse(body);
+
+            // Create the configuration of all the stages first, so the invalid spec is rejected before anything is created
+            Map<String, DatasetConfig> configs = new LinkedHashMap<>();
+            int taskTimeout = 0;
+            long total = 0;
+            for (String stage : spec.getStages()) {
+                DatasetConfig config = ConfigUtil.createConfigFromParams(spec.getParams(stage), DatasetSpec.getOperation(stage));
+                configs.put(stage, config);
+                taskTimeout = Math.max(taskTimeout, config.getTaskTimeout());
+                total += getStageTotal(stage, config);
+            }
+
+            Task task = Task.start("Creation of the dataset with the stages " + String.join(", ", spec.getStages()), total);
+            DatasetPipeline pipeline = new DatasetPipeline();
+            configs.forEach((stage, config) -> pipeline.addStage(stage, DatasetSpec.getDependencies(stage), createStage(stage, task, config, spec.getParams(stage))));
+            List<List<String>> levels = pipeline.getLevels();
+
+            TaskManager taskManager = new TaskManager(baseSession);
+            Task existingTask = taskManager.addTaskIfNotInProgress(task, taskTimeout);
+            if (existingTask != null) {
+                return Response.status(400).entity(TaskResponse.errorSomeTaskInProgress(existingTask, getStatusUrl())).build();
+            } else {
+                taskAdded = true;
+            }
+
+            logger.infof("Trigger creating the dataset. Stages grouped by the order, in which they run: %s", levels);
+
+            // Run this in separate thread to not block HTTP request
+            DatasetConfig config = configs.values().iterator().next();
+            TaskThreads.start(config, () -> applyImpl(task, pipeline, config));
+            started = true;
+
+            return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
+        } catch (DatasetException de) {
+            return handleDatasetException(de);
+        } finally {
+            if (taskAdded && !started) {
+                new TaskManager(baseSession).removeExistingTask(false);
+            }
+        }
+    }
+
+    // Implementation of creating the dataset. This is triggered outside of HTTP request to not block HTTP request
+    private void applyImpl(Task task, DatasetPipeline pipeline, DatasetConfig config) {
+        try {
+            // Every stage runs in its own thread, so the stages, which do not depend on each other, run concurrently
+            pipeline.run(stage -> TaskThreads.start(config, stage));
+            task.info(logger, "Created all stages of the dataset");
+            success();
+        } catch (Throwable ex) {
+            logException(ex);
+            KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session
+                    -> new TaskManager(session).removeExistingTask(false));
+        }
+    }
+
+    // Same as the endpoints of the stages, but the realms and the start indexes are looked up when the stage starts as the previous stages may create them
+    private Runnable createStage(String stage, Task task, DatasetConfig config, Map<String, String> params) {
+        KeycloakSessionFactory sessionFactory = baseSession.getKeycloakSessionFactory();
+        switch (stage) {
+            case DatasetSpec.REALMS:
+                String realmName = params.get("realm-name");
+                if (realmName == null) {
+                    return () -> runStage(task, config, executor -> {
+                        int startIndex = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> EntityIndexes.nextRealmIndex(session, config.getRealmPrefix()));
+                        config.setStart(startIndex);
+                        doCreateRealms(task, config, startIndex, startIndex + config.getCount(), executor);
+                    });
+                }
+
+                // The realm referenced by the other stages is created unless it exists already, so the stages do not depend on the free realm indexes
+                int realmIndex = EntityIndexes.parseIndex(realmName, config.getRealmPrefix());
+                if (realmIndex < 0) {
+                    throw new DatasetException("Parameter 'realm-name' must be the 'realm-prefix' followed by an index when the stage '" + stage + "' is used");
+                }
+                if (config.getCount() != 1) {
+                    throw new DatasetException("Parameter 'count' of the stage '" + stage + "' must be 1 when the 'realm-name' is set");
+                }
+                return () -> runStage(task, config, executor -> {
+                    boolean exists = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> session.realms().getRealmByName(realmName) != null);
+                    if (exists) {
+                        task.getProgress().setTotal(task.getProgress().getTotal() - getStageTotal(stage, config));
+                        task.info(logger, "Realm '%s' exists already. It is used by the other stages without being created", realmName);
+                        return;
+                    }
+                    config.setStart(realmIndex);
+                    doCreateRealms(task, config, realmIndex, realmIndex + 1, executor);
+                });
+            case DatasetSpec.CLIENTS:
+                return () -> runStage(task, config, executor -> {
+                    // Avoid cache (Realm will be invalidated from the cache anyway)
+                    RealmModel realm = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> {
+                        RealmModel r = getRealmForStage(session.getProvider(RealmProvider.class), config);
+                        config.setStart(EntityIndexes.nextClientIndex(session, r, config.getClientPrefix()));
+                        return r;
+                    });
+                    doCreateClients(task, config, realm, null, executor);
+                });
+            case DatasetSpec.GROUPS:
+                return () -> {
+                    RealmContext context = new RealmContext(config);
+                    context.setRealm(KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> getRealmForStage(session.getProvider(RealmProvider.class), config)));
+                    createGroupsInMultipleTransactions(config, context, task, config.getCount());
+                };
+            case DatasetSpec.USERS:
+                return () -> runStage(task, config, executor -> {
+                    // Use the cache
+                    RealmModel realm = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> {
+                        RealmModel r = getRealmForStage(session.realms(), config);
+                        config.setStart(EntityIndexes.nextUserIndex(session, r, config.getUserPrefix()));
+                        return r;
+                    });
+                    doCreateUsers(task, config, realm, null, executor);
+                });
+            case DatasetSpec.EVENTS:
+                return () -> runStage(task, config, executor -> doCreateEvents(task, config, findLastRealmIndex(sessionFactory, config), executor));
+            case DatasetSpec.ADMIN_EVENTS:
+                return () -> runStage(task, config, executor -> doCreateAdminEvents(task, config, findLastRealmIndex(sessionFactory, config), executor));
+            case DatasetSpec.SESSIONS:
+                validateSessionsConfig(config);
+                return () -> runStage(task, config, executor -> doCreateSessions(task, config, findLastRealmIndex(sessionFactory, config), executor));
+            case DatasetSpec.OFFLINE_SESSIONS:
+                return () -> runStage(task, config, executor -> doCreateOfflineSessions(task, config, findLastRealmIndex(sessionFactory, config), executor));
+            case DatasetSpec.ORGS:
+                // The organizations do not have the realm-name parameter as their endpoint uses the realm of the request
+                String orgsRealmName = params.get("realm-name");
+                if (orgsRealmName == null) {
+                    throw new DatasetException("Required parameter 'realm-name' missing in the stage '" + stage + "'");
+                }
+                return () -> runStage(task, config, executor -> {
+                    try (KeycloakSession stageSession = sessionFactory.create()) {
+                        new OrganizationProvisioner(stageSession, orgsRealmName, config).createOrganizations(executor);
+                    }
+                });
+            case DatasetSpec.AUTHZ:
+                return () -> runStage(task, config, executor -> {
+                    try (KeycloakSession stageSession = sessionFactory.create()) {
+                        new AuthorizationProvisioner(stageSession, null, null).createResources(task, config, executor);
+                    }
+                });
+            default:
+                throw new DatasetException("Unknown stage '" + stage + "'");
+        }
+    }
+
+    // Count of the entities, which the stage reports to the progress of the task. The organizations are not counted
+    private static long getStageTotal(String stage, DatasetConfig config) {
+        switch (stage) {
+            case DatasetSpec.REALMS:
+                return config.getCount() * (config.getUsersPerRealm() + getGroupsTotal(config, config.getGroupsPerRealm()));
+            case DatasetSpec.GROUPS:
+                return getGroupsTotal(config, config.getCount());
+            case DatasetSpec.ORGS:
+                return 0;
+            default:
+                return config.getCount();
+        }
+    }
+
+    // The stages run concurrently, each with its own executor. The progress of all of them is recorded in the same task
+    private void runStage(Task task, DatasetConfig config, Consumer<ExecutorHelper> stage) {
+        ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), baseSession.getKeycloakSessionFactory(), config, task);
+        try {
+            stage.accept(executor);
+        } finally {
+            executor.shutDown();
+        }
+    }
+
+    private RealmModel getRealmForStage(RealmProvider realms, DatasetConfig config) {
+        RealmModel realm = realms.getRealmByName(config.getRealmName());
+        if (realm == null) {
+            throw new DatasetException("Realm '" + config.getRealmName() + "' not found");
+        }
+        return realm;
+    }
+
+    private int findLastRealmIndex(KeycloakSessionFactory sessionFactory, DatasetConfig config) {
+        return KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> findLastRealmIndex(session, config));
+    }
+
     @Override
     public void close() {
     }
@@ -1208,8 +1847,7 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
         for (int i = 0; i < context.getConfig().getRealmRolesPerRealm(); i++) {
             String roleName = context.getConfig().getRealmRolePrefix() + i;
-            RoleModel role = realm.addRole(roleName);
-            context.realmRoleCreated(role);
+            realm.addRole(roleName);
         }
     }
 
@@ -1229,11 +1867,19 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         realm = realmProvider.getRealm(realm.getId());
 
         DatasetConfig config = context.getConfig();
+        BulkClientWriter bulkWriter = null;
 
         for (int i = startIndex; i < endIndex; i++) {
-            ClientRepresentation client = new ClientRepresentation();
-
             String clientId = config.getClientPrefix() + i;
+
+            // In bulk mode, only the first client of the transaction is created through the model API and the other ones are its copies
+            if (bulkWriter != null) {
+                bulkWriter.addClient(clientId);
+                context.incClientCount();
+                continue;
+            }
+
+            ClientRepresentation client = new ClientRepresentation();
             client.setClientId(clientId);
             client.setName(clientId);
             client.setEnabled(true);
@@ -1271,11 +1917,18 @@ public class DatasetResourceProvider implements RealmResourceProvider {
 
             for (int k = 0; k < config.getClientRolesPerClient() ; k++) {
                 String roleName = clientId + "-" + config.getClientRolePrefix() + k;
-                RoleModel role = model.addRole(roleName);
-                context.clientRoleCreated(model, role);
+                model.addRole(roleName);
+            }
+
+            if (config.getBulk()) {
+                bulkWriter = new BulkClientWriter(session, model);
             }
         }
 
+        if (bulkWriter != null) {
+            bulkWriter.flush();
+        }
+
         task.debug(logger, "Created %d clients in realm %s", context.getClientCount(), context.getRealm().getName());
     }
 
@@ -1285,10 +1938,16 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         RealmModel realm = session.realms().getRealm(context.getRealm().getId());
         DatasetConfig config = context.getConfig();
 
-        warnMissingResource(realm.getName(), "realm-roles", context.getRealmRoles(), config.getRealmRolesPerUser());
-        warnMissingResource(realm.getName(), "client-roles", context.getClientRoles(), config.getClientRolesPerUser());
-        warnMissingResource(realm.getName(), "groups", context.getGroups(), config.getGroupsPerUser());
+        RealmSnapshot snapshot = context.getSnapshot();
+        warnMissingResource(realm.getName(), "realm-roles", snapshot.getRealmRoleIds(), config.getRealmRolesPerUser());
+        warnMissingResource(realm.getName(), "client-roles", snapshot.getClientRoleIds(), config.getClientRolesPerUser());
+        warnMissingResource(realm.getName(), "groups", snapshot.getGroupIds(), config.getGroupsPerUser());
+
+        // The models are resolved once per transaction
+        Map<String, RoleModel> roles = new HashMap<>();
+        Map<String, GroupModel> groups = new HashMap<>();
 
+        UserDistribution distribution = context.getUserDistribution();
         for (int i = startIndex; i < endIndex; i++) {
             String username = config.getUserPrefix() + i;
             UserModel user = session.users().addUser(realm, username);
@@ -1306,43 +1965,89 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             }
 
             // Assign a role to a user if any exist in the realm
-            if (!context.getRealmRoles().isEmpty()) {
-                int roleIndexStartForCurrentUser = (i * config.getRealmRolesPerUser());
-                for (int j = roleIndexStartForCurrentUser; j < roleIndexStartForCurrentUser + config.getRealmRolesPerUser(); j++) {
-                    int roleIndex = j % context.getRealmRoles().size();
-                    user.grantRole(context.getRealmRoles().get(roleIndex));
+            for (int roleIndex : distribution.select(i, config.getRealmRolesPerUser(), snapshot.getRealmRoleIds().size(), UserDistribution.REALM_ROLES)) {
+                RoleModel role = roles.computeIfAbsent(snapshot.getRealmRoleIds().get(roleIndex), id -> session.roles().getRoleById(realm, id));
+                user.grantRole(role);
 
-                    logger.tracef("Assigned role %s to the user %s", context.getRealmRoles().get(roleIndex).getName(), user.getUsername());
-                }
+                logger.tracef("Assigned role %s to the user %s", role.getName(), user.getUsername());
             }
 
             // Assign a client role to a user if any exist in the realm
-            if (!context.getClientRoles().isEmpty()) {
-                int clientRoleIndexStartForCurrentUser = (i * config.getClientRolesPerUser());
-                for (int j = clientRoleIndexStartForCurrentUser; j < clientRoleIndexStartForCurrentUser + config.getClientRolesPerUser(); j++) {
-                    int roleIndex = j % context.getClientRoles().size();
-                    user.grantRole(context.getClientRoles().get(roleIndex));
+            for (int roleIndex : distribution.select(i, config.getClientRolesPerUser(), snapshot.getClientRoleIds().size(), UserDistribution.CLIENT_ROLES)) {
+                RoleModel role = roles.computeIfAbsent(snapshot.getClientRoleIds().get(roleIndex), id -> session.roles().getRoleById(realm, id));
+                user.grantRole(role);
 
-                    logger.tracef("Assigned role %s to the user %s", context.getClientRoles().get(roleIndex).getName(), user.getUsername());
-                }
+                logger.tracef("Assigned role %s to the user %s", role.getName(), user.getUsername());
             }
 
             // Assign a group to a user if any exist
-            if (!context.getGroups().isEmpty()) {
-                int groupIndexStartForCurrentUser = (i * config.getGroupsPerUser());
-                for (int j = groupIndexStartForCurrentUser; j < groupIndexStartForCurrentUser + config.getGroupsPerUser(); j++) {
-                    int groupIndex = j % context.getGroups().size();
-                    GroupModel group = context.getGroups().get(groupIndex);
-                    user.joinGroup(session.groups().getGroupById(realm, group.getId()));
-
-                    logger.tracef("Assigned group %s to the user %s", context.getGroups().get(groupIndex).getName(), user.getUsername());
-                }
+            for (int groupIndex : distribution.select(i, config.getGroupsPerUser(), snapshot.getGroupIds().size(), UserDistribution.GROUPS)) {
+                GroupModel group = groups.computeIfAbsent(snapshot.getGroupIds().get(groupIndex), id -> session.groups().getGroupById(realm, id));
+                user.joinGroup(group);
+
+                logger.tracef("Assigned group %s to the user %s", group.getName(), user.getUsername());
+            }
+
+            for (int j = 0; j < config.getAttributesPerUser(); j++) {
+                user.setSingleAttribute(UserAttributes.attributeName(j), UserAttributes.attributeValue(username, j, config.getAttributeValueSize()));
+            }
+
+            for (int j = 0; j < config.getFederatedIdentitiesPerUser(); j++) {
+                FederatedIdentityModel federatedIdentity = new FederatedIdentityModel(UserAttributes.identityProviderAlias(j), UserAttributes.federatedUserId(username, j), username);
+                session.users().addFederatedIdentity(realm, user, federatedIdentity);
             }
 
             context.incUserCount();
         }
     }
 
+    // Identity providers of the federated identities of the users. Only the missing ones are created, so the users can be created by more tasks
+    private void createUserIdentityProviders(RealmContext context) {
+        int count = context.getConfig().getFederatedIdentitiesPerUser();
+        if (count == 0) {
+            return;
+        }
+
+        KeycloakModelUtils.runJobInTransactionWithTimeout(baseSession.getKeycloakSessionFactory(), session -> {
+            RealmModel realm = session.realms().getRealm(context.getRealm().getId());
+            session.getContext().setRealm(realm);
+
+            for (int i = 0; i < count; i++) {
+                String alias = UserAttributes.identityProviderAlias(i);
+                if (realm.getIdentityProviderByAlias(alias) != null) {
+                    continue;
+                }
+
+                IdentityProviderModel identityProvider = new IdentityProviderModel();
+                identityProvider.setAlias(alias);
+                identityProvider.setProviderId(KeycloakOIDCIdentityProviderFactory.PROVIDER_ID);
+                identityProvider.setEnabled(true);
+                identityProvider.setHideOnLogin(true);
+                Map<String, String> idpConfig = new HashMap<>();
+                idpConfig.put("issuer", "http://localhost:8180/realms/" + alias);
+                idpConfig.put("authorizationUrl", "http://localhost:8180/realms/" + alias + "/protocol/openid-connect/auth");
+                idpConfig.put("tokenUrl", "http://localhost:8180/realms/" + alias + "/protocol/openid-connect/token");
+                idpConfig.put("clientId", "user-broker-client");
+                idpConfig.put("clientSecret", "secret");
+                idpConfig.put("clientAuthMethod", "client_secret_post");
+                identityProvider.setConfig(idpConfig);
+                realm.addIdentityProvider(identityProvider);
+            }
+        }, context.getConfig().getTransactionTimeoutInSeconds());
+
+        logger.infof("Identity providers for %d federated identities per user are available in realm %s", count, context.getRealm().getName());
+    }
+
+    // Users created with the bulk JDBC inserts bypass the user cache
+    private void invalidateUserCache(RealmContext context) {
+        KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session -> {
+            UserCache userCache = session.getProvider(UserCache.class);
+            if (userCache != null) {
+                userCache.evict(session.realms().getRealm(context.getRealm().getId()));
+            }
+        });
+    }
+
     private void warnMissingResource(String realm, String resourceName, Collection<?> resource, Integer expectedCount) {
         if (resource.isEmpty() && expectedCount > 0) {
             logger.warnf("%1$s-per-user=%2$d but no %1$s are defined in realm %3$s, skipping %1$s assignment for all users",
@@ -1358,75 +2063,17 @@ public class DatasetResourceProvider implements RealmResourceProvider {
             RealmModel realm = session.realms().getRealm(context.getRealm().getId());
             context.setRealm(realm);
 
-            List<RoleModel> sortedRoles = realm.getRolesStream()
-                    .filter(roleModel -> roleModel.getName().startsWith(config.getRealmRolePrefix()))
-                    .sorted((role1, role2) -> {
-                        String name1 = role1.getName().substring(config.getRealmRolePrefix().length());
-                        String name2 = role2.getName().substring(config.getRealmRolePrefix().length());
-                        return Integer.parseInt(name1) - Integer.parseInt(name2);
-                    })
-                    .collect(Collectors.toList());
-            context.setRealmRoles(sortedRoles);
-
-            logger.debugf("CACHE: After obtain realm roles in realm %s", realm.getName());
-
-            List<GroupModel> sortedGroups = realm.getGroupsStream()
-                    .filter(groupModel -> groupModel.getName().startsWith(config.getGroupPrefix()))
-                    .sorted((group1, group2) -> {
-                        String name1 = group1.getName().substring(config.getGroupPrefix().length());
-                        String name2 = group2.getName().substring(config.getGroupPrefix().length());
-                        String [] name1Exploded = name1.split(Pattern.quote(GROUP_NAME_SEPARATOR));
-                        String [] name2Exploded = name2.split(Pattern.quote(GROUP_NAME_SEPARATOR));
-                        for(int i = 0; i< Math.min(name1Exploded.length, name2Exploded.length); i++) {
-                            if (name1Exploded[i].compareTo(name2Exploded[i]) != 0) {
-                                return name1Exploded[i].compareTo(name2Exploded[i]);
-                            }
-                        }
-                        return name1.compareTo(name2);
-                    })
-                    .collect(Collectors.toList());
-            context.setGroups(sortedGroups);
+            // The roles and groups assigned to the users are loaded only once for the realm
+            RealmSnapshot snapshot = RealmSnapshot.get(session, realm, config);
+            context.setSnapshot(snapshot);
+            context.setClientCount(snapshot.getClientCount());
 
-            logger.debugf("CACHE: After obtain groups in realm %s", realm.getName());
             realm.getDefaultGroupsStream().collect(Collectors.toList());
             logger.debugf("CACHE: After obtain default groups in realm %s", realm.getName());
 
             realm.getDefaultRole().getCompositesStream().collect(Collectors.toList());
             logger.debugf("CACHE: After obtain default roles in realm %s", realm.getName());
 
-            // Just obtain first 20 clients for assign client roles - to avoid unecessary DB calls here to load all the clients and then their roles
-            List<ClientModel> clients = realm.getClientsStream(0, 20).toList();
-            logger.debugf("CACHE: After realm.getClients in realm %s", realm.getName());
-
-            List<RoleModel> sortedClientRoles = new ArrayList<>();
-            List<ClientModel> sortedClients = clients.stream()
-                    .filter(clientModel -> clientModel.getClientId().startsWith(config.getClientPrefix()))
-                    .sorted((client1, client2) -> {
-                        String name1 = client1.getClientId().substring(config.getClientPrefix().length());
-                        String name2 = client2.getClientId().substring(config.getClientPrefix().length());
-                        return Integer.parseInt(name1) - Integer.parseInt(name2);
-                    })
-                    .toList();
-
-            sortedClients.forEach(client -> {
-                // Sort client roles and add to the shared list
-                List<RoleModel> currentClientRoles = client.getRolesStream()
-                    .filter(roleModel -> roleModel.getName().startsWith(config.getClientPrefix()))
-                    .sorted((role1, role2) -> {
-                        int index1 = role1.getName().indexOf(config.getClientRolePrefix()) + config.getClientRolePrefix().length();
-                        int index2 = role2.getName().indexOf(config.getClientRolePrefix()) + config.getClientRolePrefix().length();
-                        String name1 = role1.getName().substring(index1);
-                        String name2 = role2.getName().substring(index2);
-                        return Integer.parseInt(name1) - Integer.parseInt(name2);
-                    })
-                    .toList();
-                sortedClientRoles.addAll(currentClientRoles);
-            });
-
-            logger.debugf("CACHE: After client roles loaded in the realm %s", realm.getName());
-            context.setClientCount(sortedClients.size());
-            context.setClientRoles(sortedClientRoles);
-
         }, config.getTransactionTimeoutInSeconds());
     }
 
@@ -1460,31 +2107,4 @@ public class DatasetResourceProvider implements RealmResourceProvider {
         KeycloakModelUtils.runJobInTransaction(baseSession.getKeycloakSessionFactory(), session
                 -> new TaskManager(session).removeExistingTask(true));
     }
-
-    private void createGroupLevel(KeycloakSession session, int count, int depth, String parent, ExecutorHelper executor) {
-        RealmModel realm = session.getContext().getRealm();
-        GroupProvider groups = session.groups();
-        GroupModel parentGroup = groups.searchForGroupByNameStream(realm, parent, true, -1, -1).findAny().orElse(null);
-
-        if (parentGroup == null) {
-            throw new RuntimeException("Parent group " + parent + " not found");
-        }
-
-        for (int index = 0; index < count; index++) {
-            String groupName = parent + GROUP_NAME_SEPARATOR + index;
-
-            if (groups.getGroupByName(realm, parentGroup, groupName) != null) {
-                continue;
-            }
-
-            logger.infof("Creating group %s", groupName);
-            KeycloakModelUtils.runJobInTransaction(session.getKeycloakSessionFactory(), session.getContext(), s -> s.groups().createGroup(realm, groupName, parentGroup));
-
-            executor.addTask(() -> {
-                for (int depthIndex = 0; depthIndex < depth; depthIndex++) {
-                    KeycloakModelUtils.runJobInTransaction(session.getKeycloakSessionFactory(), session.getContext(), s -> createGroupLevel(s, count, depth - 1, groupName, executor));
-                }
-            });
-        }
-    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.benchmark.dataset.config.DatasetOperation;
+import org.keycloak.util.JsonSerialization;
+
+/**
+ * Declarative specification of the dataset used by the {@code apply} endpoint. It is a JSON object, where every key is a stage and
+ * the value is an object with the same parameters as the query parameters of the endpoint of the stage. For example:
+ * <pre>
+ * {
+ *   "common": { "threads-count": 8, "realm-name": "realm-0" },
+ *   "realms": { "count": 1, "clients-per-realm": 0, "users-per-realm": 0, "groups-per-realm": 0 },
+ *   "clients": { "count": 100 },
+ *   "users": { "count": 10000 }
+ * }
+ * </pre>
+ * The parameters of the {@code common} section are used by all the stages unless the stage overrides them.
+ */
+public class DatasetSpec {
+
+    public static final String COMMON = "common";
+
+    public static final String REALMS = "realms";
+    public static final String CLIENTS = "clients";
+    public static final String GROUPS = "groups";
+    public static final String ORGS = "orgs";
+    public static final String USERS = "users";
+    public static final String AUTHZ = "authz";
+    public static final String SESSIONS = "sessions";
+    public static final String OFFLINE_SESSIONS = "offline-sessions";
+    public static final String EVENTS = "events";
+    public static final String ADMIN_EVENTS = "admin-events";
+
+    // Operation of every stage and the stages it depends on
+    private static final Map<String, DatasetOperation> OPERATIONS = new LinkedHashMap<>();
+    private static final Map<String, List<String>> DEPENDENCIES = new HashMap<>();
+
+    static {
+        stage(REALMS, DatasetOperation.CREATE_REALMS);
+        stage(CLIENTS, DatasetOperation.CREATE_CLIENTS, REALMS);
+        stage(GROUPS, DatasetOperation.CREATE_GROUPS, REALMS);
+        stage(ORGS, DatasetOperation.CREATE_ORGS, REALMS);
+        // Users are assigned to the client roles and groups
+        stage(USERS, DatasetOperation.CREATE_USERS, REALMS, CLIENTS, GROUPS);
+        // The user policies refer to the users
+        stage(AUTHZ, DatasetOperation.CREATE_AUTHZ_CLIENT, CLIENTS, USERS);
+        stage(SESSIONS, DatasetOperation.CREATE_SESSIONS, CLIENTS, USERS);
+        stage(OFFLINE_SESSIONS, DatasetOperation.CREATE_OFFLINE_SESSIONS, CLIENTS, USERS);
+        // The events refer to the users and clients
+        stage(EVENTS, DatasetOperation.CREATE_EVENTS, REALMS, CLIENTS, USERS);
+        stage(ADMIN_EVENTS, DatasetOperation.CREATE_ADMIN_EVENTS, REALMS, CLIENTS, USERS);
+    }
+
+    private final Map<String, Map<String, String>> stages;
+
+    private DatasetSpec(Map<String, Map<String, String>> stages) {
+        this.stages = stages;
+    }
+
+    public static DatasetSpec parse(String json) {
+        Map<String, Map<String, Object>> sections;
+        try {
+            sections = JsonSerialization.readValue(json, new TypeReference<LinkedHashMap<String, Map<String, Object>>>() {});
+        } catch (IOException e) {
+            throw new DatasetException("Invalid dataset spec: " + e.getMessage(), e);
+        }
+        if (sections == null || sections.isEmpty()) {
+            throw new DatasetException("Dataset spec is empty");
+        }
+
+        Map<String, String> common = toParams(sections.getOrDefault(COMMON, Collections.emptyMap()));
+        Map<String, Map<String, String>> stages = new LinkedHashMap<>();
+        sections.forEach((name, section) -> {
+            if (COMMON.equals(name)) {
+                return;
+            }
+            if (!OPERATIONS.containsKey(name)) {
+                throw new DatasetException("Unknown stage '" + name + "' in the dataset spec. Supported stages are " + OPERATIONS.keySet());
+            }
+            Map<String, String> params = new HashMap<>(common);
+            params.putAll(toParams(section == null ? Collections.emptyMap() : section));
+            stages.put(name, params);
+        });
+        if (stages.isEmpty()) {
+            throw new DatasetException("No stage in the dataset spec. Supported stages are " + OPERATIONS.keySet());
+        }
+        return new DatasetSpec(stages);
+    }
+
+    private static Map<String, String> toParams(Map<String, Object> section) {
+        Map<String, String> params = new HashMap<>();
+        section.forEach((name, value) -> {
+            if (value != null) {
+                params.put(name, value.toString());
+            }
+        });
+        return params;
+    }
+
+    private static void stage(String name, DatasetOperation operation, String... dependencies) {
+        OPERATIONS.put(name, operation);
+        DEPENDENCIES.put(name, Arrays.asList(dependencies));
+    }
+
+    public Set<String> getStages() {
+        return stages.keySet();
+    }
+
+    public Map<String, String> getParams(String stage) {
+        return stages.get(stage);
+    }
+
+    public static DatasetOperation getOperation(String stage) {
+        return OPERATIONS.get(stage);
+    }
+
+    public static List<String> getDependencies(String stage) {
+        return DEPENDENCIES.get(stage);
+    }
+}
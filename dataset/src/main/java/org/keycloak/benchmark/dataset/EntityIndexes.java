@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.RealmModel;
+
+/**
+ * Finds the next free index of the entities named as the prefix followed by the index, like {@code user-123}. It is the index after
+ * the highest existing one, so the entities do not need to have contiguous indexes and the result does not depend on the state of
+ * the caches.
+ * <p>
+ * Numbers without leading zeros are ordered by their length first, so the highest name of every length is looked up with a single
+ * aggregate query. It only reads the index of the names in the realm, unlike ordering the names by their length, which sorts all of
+ * them. The names with the same length are then compared as strings.
+ * <p>
+ * The names with a suffix, which is not a number, are skipped. For example {@code group-1.2} is not a top-level group.
+ */
+public class EntityIndexes {
+
+    // Count of the names fetched at once when the highest name of some length is not followed by a number
+    static final int PAGE_SIZE = 100;
+
+    // Escape clause of the LIKE conditions using the pattern from likePrefix. It is not a backslash, which is special in the strings of MySQL
+    public static final String LIKE_ESCAPE = " ESCAPE '!'";
+
+    /**
+     * Names with the given length, which are lower than the given name, ordered by the name in the descending order.
+     */
+    @FunctionalInterface
+    public interface NamePages {
+
+        /**
+         * @return at most a page of the names. A shorter page means that there are no more names
+         */
+        List<String> next(int length, String before);
+    }
+
+    public static int nextRealmIndex(KeycloakSession session, String prefix) {
+        return nextIndex(session, "REALM", "NAME", null, null, "", prefix);
+    }
+
+    public static int nextClientIndex(KeycloakSession session, RealmModel realm, String prefix) {
+        return nextIndex(session, "CLIENT", "CLIENT_ID", "REALM_ID", realm.getId(), "", prefix);
+    }
+
+    public static int nextUserIndex(KeycloakSession session, RealmModel realm, String prefix) {
+        // Usernames are always stored in lower case
+        return nextIndex(session, "USER_ENTITY", "USERNAME", "REALM_ID", realm.getId(), "", prefix.toLowerCase());
+    }
+
+    public static int nextGroupIndex(KeycloakSession session, RealmModel realm, String prefix) {
+        // The subgroups created by the dataset contain the separator in the name, so skip them in the query instead of fetching them all
+        return nextIndex(session, "KEYCLOAK_GROUP", "NAME", "REALM_ID", realm.getId(),
+                " AND NAME NOT LIKE '%" + DatasetResourceProvider.GROUP_NAME_SEPARATOR + "%'", prefix);
+    }
+
+    public static int nextOrganizationIndex(KeycloakSession session, RealmModel realm, String prefix) {
+        return nextIndex(session, "ORG", "NAME", "REALM_ID", realm.getId(), "", prefix);
+    }
+
+    public static int nextIdentityProviderIndex(KeycloakSession session, RealmModel realm, String prefix) {
+        return nextIndex(session, "IDENTITY_PROVIDER", "PROVIDER_ALIAS", "REALM_ID", realm.getId(), "", prefix);
+    }
+
+    public static int nextResourceIndex(KeycloakSession session, String resourceServerId, String prefix) {
+        return nextIndex(session, "RESOURCE_SERVER_RESOURCE", "NAME", "RESOURCE_SERVER_ID", resourceServerId, "", prefix);
+    }
+
+    public static int nextScopeIndex(KeycloakSession session, String resourceServerId, String prefix) {
+        return nextIndex(session, "RESOURCE_SERVER_SCOPE", "NAME", "RESOURCE_SERVER_ID", resourceServerId, "", prefix);
+    }
+
+    /**
+     * @return pattern matching the names starting with the prefix, where the wildcards in the prefix are escaped with {@link #LIKE_ESCAPE}
+     */
+    public static String likePrefix(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    /**
+     * @return index of the entity with the given name or -1 if the name is not the prefix followed by a number without leading zeros
+     */
+    public static int parseIndex(String name, String prefix) {
+        if (name == null || !name.startsWith(prefix) || name.length() == prefix.length()) {
+            return -1;
+        }
+        String suffix = name.substring(prefix.length());
+        if (suffix.length() > 1 && suffix.charAt(0) == '0') {
+            return -1;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return -1;
+            }
+        }
+        try {
+            return Integer.parseInt(suffix);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param highestNames the highest name of every length of the names starting with the prefix, by the length
+     * @param pages the names, which are looked at when the highest name of some length is not the prefix followed by a number
+     * @return index after the highest index of the names or 0 if none of the names has an index
+     */
+    public static int nextIndex(Map<Integer, String> highestNames, String prefix, NamePages pages) {
+        for (Map.Entry<Integer, String> entry : new TreeMap<>(highestNames).descendingMap().entrySet()) {
+            String name = entry.getValue();
+            int index = parseIndex(name, prefix);
+            // Numbers with the same length are ordered as the strings, so the first number in the descending order is the highest one
+            while (index < 0 && name != null) {
+                List<String> names = pages.next(entry.getKey(), name);
+                name = names.size() < PAGE_SIZE ? null : names.get(names.size() - 1);
+                for (int i = 0; i < names.size() && index < 0; i++) {
+                    index = parseIndex(names.get(i), prefix);
+                }
+            }
+            if (index >= 0) {
+                return index + 1;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int nextIndex(KeycloakSession session, String table, String column, String scopeColumn, String scope, String condition, String prefix) {
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        String where = " FROM " + table + " WHERE " + (scopeColumn == null ? "" : scopeColumn + " = :scope AND ") + column + " LIKE :prefix"
+                + LIKE_ESCAPE + condition;
+
+        Query highestQuery = em.createNativeQuery("SELECT LENGTH(" + column + "), MAX(" + column + ")" + where + " GROUP BY LENGTH(" + column + ")");
+        setParameters(highestQuery, scope, prefix);
+        Map<Integer, String> highestNames = new HashMap<>();
+        for (Object[] row : (List<Object[]>) highestQuery.getResultList()) {
+            // The type of the length depends on the database
+            highestNames.put(((Number) row[0]).intValue(), (String) row[1]);
+        }
+
+        return nextIndex(highestNames, prefix, (length, before) -> {
+            Query pageQuery = em.createNativeQuery("SELECT " + column + where + " AND LENGTH(" + column + ") = :length AND " + column + " < :before ORDER BY " + column + " DESC")
+                    .setParameter("length", length)
+                    .setParameter("before", before)
+                    .setMaxResults(PAGE_SIZE);
+            setParameters(pageQuery, scope, prefix);
+            return pageQuery.getResultList();
+        });
+    }
+
+    private static void setParameters(Query query, String scope, String prefix) {
+        query.setParameter("prefix", likePrefix(prefix));
+        if (scope != null) {
+            query.setParameter("scope", scope);
+        }
+    }
+}
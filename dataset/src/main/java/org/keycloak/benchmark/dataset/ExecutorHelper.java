@@ -18,13 +18,16 @@
 
 package org.keycloak.benchmark.dataset;
 
-import java.util.Collection;
-import java.util.LinkedList;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 import org.jboss.logging.Logger;
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
@@ -40,40 +43,271 @@ public class ExecutorHelper {
     private final ExecutorService executor;
     private final KeycloakSessionFactory sessionFactory;
     private final DatasetConfig config;
-    private final Queue<Future<?>> futures = new LinkedList<>();
+    // Instead of keeping the futures of all the tasks, just count the tasks which did not finish yet and remember few of the failures
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger failuresCount = new AtomicInteger();
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    private final int rangeWindow;
+    private final Task task;
+    private final ScheduledExecutorService progressPublisher;
+
+    // Used only with adaptive concurrency or virtual threads. Tasks submitted from the worker threads bypass the bounded queue, as waiting there could deadlock the executor
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Semaphore submissionPermits;
+
+    // Used only with virtual threads to not run more transactions than the available DB connections
+    private final Semaphore transactionPermits;
+    private static final ThreadLocal<Boolean> workerThread = ThreadLocal.withInitial(() -> false);
+
     protected static final Logger logger = Logger.getLogger(ExecutorHelper.class);
 
+    static final long PROGRESS_PUBLISH_INTERVAL_MS = TimeUnit.SECONDS.toMillis(5);
+
+    // Count of tasks per thread, which can wait in the queue before adding a new task blocks
+    static final int SUBMISSION_QUEUE_PER_THREAD = 4;
+
+    // Only this count of failures is reported in detail, the others are just counted
+    static final int MAX_REPORTED_FAILURES = 10;
+
     public ExecutorHelper(int threadCount, KeycloakSessionFactory sessionFactory, DatasetConfig config) {
-        executor = Executors.newFixedThreadPool(threadCount);
+        this(threadCount, sessionFactory, config, null);
+    }
+
+    // When the task is provided, the latency of the transactions is recorded in its progress, which is periodically published to the status of the task
+    public ExecutorHelper(int threadCount, KeycloakSessionFactory sessionFactory, DatasetConfig config, Task task) {
+        executor = TaskThreads.newExecutor(config, threadCount);
         this.sessionFactory = sessionFactory;
         this.config = config;
+        this.task = task;
+
+        int maxTransactions = threadCount;
+        if (TaskThreads.isVirtual(config)) {
+            maxTransactions = config.getMaxConcurrentTransactions();
+            logger.infof("Using virtual threads with at most %d concurrent transactions", maxTransactions);
+            transactionPermits = new Semaphore(maxTransactions);
+        } else {
+            transactionPermits = null;
+        }
+
+        if (config.getAdaptiveConcurrency()) {
+            logger.infof("Using adaptive concurrency with at most %d concurrent transactions", maxTransactions);
+            limiter = new AdaptiveConcurrencyLimiter(maxTransactions);
+        } else {
+            limiter = null;
+        }
+
+        rangeWindow = maxTransactions * SUBMISSION_QUEUE_PER_THREAD;
+
+        // Virtual threads are started for every added task, so bound them as well to not keep all of them waiting in the memory
+        if (limiter != null || transactionPermits != null) {
+            submissionPermits = new Semaphore(maxTransactions * SUBMISSION_QUEUE_PER_THREAD);
+        } else {
+            submissionPermits = null;
+        }
+        if (task != null && task.getProgress() != null) {
+            TaskMetrics.bind(task.getProgress());
+            progressPublisher = Executors.newSingleThreadScheduledExecutor();
+            progressPublisher.scheduleWithFixedDelay(this::publishProgress, PROGRESS_PUBLISH_INTERVAL_MS, PROGRESS_PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } else {
+            progressPublisher = null;
+        }
     }
 
     public void addTask(Runnable task) {
-        Future<?> f = executor.submit(task);
-        futures.add(f);
+        submit(task);
     }
 
     public void addTaskRunningInTransaction(KeycloakSessionTask sessionTask) {
-        Future<?> f = executor.submit(() -> KeycloakModelUtils.runJobInTransactionWithTimeout(sessionFactory, sessionTask, config.getTransactionTimeoutInSeconds()));
-        futures.add(f);
+        submit(() -> runInTransaction(sessionTask));
+    }
+
+    // The afterCommit callback is called only when the transaction was successfully committed
+    public void addTaskRunningInTransaction(KeycloakSessionTask sessionTask, Runnable afterCommit) {
+        submit(() -> {
+            runInTransaction(sessionTask);
+            afterCommit.run();
+        });
+    }
+
+    /**
+     * Add the tasks for the indexes from {@code from} (included) to {@code to} (excluded) split into chunks of {@code chunkSize} indexes.
+     * Every chunk runs in its own transaction. The tasks are created lazily when the previous chunks complete, so only a limited count
+     * of the chunks is in the memory at the same time regardless of the size of the range.
+     *
+     * @param sessionTask creates the task for the chunk with the given start index (included) and end index (excluded)
+     * @param afterCommit called with the start and end index of the chunk when its transaction was successfully committed. Can be null
+     */
+    public void addTasksRunningInTransaction(int from, int to, int chunkSize, BiFunction<Integer, Integer, KeycloakSessionTask> sessionTask,
+                                             BiConsumer<Integer, Integer> afterCommit) {
+        AtomicInteger nextIndex = new AtomicInteger(from);
+        for (int i = 0; i < rangeWindow && nextIndex.get() < to; i++) {
+            submitNextChunk(nextIndex, to, chunkSize, sessionTask, afterCommit);
+        }
+    }
+
+    private void submitNextChunk(AtomicInteger nextIndex, int to, int chunkSize, BiFunction<Integer, Integer, KeycloakSessionTask> sessionTask,
+                                 BiConsumer<Integer, Integer> afterCommit) {
+        int chunkStart = nextIndex.getAndAdd(chunkSize);
+        if (chunkStart >= to) {
+            return;
+        }
+        int chunkEnd = Math.min(chunkStart + chunkSize, to);
+
+        // The chunks are bounded by the window, so they never wait for the submission permits
+        submit(() -> {
+            try {
+                runInTransaction(sessionTask.apply(chunkStart, chunkEnd));
+                if (afterCommit != null) {
+                    afterCommit.accept(chunkStart, chunkEnd);
+                }
+            } finally {
+                // Submit the next chunk before this one is finished, so the pending count does not drop to zero in the meantime
+                submitNextChunk(nextIndex, to, chunkSize, sessionTask, afterCommit);
+            }
+        }, false);
+    }
+
+    private void submit(Runnable runnable) {
+        submit(runnable, submissionPermits != null && !workerThread.get());
+    }
+
+    private void submit(Runnable runnable, boolean bounded) {
+        if (bounded) {
+            try {
+                submissionPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting to add a task", e);
+            }
+        }
+
+        pending.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                workerThread.set(true);
+                try {
+                    runnable.run();
+                } catch (Throwable e) {
+                    failed(e);
+                } finally {
+                    if (bounded) {
+                        submissionPermits.release();
+                    }
+                    finished();
+                }
+            });
+        } catch (RuntimeException e) {
+            if (bounded) {
+                submissionPermits.release();
+            }
+            finished();
+            throw e;
+        }
+    }
+
+    private void failed(Throwable e) {
+        if (failuresCount.incrementAndGet() <= MAX_REPORTED_FAILURES) {
+            failures.add(e);
+        } else {
+            logger.debug("Task failed", e);
+        }
+    }
+
+    private void finished() {
+        if (pending.decrementAndGet() == 0) {
+            synchronized (pending) {
+                pending.notifyAll();
+            }
+        }
+    }
+
+    private void runInTransaction(KeycloakSessionTask sessionTask) {
+        TaskProgress progress = task != null ? task.getProgress() : null;
+        if (transactionPermits != null) {
+            try {
+                transactionPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a free DB connection", e);
+            }
+            try {
+                runInTransactionWithLimits(sessionTask, progress);
+            } finally {
+                transactionPermits.release();
+            }
+        } else {
+            runInTransactionWithLimits(sessionTask, progress);
+        }
+    }
+
+    private void runInTransactionWithLimits(KeycloakSessionTask sessionTask, TaskProgress progress) {
+        if (progress == null && limiter == null) {
+            KeycloakModelUtils.runJobInTransactionWithTimeout(sessionFactory, sessionTask, config.getTransactionTimeoutInSeconds());
+            return;
+        }
+
+        if (limiter != null) {
+            try {
+                limiter.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a free transaction slot", e);
+            }
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            KeycloakModelUtils.runJobInTransactionWithTimeout(sessionFactory, sessionTask, config.getTransactionTimeoutInSeconds());
+            failed = false;
+        } finally {
+            long latencyNanos = System.nanoTime() - start;
+            if (limiter != null) {
+                limiter.release(latencyNanos, failed);
+            }
+            if (progress != null) {
+                if (failed) {
+                    progress.transactionFailed();
+                } else {
+                    progress.transactionCompleted(latencyNanos);
+                }
+            }
+        }
+    }
+
+    private void publishProgress() {
+        try {
+            KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> new TaskManager(session).saveProgress(task));
+        } catch (Throwable ex) {
+            logger.warn("Failed to publish the progress of the task", ex);
+        }
     }
 
 
     public void waitForAllToFinish() {
         logger.info("Waiting for tasks to complete successfully");
-        Collection<Throwable> failures = new ConcurrentLinkedQueue<>();
-        while (!futures.isEmpty()) {
-            // some tasks will spawn other tasks, so expect the futures queue to be modified concurrently.
-            try {
-                futures.poll().get();
-            } catch (Throwable e) {
-                failures.add(e);
+        // some tasks will spawn other tasks, but they are added before the spawning task finishes, so the count drops to zero only once all of them are finished
+        synchronized (pending) {
+            while (pending.get() > 0) {
+                try {
+                    pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for tasks to complete", e);
+                }
             }
         }
-        if (!failures.isEmpty()) {
-            RuntimeException ex = new RuntimeException("Some futures failed");
-            failures.forEach(ex::addSuppressed);
+        if (progressPublisher != null) {
+            // Final progress is kept with the completed task
+            publishProgress();
+        }
+        int failed = failuresCount.getAndSet(0);
+        if (failed > 0) {
+            RuntimeException ex = new RuntimeException(failed + " tasks failed. Showing the first " + Math.min(failed, MAX_REPORTED_FAILURES) + " failures");
+            Throwable failure;
+            while ((failure = failures.poll()) != null) {
+                ex.addSuppressed(failure);
+            }
             throw ex;
         }
         logger.info("All tasks finished");
@@ -81,6 +315,10 @@ public class ExecutorHelper {
 
     public void shutDown() {
         executor.shutdown();
+        if (progressPublisher != null) {
+            progressPublisher.shutdownNow();
+            TaskMetrics.unbind(task.getProgress());
+        }
     }
 
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Set of entity indexes stored as merged ranges. Every range includes its start index and excludes its end index.
+ * <p>
+ * As the batches of a task complete roughly in the order of their indexes, the number of stored ranges stays small even for huge tasks,
+ * so it can be stored with the {@link TaskCheckpoint} in a compact form like {@code 0-1200,1300-1500}.
+ */
+public class IndexRanges {
+
+    private final TreeMap<Integer, Integer> ranges = new TreeMap<>();
+
+    public static IndexRanges of(int from, int to) {
+        IndexRanges result = new IndexRanges();
+        result.add(from, to);
+        return result;
+    }
+
+    public static IndexRanges parse(String str) {
+        IndexRanges result = new IndexRanges();
+        if (str == null || str.isEmpty()) {
+            return result;
+        }
+        for (String range : str.split(",")) {
+            String[] bounds = range.split("-");
+            result.add(Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1]));
+        }
+        return result;
+    }
+
+    public synchronized void add(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+
+        Map.Entry<Integer, Integer> previous = ranges.floorEntry(from);
+        if (previous != null && previous.getValue() >= from) {
+            from = previous.getKey();
+            to = Math.max(to, previous.getValue());
+            ranges.remove(previous.getKey());
+        }
+
+        Map.Entry<Integer, Integer> next;
+        while ((next = ranges.ceilingEntry(from)) != null && next.getKey() <= to) {
+            to = Math.max(to, next.getValue());
+            ranges.remove(next.getKey());
+        }
+
+        ranges.put(from, to);
+    }
+
+    /**
+     * @return indexes between {@code from} and {@code to}, which are not part of these ranges
+     */
+    public synchronized IndexRanges missing(int from, int to) {
+        IndexRanges result = new IndexRanges();
+        int cursor = from;
+        for (Map.Entry<Integer, Integer> range : ranges.entrySet()) {
+            if (range.getValue() <= cursor) {
+                continue;
+            }
+            if (range.getKey() >= to) {
+                break;
+            }
+            result.add(cursor, range.getKey());
+            cursor = range.getValue();
+        }
+        result.add(cursor, to);
+        return result;
+    }
+
+    /**
+     * @return total count of the indexes in all the ranges
+     */
+    public synchronized int size() {
+        return ranges.entrySet().stream().mapToInt(range -> range.getValue() - range.getKey()).sum();
+    }
+
+    public synchronized boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * Call the consumer with the start (included) and end (excluded) index of every range in ascending order
+     */
+    public void forEach(BiConsumer<Integer, Integer> consumer) {
+        List<Map.Entry<Integer, Integer>> copy;
+        synchronized (this) {
+            copy = new ArrayList<>(ranges.entrySet());
+        }
+        copy.forEach(range -> consumer.accept(range.getKey(), range.getValue()));
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder result = new StringBuilder();
+        ranges.forEach((from, to) -> {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(from).append('-').append(to);
+        });
+        return result.toString();
+    }
+}
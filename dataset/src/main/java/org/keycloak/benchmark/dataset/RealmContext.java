@@ -18,16 +18,10 @@
 
 package org.keycloak.benchmark.dataset;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
-import org.keycloak.models.ClientModel;
-import org.keycloak.models.GroupModel;
 import org.keycloak.models.RealmModel;
-import org.keycloak.models.RoleModel;
 
 /**
  * Collection of objects, which were created and are related to the particular realm. This collection is "maintained" here to avoid
@@ -47,15 +41,13 @@ public class RealmContext {
 
     private final AtomicLong resourcesCount = new AtomicLong();
 
-    private List<RoleModel> realmRoles = new ArrayList<>();
-
-    // All client roles of all clients
-    private List<RoleModel> clientRoles = Collections.synchronizedList(new ArrayList<>());
-
-    private List<GroupModel> groups = new ArrayList<>();
+    // Ids of the roles and groups assigned to the users
+    private RealmSnapshot snapshot;
 
     private final AtomicLong usersCount = new AtomicLong();
 
+    private UserDistribution userDistribution;
+
     public RealmContext(DatasetConfig config) {
         this.config = config;
     }
@@ -64,6 +56,13 @@ public class RealmContext {
         return config;
     }
 
+    public synchronized UserDistribution getUserDistribution() {
+        if (userDistribution == null) {
+            userDistribution = new UserDistribution(config);
+        }
+        return userDistribution;
+    }
+
     public RealmModel getRealm() {
         return realm;
     }
@@ -84,40 +83,12 @@ public class RealmContext {
         return clientsCount.get();
     }
 
-    public void realmRoleCreated(RoleModel role) {
-        realmRoles.add(role);
-    }
-
-    public List<RoleModel> getRealmRoles() {
-        return realmRoles;
-    }
-
-    public void setRealmRoles(List<RoleModel> realmRoles) {
-        this.realmRoles = realmRoles;
-    }
-
-    public void clientRoleCreated(ClientModel client, RoleModel clientRole) {
-        this.clientRoles.add(clientRole);
-    }
-
-    public List<RoleModel> getClientRoles() {
-        return clientRoles;
-    }
-
-    public void setClientRoles(List<RoleModel> clientRoles) {
-        this.clientRoles = Collections.synchronizedList(clientRoles);
-    }
-
-    public void groupCreated(GroupModel group) {
-        groups.add(group);
-    }
-
-    public List<GroupModel> getGroups() {
-        return groups;
+    public RealmSnapshot getSnapshot() {
+        return snapshot;
     }
 
-    public void setGroups(List<GroupModel> groups) {
-        this.groups = groups;
+    public void setSnapshot(RealmSnapshot snapshot) {
+        this.snapshot = snapshot;
     }
 
     public void incUserCount() {
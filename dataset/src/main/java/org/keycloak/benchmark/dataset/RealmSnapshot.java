@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.RealmModel;
+
+/**
+ * Ids of the realm roles, client roles, clients and groups of a realm, which are assigned to the created users or referenced by the
+ * created authorization policies, ordered by their indexes.
+ * The snapshot contains only the ids, so it can be shared by the transactions and tasks, which resolve the models in their own
+ * transaction when they need them.
+ * <p>
+ * The snapshots are cached per realm on this node. Every task getting the snapshot validates it with the counts of the roles, groups and
+ * clients of the realm, which is a single query, so the changes made on the other nodes of the cluster or outside of the dataset endpoints
+ * are detected unless they keep the counts the same. The dataset endpoints of this node, which create or remove the roles, clients or
+ * groups, also invalidate the snapshot of the realm right away.
+ */
+public class RealmSnapshot {
+
+    private static final Logger logger = Logger.getLogger(RealmSnapshot.class);
+
+    // Only the roles of the first clients are assigned to the users, to avoid loading the roles of all clients of the realm
+    static final int MAX_CLIENTS = 20;
+
+    private static final Map<String, RealmSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Prefixes used for loading the snapshot. The snapshot is loaded again when the task uses different prefixes
+    private final String prefixes;
+    // Counts of the roles, groups and clients of the realm when the snapshot was loaded
+    private final List<Object> counts;
+    private final List<String> realmRoleIds;
+    private final List<String> clientRoleIds;
+    private final List<String> groupIds;
+    private final List<String> clientIds;
+
+    private RealmSnapshot(String prefixes, List<Object> counts, List<String> realmRoleIds, List<String> clientRoleIds, List<String> groupIds, List<String> clientIds) {
+        this.prefixes = prefixes;
+        this.counts = counts;
+        this.realmRoleIds = List.copyOf(realmRoleIds);
+        this.clientRoleIds = List.copyOf(clientRoleIds);
+        this.groupIds = List.copyOf(groupIds);
+        this.clientIds = List.copyOf(clientIds);
+    }
+
+    /**
+     * @return snapshot with the given ids, which is not cached. It is used when the ids are not loaded from the database, like in the tests
+     */
+    public static RealmSnapshot of(List<String> realmRoleIds, List<String> clientRoleIds, List<String> groupIds, List<String> clientIds) {
+        return new RealmSnapshot("", List.of(), realmRoleIds, clientRoleIds, groupIds, clientIds);
+    }
+
+    /**
+     * @return cached snapshot of the realm or the snapshot loaded in the given session if it was not cached yet or the realm was changed
+     */
+    public static RealmSnapshot get(KeycloakSession session, RealmModel realm, DatasetConfig config) {
+        String prefixes = String.join("/", config.getRealmRolePrefix(), config.getClientPrefix(), config.getClientRolePrefix(), config.getGroupPrefix());
+        List<Object> counts = count(session, realm);
+        RealmSnapshot snapshot = snapshots.get(realm.getId());
+        if (snapshot == null || !snapshot.prefixes.equals(prefixes) || !snapshot.counts.equals(counts)) {
+            snapshot = load(session, realm, config, prefixes, counts);
+            snapshots.put(realm.getId(), snapshot);
+        }
+        return snapshot;
+    }
+
+    public static void invalidate(String realmId) {
+        snapshots.remove(realmId);
+    }
+
+    public List<String> getRealmRoleIds() {
+        return realmRoleIds;
+    }
+
+    public List<String> getClientRoleIds() {
+        return clientRoleIds;
+    }
+
+    public List<String> getGroupIds() {
+        return groupIds;
+    }
+
+    /**
+     * @return ids of the first {@link #MAX_CLIENTS} clients of the realm
+     */
+    public List<String> getClientIds() {
+        return clientIds;
+    }
+
+    public int getClientCount() {
+        return clientIds.size();
+    }
+
+    // The type of the counts depends on the database, but it is the same for all the queries
+    @SuppressWarnings("unchecked")
+    private static List<Object> count(KeycloakSession session, RealmModel realm) {
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        return em.createNativeQuery("SELECT COUNT(*) FROM KEYCLOAK_ROLE WHERE REALM_ID = :realmId"
+                        + " UNION ALL SELECT COUNT(*) FROM KEYCLOAK_GROUP WHERE REALM_ID = :realmId"
+                        + " UNION ALL SELECT COUNT(*) FROM CLIENT WHERE REALM_ID = :realmId")
+                .setParameter("realmId", realm.getId())
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RealmSnapshot load(KeycloakSession session, RealmModel realm, DatasetConfig config, String prefixes, List<Object> counts) {
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+
+        List<Object[]> realmRoles = em.createNativeQuery("SELECT ID, NAME FROM KEYCLOAK_ROLE WHERE REALM_ID = :realmId AND CLIENT_ROLE = :clientRole AND NAME LIKE :prefix")
+                .setParameter("realmId", realm.getId())
+                .setParameter("clientRole", false)
+                .setParameter("prefix", config.getRealmRolePrefix() + "%")
+                .getResultList();
+        List<String> realmRoleIds = sortByIndex(realmRoles, name -> new int[] { EntityIndexes.parseIndex(name, config.getRealmRolePrefix()) });
+
+        List<Object[]> groups = em.createNativeQuery("SELECT ID, NAME FROM KEYCLOAK_GROUP WHERE REALM_ID = :realmId AND NAME LIKE :prefix")
+                .setParameter("realmId", realm.getId())
+                .setParameter("prefix", config.getGroupPrefix() + "%")
+                .getResultList();
+        List<String> groupIds = sortGroups(groups, config.getGroupPrefix());
+
+        // The first clients by their index, the names without an index are skipped
+        List<Object[]> clients = em.createNativeQuery("SELECT ID, CLIENT_ID FROM CLIENT WHERE REALM_ID = :realmId AND CLIENT_ID LIKE :prefix ORDER BY LENGTH(CLIENT_ID), CLIENT_ID")
+                .setParameter("realmId", realm.getId())
+                .setParameter("prefix", config.getClientPrefix() + "%")
+                .setMaxResults(MAX_CLIENTS * 5)
+                .getResultList();
+        List<String> clientRoleIds = new ArrayList<>();
+        List<String> clientIds = new ArrayList<>();
+        for (Object[] client : clients) {
+            if (clientIds.size() == MAX_CLIENTS) {
+                break;
+            }
+            String clientId = (String) client[1];
+            if (EntityIndexes.parseIndex(clientId, config.getClientPrefix()) < 0) {
+                continue;
+            }
+            clientIds.add((String) client[0]);
+
+            String rolePrefix = clientId + "-" + config.getClientRolePrefix();
+            List<Object[]> clientRoles = em.createNativeQuery("SELECT ID, NAME FROM KEYCLOAK_ROLE WHERE CLIENT = :clientId AND NAME LIKE :prefix")
+                    .setParameter("clientId", client[0])
+                    .setParameter("prefix", rolePrefix + "%")
+                    .getResultList();
+            clientRoleIds.addAll(sortByIndex(clientRoles, name -> new int[] { EntityIndexes.parseIndex(name, rolePrefix) }));
+        }
+
+        logger.debugf("Loaded %d realm roles, %d client roles of %d clients and %d groups of the realm %s", realmRoleIds.size(), clientRoleIds.size(),
+                clientIds.size(), groupIds.size(), realm.getName());
+        return new RealmSnapshot(prefixes, counts, realmRoleIds, clientRoleIds, groupIds, clientIds);
+    }
+
+    /**
+     * The groups are ordered by the parts of their names separated by {@link DatasetResourceProvider#GROUP_NAME_SEPARATOR}, compared as
+     * strings, and then by the whole names, like {@code group-1, group-10, group-10.1, group-2}. It is the order, in which the users were
+     * assigned to the groups before the snapshots, so the same dataset spec assigns the users to the same groups.
+     */
+    static List<String> sortGroups(List<Object[]> rows, String prefix) {
+        List<Object[]> named = new ArrayList<>();
+        for (Object[] row : rows) {
+            String name = (String) row[1];
+            if (name.startsWith(prefix)) {
+                String suffix = name.substring(prefix.length());
+                // The name is split only once instead of in every comparison
+                named.add(new Object[] { row[0], suffix, suffix.split(Pattern.quote(DatasetResourceProvider.GROUP_NAME_SEPARATOR)) });
+            }
+        }
+        named.sort(Comparator.<Object[], String[]>comparing(row -> (String[]) row[2], RealmSnapshot::compareParts)
+                .thenComparing(row -> (String) row[1]));
+        List<String> ids = new ArrayList<>(named.size());
+        named.forEach(row -> ids.add((String) row[0]));
+        return ids;
+    }
+
+    // Only the parts, which both names have, are compared
+    private static int compareParts(String[] parts1, String[] parts2) {
+        for (int i = 0; i < Math.min(parts1.length, parts2.length); i++) {
+            int result = parts1[i].compareTo(parts2[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    // The rows are the ids and the names. The rows with the names, which do not have the indexes, are skipped
+    private static List<String> sortByIndex(List<Object[]> rows, Function<String, int[]> indexes) {
+        List<Object[]> indexed = new ArrayList<>();
+        for (Object[] row : rows) {
+            int[] index = indexes.apply((String) row[1]);
+            if (index != null && index[0] >= 0) {
+                indexed.add(new Object[] { row[0], index });
+            }
+        }
+        indexed.sort(Comparator.comparing(row -> (int[]) row[1], Arrays::compare));
+        List<String> ids = new ArrayList<>(indexed.size());
+        indexed.forEach(row -> ids.add((String) row[0]));
+        return ids;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.Random;
+
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+/**
+ * Decides the age, the count of client sessions, the notes and the offline flag of the created sessions.
+ * <p>
+ * With the {@link #EXPONENTIAL} age distribution, the average age is a quarter of the maximum age, which is similar to the sessions
+ * of users logging in during the whole day with most of the sessions ending soon after they were started.
+ */
+public class SessionDistribution {
+
+    public static final String UNIFORM = "uniform";
+    public static final String EXPONENTIAL = "exponential";
+
+    public static final String NOTE_NAME = "dataset-note";
+
+    private final int maxAge;
+    private final boolean exponentialAge;
+    private final int clientsPerSession;
+    private final boolean powerLawClients;
+    private final double exponent;
+    private final String note;
+    private final int offlinePercentage;
+
+    public SessionDistribution(DatasetConfig config) {
+        this(config.getSessionMaxAge(), config.getSessionAgeDistribution(), config.getClientsPerSession(), config.getCountDistribution(),
+                config.getDistributionExponent(), config.getSessionNoteSize(), config.getOfflineSessionsPercentage());
+    }
+
+    public SessionDistribution(int maxAge, String ageDistribution, int clientsPerSession, String countDistribution, String exponent,
+                               int noteSize, int offlinePercentage) {
+        if (maxAge < 0 || noteSize < 0) {
+            throw new DatasetException("Parameters 'session-max-age' and 'session-note-size' cannot be negative");
+        }
+        if (clientsPerSession < 1) {
+            throw new DatasetException("Parameter 'clients-per-session' must be at least 1");
+        }
+        if (offlinePercentage < 0 || offlinePercentage > 100) {
+            throw new DatasetException("Parameter 'offline-sessions-percentage' must be between 0 and 100");
+        }
+        this.maxAge = maxAge;
+        this.exponentialAge = isExponential(ageDistribution);
+        this.clientsPerSession = clientsPerSession;
+        this.powerLawClients = UserDistribution.isPowerLaw(countDistribution);
+        this.exponent = UserDistribution.parseExponent(exponent);
+        this.note = noteSize > 0 ? "x".repeat(noteSize) : null;
+        this.offlinePercentage = offlinePercentage;
+    }
+
+    /**
+     * @return age of the session in seconds, which is less than the maximum age
+     */
+    public int age(Random random) {
+        if (maxAge == 0) {
+            return 0;
+        }
+        if (exponentialAge) {
+            double age = -Math.log(1 - random.nextDouble()) * maxAge / 4;
+            return (int) Math.min(maxAge - 1, age);
+        }
+        return random.nextInt(maxAge);
+    }
+
+    /**
+     * @param clientCount count of the available clients
+     * @return count of the client sessions of the user session, which is at least 1 and at most the count of the available clients
+     */
+    public int clientsPerSession(Random random, int clientCount) {
+        int count = powerLawClients ? UserDistribution.powerLaw(random.nextDouble(), clientsPerSession, exponent, clientCount) : clientsPerSession;
+        return Math.max(1, Math.min(count, clientCount));
+    }
+
+    /**
+     * @return value of the note {@link #NOTE_NAME} or {@code null} if the sessions should not have it
+     */
+    public String getNote() {
+        return note;
+    }
+
+    public boolean isOffline(Random random) {
+        return offlinePercentage > 0 && random.nextInt(100) < offlinePercentage;
+    }
+
+    private static boolean isExponential(String value) {
+        if (value == null || value.isEmpty() || UNIFORM.equals(value)) {
+            return false;
+        }
+        if (EXPONENTIAL.equals(value)) {
+            return true;
+        }
+        throw new DatasetException("Invalid value '" + value + "' of the parameter 'session-age-distribution'. Supported values are '" + UNIFORM + "' and '" + EXPONENTIAL + "'");
+    }
+}
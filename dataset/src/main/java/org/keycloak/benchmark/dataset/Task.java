@@ -35,18 +35,35 @@ public class Task {
     public static final String KEY_END_TIME_MS = "endTimeMs";
     public static final String KEY_MESSAGE = "message";
     public static final String KEY_START_TIME_MS = "startTimeMs";
+    public static final String KEY_RESULT = "result";
+    public static final String PROGRESS_PREFIX = "progress.";
     private final String taskMessage;
     private final long startTimeMs;
     private Boolean success;
     private Long endTimeMs;
 
+    // Summary of the outcome of the completed task, for example the statistics of a benchmark
+    private String result;
+
+    // Live progress is available only on the node running the task. Other nodes see the last published snapshot
+    private TaskProgress progress;
+    private Map<String, String> progressSnapshot;
+
     private Task(String taskMessage, long startTimeMs) {
         this.taskMessage = taskMessage;
         this.startTimeMs = startTimeMs;
     }
 
     public static Task start(String startMessage) {
-        return new Task(startMessage, Time.currentTimeMillis());
+        Task task = new Task(startMessage, Time.currentTimeMillis());
+        task.progress = new TaskProgress(task.startTimeMs);
+        return task;
+    }
+
+    public static Task start(String startMessage, long entitiesCount) {
+        Task task = start(startMessage);
+        task.progress.setTotal(entitiesCount);
+        return task;
     }
 
     public static Task fromMap(Map<String, String> map) {
@@ -57,6 +74,16 @@ public class Task {
         if (map.get(KEY_END_TIME_MS) != null) {
             task.endTimeMs = Long.parseLong(map.get(KEY_END_TIME_MS));
         }
+        task.result = map.get(KEY_RESULT);
+        Map<String, String> progress = new HashMap<>();
+        map.forEach((key, value) -> {
+            if (key.startsWith(PROGRESS_PREFIX)) {
+                progress.put(key.substring(PROGRESS_PREFIX.length()), value);
+            }
+        });
+        if (!progress.isEmpty()) {
+            task.progressSnapshot = progress;
+        }
         return task;
     }
 
@@ -70,6 +97,13 @@ public class Task {
         if (success != null) {
             result.put(KEY_SUCCESS, Boolean.toString(success));
         }
+        if (this.result != null) {
+            result.put(KEY_RESULT, this.result);
+        }
+        Map<String, String> progress = getProgressMap();
+        if (progress != null) {
+            progress.forEach((key, value) -> result.put(PROGRESS_PREFIX + key, value));
+        }
         return result;
     }
 
@@ -89,6 +123,30 @@ public class Task {
         return taskMessage;
     }
 
+    public long getStartTimeMs() {
+        return startTimeMs;
+    }
+
+    /**
+     * @return live progress of the task or null if the task is not running on this node
+     */
+    public TaskProgress getProgress() {
+        return progress;
+    }
+
+    public Map<String, String> getProgressMap() {
+        return progress != null ? progress.toMap() : progressSnapshot;
+    }
+
+    /**
+     * Attach the progress published by the node running the task, unless it belongs to some other task
+     */
+    public void setProgressSnapshot(Map<String, String> progressSnapshot) {
+        if (progressSnapshot != null && Long.toString(startTimeMs).equals(progressSnapshot.get(TaskProgress.KEY_STARTED_TIME_MS))) {
+            this.progressSnapshot = progressSnapshot;
+        }
+    }
+
     @Override
     public String toString() {
         boolean running = endTimeMs == null;
@@ -105,6 +163,14 @@ public class Task {
         return success;
     }
 
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
     public void SetSuccess(boolean success) {
         this.success = success;
         this.endTimeMs = Time.currentTimeMillis();
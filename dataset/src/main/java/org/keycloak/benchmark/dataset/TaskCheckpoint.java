@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.keycloak.benchmark.dataset.config.DatasetOperation;
+import org.keycloak.common.util.Time;
+
+/**
+ * Progress of a task creating entities with indexes from {@code start} (included) to {@code end} (excluded). It contains the parameters
+ * of the original HTTP request and the ranges of indexes, which were already committed to the DB, so that the task can be resumed
+ * after the Keycloak node running it was restarted.
+ */
+public class TaskCheckpoint {
+
+    public static final String KEY_OPERATION = "operation";
+    public static final String KEY_MESSAGE = "message";
+    public static final String KEY_START = "start";
+    public static final String KEY_END = "end";
+    public static final String KEY_COMPLETED = "completed";
+    public static final String KEY_HEARTBEAT_MS = "heartbeatMs";
+    public static final String PARAM_PREFIX = "param.";
+
+    private final DatasetOperation operation;
+    private final String taskMessage;
+    private final Map<String, String> params;
+    private final int start;
+    private final int end;
+    private final IndexRanges completed;
+    private final boolean resumed;
+    private volatile long heartbeatMs;
+
+    private TaskCheckpoint(DatasetOperation operation, String taskMessage, Map<String, String> params, int start, int end, IndexRanges completed, boolean resumed) {
+        this.operation = operation;
+        this.taskMessage = taskMessage;
+        this.params = params;
+        this.start = start;
+        this.end = end;
+        this.completed = completed;
+        this.resumed = resumed;
+        this.heartbeatMs = Time.currentTimeMillis();
+    }
+
+    public static TaskCheckpoint start(DatasetOperation operation, Task task, Map<String, String> params, int start, int end) {
+        return new TaskCheckpoint(operation, task.getTaskMessage(), params, start, end, new IndexRanges(), false);
+    }
+
+    public static TaskCheckpoint fromMap(Map<String, String> map) {
+        Map<String, String> params = new HashMap<>();
+        map.forEach((key, value) -> {
+            if (key.startsWith(PARAM_PREFIX)) {
+                params.put(key.substring(PARAM_PREFIX.length()), value);
+            }
+        });
+        TaskCheckpoint checkpoint = new TaskCheckpoint(DatasetOperation.valueOf(map.get(KEY_OPERATION)), map.get(KEY_MESSAGE), params,
+                Integer.parseInt(map.get(KEY_START)), Integer.parseInt(map.get(KEY_END)), IndexRanges.parse(map.get(KEY_COMPLETED)), false);
+        checkpoint.heartbeatMs = Long.parseLong(map.get(KEY_HEARTBEAT_MS));
+        return checkpoint;
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> result = new HashMap<>();
+        result.put(KEY_OPERATION, operation.name());
+        result.put(KEY_MESSAGE, taskMessage);
+        result.put(KEY_START, Integer.toString(start));
+        result.put(KEY_END, Integer.toString(end));
+        result.put(KEY_COMPLETED, completed.toString());
+        result.put(KEY_HEARTBEAT_MS, Long.toString(heartbeatMs));
+        params.forEach((name, value) -> result.put(PARAM_PREFIX + name, value));
+        return result;
+    }
+
+    /**
+     * @return checkpoint to be used by the task resuming the work of this checkpoint
+     */
+    public TaskCheckpoint resume() {
+        return new TaskCheckpoint(operation, taskMessage, params, start, end, IndexRanges.parse(completed.toString()), true);
+    }
+
+    /**
+     * Marks the entities with the indexes from {@code from} (included) to {@code to} (excluded) as committed to the DB
+     */
+    public void completed(int from, int to) {
+        completed.add(from, to);
+    }
+
+    public IndexRanges getMissingRanges() {
+        return completed.missing(start, end);
+    }
+
+    public void heartbeat() {
+        heartbeatMs = Time.currentTimeMillis();
+    }
+
+    /**
+     * @return true if the node running the task did not update the checkpoint for a longer time, so the task is probably not running anymore
+     */
+    public boolean isAbandoned() {
+        return Time.currentTimeMillis() - heartbeatMs > CheckpointRecorder.ABANDONED_AFTER_MS;
+    }
+
+    /**
+     * @return true if this checkpoint belongs to a resumed task. Some batches might have been committed to the DB just before the
+     * original task was interrupted without being recorded in the checkpoint
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public DatasetOperation getOperation() {
+        return operation;
+    }
+
+    public String getTaskMessage() {
+        return taskMessage;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, operation: %s, range: %d-%d, completed: %s", taskMessage, operation, start, end, completed);
+    }
+}
@@ -41,6 +41,8 @@ public class TaskManager {
 
     private final String KEY_RUNNING = "dataset_task_running";
     private final String KEY_COMPLETED = "dataset_task_completed";
+    private final String KEY_CHECKPOINT = "dataset_task_checkpoint";
+    private final String KEY_PROGRESS = "dataset_task_progress";
 
     protected static final Logger logger = Logger.getLogger(TaskManager.class);
 
@@ -53,7 +55,9 @@ public class TaskManager {
         if (existingTask == null) {
             return null;
         }
-        return Task.fromMap(existingTask);
+        Task task = Task.fromMap(existingTask);
+        task.setProgressSnapshot(singleUseObjectProvider.get(KEY_PROGRESS));
+        return task;
     }
 
     public Task getCompletedTask() {
@@ -75,11 +79,21 @@ public class TaskManager {
     }
 
     public void removeExistingTask(boolean successfullyFinished) {
+        removeExistingTask(successfullyFinished, null);
+    }
+
+    /**
+     * Complete the running task. The result, if any, is kept in the completed task, so it can be seen in its status.
+     */
+    public void removeExistingTask(boolean successfullyFinished, String result) {
         Map<String, String> existingTask = singleUseObjectProvider.get(KEY_RUNNING);
         if (existingTask != null) {
             singleUseObjectProvider.remove(KEY_RUNNING);
             Task task = Task.fromMap(existingTask);
+            task.setProgressSnapshot(singleUseObjectProvider.get(KEY_PROGRESS));
+            singleUseObjectProvider.remove(KEY_PROGRESS);
             task.SetSuccess(successfullyFinished);
+            task.setResult(result);
             try {
                 singleUseObjectProvider.put(KEY_COMPLETED, TimeUnit.DAYS.toSeconds(1), task.toMap());
             } catch (Exception e) {
@@ -94,4 +108,36 @@ public class TaskManager {
     public void deleteCompletedTask() {
         singleUseObjectProvider.remove(KEY_COMPLETED);
     }
+
+    /**
+     * Publish the live progress of the task running on this node, so it can be seen in the status of the task on any node.
+     */
+    public void saveProgress(Task task) {
+        Map<String, String> notes = task.getProgress().toMap();
+        if (!singleUseObjectProvider.replace(KEY_PROGRESS, notes)) {
+            singleUseObjectProvider.put(KEY_PROGRESS, TimeUnit.DAYS.toSeconds(1), notes);
+        }
+    }
+
+    public TaskCheckpoint getCheckpoint() {
+        Map<String, String> checkpoint = singleUseObjectProvider.get(KEY_CHECKPOINT);
+        if (checkpoint == null) {
+            return null;
+        }
+        return TaskCheckpoint.fromMap(checkpoint);
+    }
+
+    /**
+     * Store the checkpoint of the running task. There is always just one checkpoint, so the checkpoint of any previous task is overwritten.
+     */
+    public void saveCheckpoint(TaskCheckpoint checkpoint) {
+        Map<String, String> notes = checkpoint.toMap();
+        if (!singleUseObjectProvider.replace(KEY_CHECKPOINT, notes)) {
+            singleUseObjectProvider.put(KEY_CHECKPOINT, TimeUnit.DAYS.toSeconds(7), notes);
+        }
+    }
+
+    public void removeCheckpoint() {
+        singleUseObjectProvider.remove(KEY_CHECKPOINT);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Exposes the {@link TaskProgress} of the task running on this node as Micrometer gauges, which are available on the metrics endpoint
+ * of Keycloak when metrics are enabled. The gauges report zero when no task is running on this node.
+ */
+public class TaskMetrics {
+
+    private static final String PREFIX = "keycloak.dataset.task.";
+
+    private static final AtomicReference<TaskProgress> current = new AtomicReference<>();
+
+    static {
+        gauge("entities.created", "Count of entities created by the running dataset task", TaskProgress::getCreated);
+        gauge("entities.total", "Count of entities the running dataset task is going to create", TaskProgress::getTotal);
+        gauge("entities.rate", "Entities created per second by the running dataset task", TaskProgress::getRatePerSecond);
+        gauge("transactions", "Count of transactions committed by the running dataset task", TaskProgress::getTransactions);
+        gauge("transactions.failed", "Count of failed transactions of the running dataset task", TaskProgress::getFailedTransactions);
+        gauge("eta.seconds", "Estimated seconds until the running dataset task completes", TaskProgress::getEtaSeconds);
+        for (int percentile : new int[] { 50, 95, 99 }) {
+            Gauge.builder(PREFIX + "transaction.latency.ms", current, ref -> value(ref, progress -> progress.getLatencyPercentileMs(percentile)))
+                    .description("Latency of the transactions of the running dataset task")
+                    .tag("percentile", Integer.toString(percentile))
+                    .register(Metrics.globalRegistry);
+        }
+    }
+
+    // Count of the executors using the bound progress. The stages of the dataset spec run concurrently with their own executors
+    private static int bindings;
+
+    public static synchronized void bind(TaskProgress progress) {
+        if (current.get() != progress) {
+            current.set(progress);
+            bindings = 0;
+        }
+        bindings++;
+    }
+
+    public static synchronized void unbind(TaskProgress progress) {
+        if (current.get() == progress && --bindings == 0) {
+            current.set(null);
+        }
+    }
+
+    private static void gauge(String name, String description, ToDoubleFunction<TaskProgress> function) {
+        Gauge.builder(PREFIX + name, current, ref -> value(ref, function))
+                .description(description)
+                .register(Metrics.globalRegistry);
+    }
+
+    private static double value(AtomicReference<TaskProgress> ref, ToDoubleFunction<TaskProgress> function) {
+        TaskProgress progress = ref.get();
+        return progress == null ? 0 : function.applyAsDouble(progress);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.keycloak.common.util.Time;
+
+/**
+ * Live progress of the task running on this node. It tracks the count of created entities, the throughput over a sliding window
+ * of the last {@link #WINDOW_SECONDS} seconds and the latency of the transactions run by the {@link ExecutorHelper}.
+ * <p>
+ * The latencies are recorded in a histogram with exponential buckets, so the percentiles are approximated by the upper bound of the
+ * bucket, which is good enough to see if the transactions are getting slower.
+ */
+public class TaskProgress {
+
+    public static final String KEY_STARTED_TIME_MS = "startTimeMs";
+    public static final String KEY_CREATED = "created";
+    public static final String KEY_TOTAL = "total";
+    public static final String KEY_TRANSACTIONS = "transactions";
+    public static final String KEY_FAILED_TRANSACTIONS = "failedTransactions";
+    public static final String KEY_RATE_PER_SECOND = "ratePerSecond";
+    public static final String KEY_LATENCY_P50_MS = "transactionLatencyP50Ms";
+    public static final String KEY_LATENCY_P95_MS = "transactionLatencyP95Ms";
+    public static final String KEY_LATENCY_P99_MS = "transactionLatencyP99Ms";
+    public static final String KEY_ETA_SECONDS = "etaSeconds";
+
+    static final int WINDOW_SECONDS = 30;
+
+    // Upper bounds of the buckets are 1ms, 2ms, 4ms, ... up to ~35 minutes. The last bucket is for anything slower.
+    private static final int LATENCY_BUCKETS = 22;
+
+    private final long startTimeMs;
+    private volatile long total;
+    private final LongAdder created = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder failedTransactions = new LongAdder();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS + 1);
+
+    // Ring of the counts of entities created in each of the last seconds
+    private final long[] windowCounts = new long[WINDOW_SECONDS];
+    private final long[] windowSeconds = new long[WINDOW_SECONDS];
+
+    public TaskProgress(long startTimeMs) {
+        this.startTimeMs = startTimeMs;
+    }
+
+    /**
+     * Set the count of the entities the task is going to create. Without it, the ETA is not available.
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public void created(int count) {
+        created.add(count);
+
+        long second = TimeUnit.MILLISECONDS.toSeconds(Time.currentTimeMillis());
+        int slot = (int) (second % WINDOW_SECONDS);
+        synchronized (windowCounts) {
+            if (windowSeconds[slot] != second) {
+                windowSeconds[slot] = second;
+                windowCounts[slot] = 0;
+            }
+            windowCounts[slot] += count;
+        }
+    }
+
+    public void transactionCompleted(long durationNanos) {
+        transactions.increment();
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        int bucket = durationMs <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(durationMs - 1);
+        latencyHistogram.incrementAndGet(Math.min(bucket, LATENCY_BUCKETS));
+    }
+
+    public void transactionFailed() {
+        failedTransactions.increment();
+    }
+
+    public long getCreated() {
+        return created.sum();
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getTransactions() {
+        return transactions.sum();
+    }
+
+    public long getFailedTransactions() {
+        return failedTransactions.sum();
+    }
+
+    /**
+     * @return count of entities created per second during the last {@link #WINDOW_SECONDS} seconds
+     */
+    public double getRatePerSecond() {
+        long now = Time.currentTimeMillis();
+        long currentSecond = TimeUnit.MILLISECONDS.toSeconds(now);
+        long sum = 0;
+        synchronized (windowCounts) {
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (currentSecond - windowSeconds[i] < WINDOW_SECONDS) {
+                    sum += windowCounts[i];
+                }
+            }
+        }
+        // Do not underestimate the rate at the beginning of the task when the window is not yet full
+        long elapsedSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(now - startTimeMs));
+        return (double) sum / Math.min(WINDOW_SECONDS, elapsedSeconds);
+    }
+
+    /**
+     * @return approximate latency in milliseconds, which is greater than the latency of the given percentage of the transactions
+     */
+    public long getLatencyPercentileMs(double percentile) {
+        long count = 0;
+        long[] snapshot = new long[latencyHistogram.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = latencyHistogram.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long threshold = (long) Math.ceil(count * percentile / 100);
+        long cumulative = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= threshold) {
+                return 1L << i;
+            }
+        }
+        return 1L << LATENCY_BUCKETS;
+    }
+
+    /**
+     * @return estimated seconds until all the entities are created or -1 if unknown
+     */
+    public long getEtaSeconds() {
+        double rate = getRatePerSecond();
+        long remaining = total - getCreated();
+        if (total <= 0 || rate <= 0) {
+            return -1;
+        }
+        return Math.max(0, (long) Math.ceil(remaining / rate));
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> result = new HashMap<>();
+        result.put(KEY_STARTED_TIME_MS, Long.toString(startTimeMs));
+        result.put(KEY_CREATED, Long.toString(getCreated()));
+        if (total > 0) {
+            result.put(KEY_TOTAL, Long.toString(total));
+        }
+        result.put(KEY_TRANSACTIONS, Long.toString(getTransactions()));
+        result.put(KEY_FAILED_TRANSACTIONS, Long.toString(getFailedTransactions()));
+        result.put(KEY_RATE_PER_SECOND, Long.toString(Math.round(getRatePerSecond())));
+        result.put(KEY_LATENCY_P50_MS, Long.toString(getLatencyPercentileMs(50)));
+        result.put(KEY_LATENCY_P95_MS, Long.toString(getLatencyPercentileMs(95)));
+        result.put(KEY_LATENCY_P99_MS, Long.toString(getLatencyPercentileMs(99)));
+        long eta = getEtaSeconds();
+        if (eta >= 0) {
+            result.put(KEY_ETA_SECONDS, Long.toString(eta));
+        }
+        return result;
+    }
+}
@@ -36,6 +36,9 @@ public class TaskResponse {
     @JsonProperty("task")
     private Map<String, String> task;
 
+    @JsonProperty("progress")
+    private Map<String, String> progress;
+
     @JsonProperty("task-status-url")
     private String taskStatusUrl;
 
@@ -47,6 +50,8 @@ public class TaskResponse {
         this.status = status;
         if (task != null) {
             this.task = task.toMap();
+            this.task.keySet().removeIf(key -> key.startsWith(Task.PROGRESS_PREFIX));
+            this.progress = task.getProgressMap();
         }
         this.taskStatusUrl = taskStatusUrl;
     }
@@ -119,4 +124,12 @@ public class TaskResponse {
     public void setTask(Map<String, String> task) {
         this.task = task;
     }
+
+    public Map<String, String> getProgress() {
+        return progress;
+    }
+
+    public void setProgress(Map<String, String> progress) {
+        this.progress = progress;
+    }
 }
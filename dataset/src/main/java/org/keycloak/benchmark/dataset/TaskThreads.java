@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jboss.logging.Logger;
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+
+/**
+ * Creates the threads running the dataset tasks. With {@code executor=virtual} the tasks run on virtual threads.
+ * <p>
+ * The provider is compiled for Java 17, so the virtual threads are looked up by reflection. When Keycloak runs on a JVM without
+ * virtual threads, platform threads are used instead.
+ */
+public class TaskThreads {
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+
+    protected static final Logger logger = Logger.getLogger(TaskThreads.class);
+
+    private static final Method newVirtualThreadPerTaskExecutor = findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+    private static final Method startVirtualThread = findMethod(Thread.class, "startVirtualThread", Runnable.class);
+
+    public static boolean isVirtual(DatasetConfig config) {
+        if (!VIRTUAL.equals(config.getExecutor())) {
+            return false;
+        }
+        if (newVirtualThreadPerTaskExecutor == null || startVirtualThread == null) {
+            logger.warnf("Virtual threads are not available in Java %s. Using platform threads", System.getProperty("java.version"));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return executor with the given count of platform threads or an executor starting a new virtual thread for every task
+     */
+    public static ExecutorService newExecutor(DatasetConfig config, int threadCount) {
+        if (isVirtual(config)) {
+            try {
+                return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create executor with virtual threads", e);
+            }
+        }
+        return Executors.newFixedThreadPool(threadCount);
+    }
+
+    /**
+     * Run the task in a separate thread, so it does not block the HTTP request
+     */
+    public static void start(DatasetConfig config, Runnable runnable) {
+        if (isVirtual(config)) {
+            try {
+                startVirtualThread.invoke(null, runnable);
+                return;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to start virtual thread", e);
+            }
+        }
+        new Thread(runnable).start();
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+/**
+ * Names and values of the attributes and federated identities of the created users. Both the model API and the bulk JDBC inserts
+ * use them, so the created users are the same regardless of the way they were created.
+ */
+public class UserAttributes {
+
+    public static final String ATTRIBUTE_PREFIX = "attribute-";
+    public static final String IDENTITY_PROVIDER_PREFIX = "user-idp-";
+
+    // Longer values are stored in the LONG_VALUE column of the USER_ATTRIBUTE table, which is not written by the bulk inserts
+    public static final int MAX_BULK_VALUE_SIZE = 255;
+
+    public static String attributeName(int attributeIndex) {
+        return ATTRIBUTE_PREFIX + attributeIndex;
+    }
+
+    /**
+     * @return value of the exact size, which is unique for every user and attribute as long as the size allows it
+     */
+    public static String attributeValue(String username, int attributeIndex, int size) {
+        StringBuilder value = new StringBuilder(size);
+        value.append(username).append('-').append(attributeIndex).append('-');
+        while (value.length() < size) {
+            value.append('x');
+        }
+        value.setLength(size);
+        return value.toString();
+    }
+
+    public static String identityProviderAlias(int identityProviderIndex) {
+        return IDENTITY_PROVIDER_PREFIX + identityProviderIndex;
+    }
+
+    public static String federatedUserId(String username, int identityProviderIndex) {
+        return username + "@" + identityProviderAlias(identityProviderIndex);
+    }
+
+    public static void validate(DatasetConfig config) {
+        if (config.getAttributesPerUser() < 0 || config.getFederatedIdentitiesPerUser() < 0) {
+            throw new DatasetException("Parameters 'attributes-per-user' and 'federated-identities-per-user' cannot be negative");
+        }
+        if (config.getAttributesPerUser() > 0 && config.getAttributeValueSize() <= 0) {
+            throw new DatasetException("Parameter 'attribute-value-size' must be positive");
+        }
+        if (config.getBulk() && config.getAttributesPerUser() > 0 && config.getAttributeValueSize() > MAX_BULK_VALUE_SIZE) {
+            throw new DatasetException("Parameter 'attribute-value-size' can be at most " + MAX_BULK_VALUE_SIZE + " with 'bulk=true'");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+/**
+ * Decides which roles, groups and organizations are assigned to the user with the given index.
+ * <p>
+ * With the {@link #UNIFORM} distribution, the entities are assigned in round-robin, so every entity has the same count of users.
+ * With the {@link #ZIPF} distribution, the entity at the index {@code k} is picked with the probability proportional to
+ * {@code 1 / (k + 1)^exponent}, so the first entities are assigned to most of the users.
+ * <p>
+ * The count of entities per user is either {@link #FIXED} or follows the {@link #POWER_LAW} distribution, where the configured
+ * count is the average, but most users have less entities and a few users have many more.
+ * <p>
+ * The random choices depend only on the seed and the index of the user, so the same dataset is created regardless of the count of
+ * threads and the order in which the users are created.
+ */
+public class UserDistribution {
+
+    public static final String UNIFORM = "uniform";
+    public static final String ZIPF = "zipf";
+    public static final String FIXED = "fixed";
+    public static final String POWER_LAW = "power-law";
+
+    // Used to pick the realm roles, client roles and groups of the same user independently of each other
+    public static final int REALM_ROLES = 1;
+    public static final int CLIENT_ROLES = 2;
+    public static final int GROUPS = 3;
+    public static final int ORGANIZATIONS = 4;
+
+    private static final double DEFAULT_EXPONENT = 1.0;
+
+    private final boolean zipfRoles;
+    private final boolean zipfGroups;
+    private final boolean zipfOrganizations;
+    private final boolean powerLawCounts;
+    private final double exponent;
+    private final long seed;
+
+    // Cumulative probabilities of the Zipf distribution for the given count of entities
+    private final Map<Integer, double[]> zipfCdf = new ConcurrentHashMap<>();
+
+    public UserDistribution(DatasetConfig config) {
+        this(config.getRoleDistribution(), config.getGroupDistribution(), config.getOrgDistribution(), config.getCountDistribution(),
+                config.getDistributionExponent(), config.getDistributionSeed() == null ? 0 : config.getDistributionSeed());
+    }
+
+    public UserDistribution(String roleDistribution, String groupDistribution, String countDistribution, String exponent, long seed) {
+        this(roleDistribution, groupDistribution, null, countDistribution, exponent, seed);
+    }
+
+    public UserDistribution(String roleDistribution, String groupDistribution, String orgDistribution, String countDistribution, String exponent, long seed) {
+        this.zipfRoles = isZipf("role-distribution", roleDistribution);
+        this.zipfGroups = isZipf("group-distribution", groupDistribution);
+        this.zipfOrganizations = isZipf("org-distribution", orgDistribution);
+        this.powerLawCounts = isPowerLaw(countDistribution);
+        this.exponent = parseExponent(exponent);
+        this.seed = seed;
+    }
+
+    /**
+     * @param userIndex index of the user
+     * @param perUser configured count of the entities per user
+     * @param size count of the available entities
+     * @param kind one of {@link #REALM_ROLES}, {@link #CLIENT_ROLES}, {@link #GROUPS} or {@link #ORGANIZATIONS}
+     * @return indexes of the entities assigned to the user
+     */
+    public int[] select(int userIndex, int perUser, int size, int kind) {
+        if (size <= 0 || perUser <= 0) {
+            return new int[0];
+        }
+        SplittableRandom random = new SplittableRandom(seed(userIndex, kind));
+        int count = powerLawCounts ? powerLaw(random.nextDouble(), perUser, exponent, size) : perUser;
+        boolean zipf = kind == GROUPS ? zipfGroups : kind == ORGANIZATIONS ? zipfOrganizations : zipfRoles;
+        return zipf ? zipf(random, count, size) : roundRobin(userIndex, perUser, count, size);
+    }
+
+    // Same assignment as before the distributions were introduced, so the default dataset does not change
+    private int[] roundRobin(int userIndex, int perUser, int count, int size) {
+        int[] result = new int[count];
+        long start = (long) userIndex * perUser;
+        for (int j = 0; j < count; j++) {
+            result[j] = (int) ((start + j) % size);
+        }
+        return result;
+    }
+
+    private int[] zipf(SplittableRandom random, int count, int size) {
+        if (count >= size) {
+            int[] all = new int[size];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+
+        double[] cdf = zipfCdf.computeIfAbsent(size, this::computeZipfCdf);
+        boolean[] selected = new boolean[size];
+        int[] result = new int[count];
+        int found = 0;
+
+        // The popular entities are picked again and again for the skewed distributions, so do not try forever and use the most popular remaining ones
+        for (int attempt = 0; found < count && attempt < count * 10; attempt++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble());
+            index = Math.min(index < 0 ? -index - 1 : index, size - 1);
+            if (!selected[index]) {
+                selected[index] = true;
+                result[found++] = index;
+            }
+        }
+        for (int index = 0; found < count; index++) {
+            if (!selected[index]) {
+                selected[index] = true;
+                result[found++] = index;
+            }
+        }
+        return result;
+    }
+
+    private double[] computeZipfCdf(int size) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    // Pareto distribution with the given average for the uniformly distributed value from [0, 1). Higher exponent means heavier tail
+    static int powerLaw(double uniform, int average, double exponent, int max) {
+        double alpha = 1 + 1 / exponent;
+        double minimum = average * (alpha - 1) / alpha;
+        double count = minimum / Math.pow(1 - uniform, 1 / alpha);
+        return (int) Math.min(max, Math.round(count));
+    }
+
+    private long seed(int userIndex, int kind) {
+        return ((seed * 31 + kind) << 32) ^ userIndex;
+    }
+
+    private static boolean isZipf(String paramName, String value) {
+        if (value == null || value.isEmpty() || UNIFORM.equals(value)) {
+            return false;
+        }
+        if (ZIPF.equals(value)) {
+            return true;
+        }
+        throw new DatasetException("Invalid value '" + value + "' of the parameter '" + paramName + "'. Supported values are '" + UNIFORM + "' and '" + ZIPF + "'");
+    }
+
+    static boolean isPowerLaw(String value) {
+        if (value == null || value.isEmpty() || FIXED.equals(value)) {
+            return false;
+        }
+        if (POWER_LAW.equals(value)) {
+            return true;
+        }
+        throw new DatasetException("Invalid value '" + value + "' of the parameter 'count-distribution'. Supported values are '" + FIXED + "' and '" + POWER_LAW + "'");
+    }
+
+    static double parseExponent(String value) {
+        if (value == null || value.isEmpty()) {
+            return DEFAULT_EXPONENT;
+        }
+        try {
+            double exponent = Double.parseDouble(value);
+            if (exponent > 0) {
+                return exponent;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new DatasetException("Invalid value '" + value + "' of the parameter 'distribution-exponent'. It must be a positive number");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+/**
+ * Values picked at random with the given weights. The mix is specified as a comma-separated list of the values with the optional
+ * weights like {@code LOGIN:60,CODE_TO_TOKEN:30,LOGIN_ERROR}. The default weight is 1.
+ */
+public class WeightedMix {
+
+    private final String[] values;
+    // Cumulative weights of the values
+    private final int[] weights;
+
+    private WeightedMix(String[] values, int[] weights) {
+        this.values = values;
+        this.weights = weights;
+    }
+
+    public static WeightedMix parse(String paramName, String mix) {
+        if (mix == null || mix.isBlank()) {
+            throw new DatasetException("Parameter '" + paramName + "' cannot be empty");
+        }
+
+        List<String> values = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (String item : mix.split(",")) {
+            String[] parts = item.trim().split(":");
+            int weight;
+            try {
+                weight = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1;
+            } catch (NumberFormatException e) {
+                weight = -1;
+            }
+            if (parts.length > 2 || parts[0].isBlank() || weight < 0) {
+                throw new DatasetException("Invalid item '" + item + "' of the parameter '" + paramName + "'. Expected 'value' or 'value:weight'");
+            }
+            if (weight == 0) {
+                continue;
+            }
+            total += weight;
+            values.add(parts[0].trim());
+            weights.add(total);
+        }
+        if (values.isEmpty()) {
+            throw new DatasetException("Parameter '" + paramName + "' has no value with a positive weight");
+        }
+
+        return new WeightedMix(values.toArray(new String[0]), weights.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public String pick(Random random) {
+        if (values.length == 1) {
+            return values[0];
+        }
+        int index = Arrays.binarySearch(weights, random.nextInt(weights[weights.length - 1]) + 1);
+        return values[index < 0 ? -index - 1 : index];
+    }
+
+    public List<String> getValues() {
+        return Arrays.asList(values);
+    }
+
+    /**
+     * @return the mix without the given value, where the other values keep their weights, or null if no other value is left
+     */
+    public WeightedMix without(String value) {
+        List<String> otherValues = new ArrayList<>();
+        List<Integer> otherWeights = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (!values[i].equals(value)) {
+                total += weights[i] - (i == 0 ? 0 : weights[i - 1]);
+                otherValues.add(values[i]);
+                otherWeights.add(total);
+            }
+        }
+        if (otherValues.isEmpty()) {
+            return null;
+        }
+        return new WeightedMix(otherValues.toArray(new String[0]), otherWeights.stream().mapToInt(Integer::intValue).toArray());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.representations.idm.authorization.AbstractPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.ClientPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.DecisionStrategy;
+import org.keycloak.representations.idm.authorization.GroupPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.Logic;
+import org.keycloak.representations.idm.authorization.RegexPolicyRepresentation;
+import org.keycloak.representations.idm.authorization.RolePolicyRepresentation;
+import org.keycloak.representations.idm.authorization.TimePolicyRepresentation;
+import org.keycloak.representations.idm.authorization.UserPolicyRepresentation;
+import org.keycloak.util.JsonSerialization;
+
+/**
+ * Creates resources, policies and permissions of a resource server by writing the rows of RESOURCE_SERVER_RESOURCE, RESOURCE_SCOPE,
+ * RESOURCE_SERVER_POLICY, POLICY_CONFIG, ASSOCIATED_POLICY, RESOURCE_POLICY and SCOPE_POLICY directly with JDBC instead of going
+ * through the {@link org.keycloak.authorization.store.StoreFactory} API.
+ * <p>
+ * The created rows are the same as the ones created by the stores for the same representations. The scopes, users, roles, groups and
+ * clients referenced by the policies must already exist and the policies must reference them by their ids. The authorization caches are
+ * not updated, so the caller is responsible for clearing them after all rows were written.
+ */
+public class BulkAuthzWriter {
+
+    private final KeycloakSession session;
+    private final String resourceServerId;
+
+    private final JdbcBatchInserter resources = new JdbcBatchInserter("RESOURCE_SERVER_RESOURCE",
+            "ID", "NAME", "OWNER", "RESOURCE_SERVER_ID", "OWNER_MANAGED_ACCESS");
+    private final JdbcBatchInserter resourceScopes = new JdbcBatchInserter("RESOURCE_SCOPE", "RESOURCE_ID", "SCOPE_ID");
+    private final JdbcBatchInserter policies = new JdbcBatchInserter("RESOURCE_SERVER_POLICY",
+            "ID", "NAME", "TYPE", "DECISION_STRATEGY", "LOGIC", "RESOURCE_SERVER_ID");
+    private final JdbcBatchInserter policyConfigs = new JdbcBatchInserter("POLICY_CONFIG", "POLICY_ID", "NAME", "VALUE");
+    private final JdbcBatchInserter associatedPolicies = new JdbcBatchInserter("ASSOCIATED_POLICY", "POLICY_ID", "ASSOCIATED_POLICY_ID");
+    private final JdbcBatchInserter resourcePolicies = new JdbcBatchInserter("RESOURCE_POLICY", "RESOURCE_ID", "POLICY_ID");
+    private final JdbcBatchInserter scopePolicies = new JdbcBatchInserter("SCOPE_POLICY", "SCOPE_ID", "POLICY_ID");
+
+    public BulkAuthzWriter(KeycloakSession session, String resourceServerId) {
+        this.session = session;
+        this.resourceServerId = resourceServerId;
+    }
+
+    /**
+     * @return ids of the users of the realm with the given usernames. The usernames, which are not found, are missing in the result
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> findUserIds(String realmId, Collection<String> usernames) {
+        Map<String, String> userIds = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return userIds;
+        }
+
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        List<Object[]> rows = em.createNativeQuery("SELECT USERNAME, ID FROM USER_ENTITY WHERE REALM_ID = :realmId AND USERNAME IN (:usernames)")
+                .setParameter("realmId", realmId)
+                .setParameter("usernames", usernames)
+                .getResultList();
+        rows.forEach(row -> userIds.put((String) row[0], (String) row[1]));
+        return userIds;
+    }
+
+    /**
+     * @return id of the created resource, which is owned by the resource server
+     */
+    public String addResource(String name, List<String> scopeIds) {
+        String id = KeycloakModelUtils.generateId();
+        resources.addRow(id, name, resourceServerId, resourceServerId, false);
+        scopeIds.forEach(scopeId -> resourceScopes.addRow(id, scopeId));
+        return id;
+    }
+
+    /**
+     * Create the policy of the representation, which references the users, roles, groups and clients by their ids.
+     *
+     * @param associatedPolicyIds ids of the policies aggregated by the created policy
+     * @return id of the created policy
+     */
+    public String addPolicy(AbstractPolicyRepresentation policy, List<String> associatedPolicyIds) {
+        String id = addPolicy(policy.getName(), policy.getType(), policy.getDecisionStrategy(), policy.getLogic());
+        try {
+            getConfig(policy).forEach((name, value) -> policyConfigs.addRow(id, name, value));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize the configuration of the policy " + policy.getName(), e);
+        }
+        associatedPolicyIds.forEach(policyId -> associatedPolicies.addRow(id, policyId));
+        return id;
+    }
+
+    /**
+     * Create the permission for the scope of the resource, which grants the access if all the given policies grant it.
+     */
+    public void addScopePermission(String name, String resourceId, String scopeId, List<String> policyIds) {
+        // The default decision strategy of the ScopePermissionRepresentation
+        String id = addPolicy(name, "scope", DecisionStrategy.UNANIMOUS, Logic.POSITIVE);
+        resourcePolicies.addRow(resourceId, id);
+        scopePolicies.addRow(scopeId, id);
+        policyIds.forEach(policyId -> associatedPolicies.addRow(id, policyId));
+    }
+
+    public void flush() {
+        session.getProvider(JpaConnectionProvider.class).getEntityManager().unwrap(Session.class).doWork(connection -> {
+            // Resources and policies first because of the foreign keys of the other tables
+            resources.flush(connection);
+            resourceScopes.flush(connection);
+            policies.flush(connection);
+            policyConfigs.flush(connection);
+            associatedPolicies.flush(connection);
+            resourcePolicies.flush(connection);
+            scopePolicies.flush(connection);
+        });
+    }
+
+    private String addPolicy(String name, String type, DecisionStrategy decisionStrategy, Logic logic) {
+        String id = KeycloakModelUtils.generateId();
+        // The enums are stored by their ordinal in the PolicyEntity
+        policies.addRow(id, name, type, decisionStrategy.ordinal(), logic.ordinal(), resourceServerId);
+        return id;
+    }
+
+    // Same configuration as the one stored by the policy provider factories of the policy types
+    private Map<String, String> getConfig(AbstractPolicyRepresentation policy) throws IOException {
+        Map<String, String> config = new LinkedHashMap<>();
+        if (policy instanceof UserPolicyRepresentation) {
+            config.put("users", JsonSerialization.writeValueAsString(((UserPolicyRepresentation) policy).getUsers()));
+        } else if (policy instanceof RolePolicyRepresentation) {
+            config.put("roles", JsonSerialization.writeValueAsString(((RolePolicyRepresentation) policy).getRoles()));
+        } else if (policy instanceof GroupPolicyRepresentation) {
+            config.put("groups", JsonSerialization.writeValueAsString(((GroupPolicyRepresentation) policy).getGroups()));
+        } else if (policy instanceof ClientPolicyRepresentation) {
+            config.put("clients", JsonSerialization.writeValueAsString(((ClientPolicyRepresentation) policy).getClients()));
+        } else if (policy instanceof TimePolicyRepresentation) {
+            TimePolicyRepresentation timePolicy = (TimePolicyRepresentation) policy;
+            putIfNotNull(config, "nbf", timePolicy.getNotBefore());
+            putIfNotNull(config, "noa", timePolicy.getNotOnOrAfter());
+            putIfNotNull(config, "dayMonth", timePolicy.getDayMonth());
+            putIfNotNull(config, "dayMonthEnd", timePolicy.getDayMonthEnd());
+            putIfNotNull(config, "month", timePolicy.getMonth());
+            putIfNotNull(config, "monthEnd", timePolicy.getMonthEnd());
+            putIfNotNull(config, "year", timePolicy.getYear());
+            putIfNotNull(config, "yearEnd", timePolicy.getYearEnd());
+            putIfNotNull(config, "hour", timePolicy.getHour());
+            putIfNotNull(config, "hourEnd", timePolicy.getHourEnd());
+            putIfNotNull(config, "minute", timePolicy.getMinute());
+            putIfNotNull(config, "minuteEnd", timePolicy.getMinuteEnd());
+        } else if (policy instanceof RegexPolicyRepresentation) {
+            RegexPolicyRepresentation regexPolicy = (RegexPolicyRepresentation) policy;
+            config.put("targetClaim", regexPolicy.getTargetClaim());
+            config.put("pattern", regexPolicy.getPattern());
+            config.put("targetContextAttributes", String.valueOf(regexPolicy.isTargetContextAttributes()));
+        }
+        return config;
+    }
+
+    private void putIfNotNull(Map<String, String> config, String name, String value) {
+        if (value != null) {
+            config.put(name, value);
+        }
+    }
+}
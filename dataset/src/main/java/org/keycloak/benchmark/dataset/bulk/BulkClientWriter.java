@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.ClientModel;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.utils.KeycloakModelUtils;
+
+/**
+ * Creates clients by copying the rows of a template client with JDBC instead of going through the {@link ClientModel} API. The template
+ * is created through the model API in the same transaction, so the copies have the same attributes, redirect URIs, client scopes,
+ * protocol mappers, client roles and service account user as the clients created without this writer.
+ * <p>
+ * The ids of the copied rows are generated again and the foreign keys to the rows of the template are replaced by the ids of the copied
+ * rows. The client id of the template is replaced by the client id of the copy only in the text columns, which contain it, like the name,
+ * the secret, the redirect URIs or the names of the client roles. Other columns, like the configuration of the protocol mappers, are
+ * copied as they are. The client cache is not updated, which is fine as the copies were never cached.
+ */
+public class BulkClientWriter {
+
+    // Tables with the rows of the template in the order of their foreign keys, with their generated columns and the text columns containing the client id
+    private static final List<TemplateTable> TABLES = List.of(
+            new TemplateTable("CLIENT", "ID = ?", Set.of("ID"), Set.of("CLIENT_ID", "NAME", "SECRET")),
+            new TemplateTable("CLIENT_ATTRIBUTES", "CLIENT_ID = ?", Set.of(), Set.of()),
+            new TemplateTable("REDIRECT_URIS", "CLIENT_ID = ?", Set.of(), Set.of("VALUE")),
+            new TemplateTable("WEB_ORIGINS", "CLIENT_ID = ?", Set.of(), Set.of("VALUE")),
+            new TemplateTable("CLIENT_SCOPE_CLIENT", "CLIENT_ID = ?", Set.of(), Set.of()),
+            new TemplateTable("SCOPE_MAPPING", "CLIENT_ID = ?", Set.of(), Set.of()),
+            new TemplateTable("PROTOCOL_MAPPER", "CLIENT_ID = ?", Set.of("ID"), Set.of()),
+            new TemplateTable("PROTOCOL_MAPPER_CONFIG", "PROTOCOL_MAPPER_ID IN (SELECT ID FROM PROTOCOL_MAPPER WHERE CLIENT_ID = ?)", Set.of(), Set.of()),
+            new TemplateTable("KEYCLOAK_ROLE", "CLIENT = ?", Set.of("ID"), Set.of("NAME")),
+            // The username of the service account contains the client id in lower case
+            new TemplateTable("USER_ENTITY", "SERVICE_ACCOUNT_CLIENT_LINK = ?", Set.of("ID", "EMAIL_CONSTRAINT"), Set.of("USERNAME")),
+            new TemplateTable("USER_ROLE_MAPPING", "USER_ID IN (SELECT ID FROM USER_ENTITY WHERE SERVICE_ACCOUNT_CLIENT_LINK = ?)", Set.of(), Set.of()));
+
+    private final KeycloakSession session;
+    private final String templateId;
+    private final String templateClientId;
+    private final List<String> clientIds = new ArrayList<>();
+
+    public BulkClientWriter(KeycloakSession session, ClientModel template) {
+        this.session = session;
+        this.templateId = template.getId();
+        this.templateClientId = template.getClientId();
+    }
+
+    public void addClient(String clientId) {
+        clientIds.add(clientId);
+    }
+
+    public void flush() {
+        if (clientIds.isEmpty()) {
+            return;
+        }
+
+        // Write the template, so its rows can be read with JDBC
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        em.flush();
+
+        em.unwrap(Session.class).doWork(connection -> {
+            List<TemplateRows> templateRows = new ArrayList<>();
+            for (TemplateTable table : TABLES) {
+                templateRows.add(table.load(connection, templateId));
+            }
+
+            for (String clientId : clientIds) {
+                // Ids of the template rows mapped to the ids of the copied rows, so the foreign keys point to the copies
+                Map<Object, Object> ids = new HashMap<>();
+                for (TemplateRows rows : templateRows) {
+                    rows.copy(ids, templateClientId, clientId);
+                }
+            }
+
+            for (TemplateRows rows : templateRows) {
+                rows.inserter.flush(connection);
+            }
+        });
+        clientIds.clear();
+    }
+
+    private static class TemplateTable {
+
+        private final String table;
+        private final String where;
+        private final Set<String> generatedColumns;
+        private final Set<String> textColumns;
+
+        private TemplateTable(String table, String where, Set<String> generatedColumns, Set<String> textColumns) {
+            this.table = table;
+            this.where = where;
+            this.generatedColumns = generatedColumns;
+            this.textColumns = textColumns;
+        }
+
+        private TemplateRows load(Connection connection, String templateId) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + table + " WHERE " + where)) {
+                statement.setString(1, templateId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    ResultSetMetaData metaData = resultSet.getMetaData();
+                    String[] columns = new String[metaData.getColumnCount()];
+                    int[] types = new int[columns.length];
+                    boolean[] generated = new boolean[columns.length];
+                    boolean[] text = new boolean[columns.length];
+                    for (int i = 0; i < columns.length; i++) {
+                        columns[i] = metaData.getColumnName(i + 1).toUpperCase();
+                        types[i] = metaData.getColumnType(i + 1);
+                        generated[i] = generatedColumns.contains(columns[i]);
+                        text[i] = textColumns.contains(columns[i]);
+                    }
+
+                    List<Object[]> rows = new ArrayList<>();
+                    while (resultSet.next()) {
+                        Object[] row = new Object[columns.length];
+                        for (int i = 0; i < columns.length; i++) {
+                            Object value = resultSet.getObject(i + 1);
+                            row[i] = value instanceof Clob ? ((Clob) value).getSubString(1, (int) ((Clob) value).length()) : value;
+                        }
+                        rows.add(row);
+                    }
+                    return new TemplateRows(new JdbcBatchInserter(table, columns, types), generated, text, rows);
+                }
+            }
+        }
+    }
+
+    private static class TemplateRows {
+
+        private final JdbcBatchInserter inserter;
+        private final boolean[] generated;
+        private final boolean[] text;
+        private final List<Object[]> rows;
+
+        private TemplateRows(JdbcBatchInserter inserter, boolean[] generated, boolean[] text, List<Object[]> rows) {
+            this.inserter = inserter;
+            this.generated = generated;
+            this.text = text;
+            this.rows = rows;
+        }
+
+        private void copy(Map<Object, Object> ids, String templateClientId, String clientId) {
+            for (Object[] row : rows) {
+                Object[] copy = new Object[row.length];
+                for (int i = 0; i < row.length; i++) {
+                    Object value = row[i];
+                    if (generated[i]) {
+                        copy[i] = KeycloakModelUtils.generateId();
+                        ids.put(value, copy[i]);
+                    } else if (text[i] && value instanceof String) {
+                        copy[i] = ((String) value).replace(templateClientId, clientId).replace(templateClientId.toLowerCase(), clientId.toLowerCase());
+                    } else if (value != null && ids.containsKey(value)) {
+                        // Foreign key to a copied row of the template
+                        copy[i] = ids.get(value);
+                    } else {
+                        copy[i] = value;
+                    }
+                }
+                inserter.addRow(copy);
+            }
+        }
+    }
+}
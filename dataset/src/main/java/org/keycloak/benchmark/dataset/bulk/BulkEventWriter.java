@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.io.IOException;
+
+import org.hibernate.Session;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.events.Event;
+import org.keycloak.events.admin.AdminEvent;
+import org.keycloak.events.admin.AuthDetails;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.util.JsonSerialization;
+
+/**
+ * Writes the user events as rows of EVENT_ENTITY and the admin events as rows of ADMIN_EVENT_ENTITY directly with JDBC instead of
+ * going through the {@link org.keycloak.events.EventStoreProvider}.
+ * <p>
+ * The details are stored only in the DETAILS_JSON column, which has 2550 characters. Longer details are stored by the event store
+ * in the DETAILS_JSON_LONG_VALUE column.
+ */
+public class BulkEventWriter {
+
+    // Maximum size of the additional payload in the details, which leaves enough space in DETAILS_JSON for the other details
+    public static final int MAX_PAYLOAD_SIZE = 2048;
+
+    private final KeycloakSession session;
+
+    private final JdbcBatchInserter events = new JdbcBatchInserter("EVENT_ENTITY",
+            "ID", "EVENT_TIME", "TYPE", "REALM_ID", "CLIENT_ID", "USER_ID", "SESSION_ID", "IP_ADDRESS", "ERROR", "DETAILS_JSON");
+    private final JdbcBatchInserter adminEvents = new JdbcBatchInserter("ADMIN_EVENT_ENTITY",
+            "ID", "ADMIN_EVENT_TIME", "REALM_ID", "OPERATION_TYPE", "RESOURCE_TYPE", "AUTH_REALM_ID", "AUTH_CLIENT_ID", "AUTH_USER_ID",
+            "IP_ADDRESS", "RESOURCE_PATH", "REPRESENTATION", "ERROR");
+
+    public BulkEventWriter(KeycloakSession session) {
+        this.session = session;
+    }
+
+    public void addEvent(Event event) {
+        String details;
+        try {
+            details = event.getDetails() == null ? null : JsonSerialization.writeValueAsString(event.getDetails());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize the details of the event", e);
+        }
+        events.addRow(KeycloakModelUtils.generateId(), event.getTime(), event.getType().toString(), event.getRealmId(), event.getClientId(),
+                event.getUserId(), event.getSessionId(), event.getIpAddress(), event.getError(), details);
+    }
+
+    public void addAdminEvent(AdminEvent event) {
+        AuthDetails auth = event.getAuthDetails();
+        adminEvents.addRow(KeycloakModelUtils.generateId(), event.getTime(), event.getRealmId(), event.getOperationType().toString(),
+                event.getResourceTypeAsString(), auth.getRealmId(), auth.getClientId(), auth.getUserId(), auth.getIpAddress(),
+                event.getResourcePath(), event.getRepresentation(), event.getError());
+    }
+
+    public void flush() {
+        session.getProvider(JpaConnectionProvider.class).getEntityManager().unwrap(Session.class).doWork(connection -> {
+            events.flush(connection);
+            adminEvents.flush(connection);
+        });
+    }
+}
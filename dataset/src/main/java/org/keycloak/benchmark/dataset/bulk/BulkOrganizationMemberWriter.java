@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.keycloak.benchmark.dataset.EntityIndexes;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+
+/**
+ * Adds users as unmanaged members of organizations by writing the rows of USER_GROUP_MEMBERSHIP directly with JDBC instead of going
+ * through the {@link org.keycloak.organization.OrganizationProvider} API. The members of an organization are the members of its group
+ * with the membership type {@code UNMANAGED}, which is the same row as the one created by the provider.
+ * <p>
+ * The user cache and the realm cache, which keeps the organizations of the members, are not updated, so the caller is responsible for
+ * invalidating both after all members were added.
+ */
+public class BulkOrganizationMemberWriter {
+
+    private final KeycloakSession session;
+
+    // Ids of the groups of the organizations, which the users found by findUsers are already members of
+    private final Map<String, Set<String>> memberships = new HashMap<>();
+
+    private final JdbcBatchInserter groupMemberships = new JdbcBatchInserter("USER_GROUP_MEMBERSHIP", "GROUP_ID", "USER_ID", "MEMBERSHIP_TYPE");
+
+    public BulkOrganizationMemberWriter(KeycloakSession session) {
+        this.session = session;
+    }
+
+    /**
+     * @return ids of the groups of the organizations named as the prefix followed by an index, ordered by the index
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> findOrganizationGroupIds(KeycloakSession session, String realmId, String orgPrefix) {
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        List<Object[]> rows = em.createNativeQuery("SELECT NAME, GROUP_ID FROM ORG WHERE REALM_ID = :realmId AND NAME LIKE :prefix")
+                .setParameter("realmId", realmId)
+                .setParameter("prefix", orgPrefix + "%")
+                .getResultList();
+
+        TreeMap<Integer, String> groupIds = new TreeMap<>();
+        for (Object[] row : rows) {
+            int index = EntityIndexes.parseIndex((String) row[0], orgPrefix);
+            if (index >= 0) {
+                groupIds.put(index, (String) row[1]);
+            }
+        }
+        return new ArrayList<>(groupIds.values());
+    }
+
+    /**
+     * Find the users with the given usernames together with the organizations they are already members of.
+     *
+     * @return ids of the users of the realm by their usernames. The usernames, which are not found, are missing in the result
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> findUsers(String realmId, Collection<String> usernames) {
+        Map<String, String> userIds = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return userIds;
+        }
+
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+        List<Object[]> rows = em.createNativeQuery("SELECT u.USERNAME, u.ID, m.GROUP_ID FROM USER_ENTITY u "
+                        + "LEFT JOIN USER_GROUP_MEMBERSHIP m ON m.USER_ID = u.ID AND m.GROUP_ID IN (SELECT GROUP_ID FROM ORG WHERE REALM_ID = :realmId) "
+                        + "WHERE u.REALM_ID = :realmId AND u.USERNAME IN (:usernames)")
+                .setParameter("realmId", realmId)
+                .setParameter("usernames", usernames)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            String userId = (String) row[1];
+            userIds.put((String) row[0], userId);
+            Set<String> groupIds = memberships.computeIfAbsent(userId, id -> new HashSet<>());
+            if (row[2] != null) {
+                groupIds.add((String) row[2]);
+            }
+        }
+        return userIds;
+    }
+
+    /**
+     * Add the user found by {@link #findUsers} as a member of the organization with the given group.
+     *
+     * @return false if the user is already a member of the organization
+     */
+    public boolean addMember(String orgGroupId, String userId) {
+        if (!memberships.computeIfAbsent(userId, id -> new HashSet<>()).add(orgGroupId)) {
+            return false;
+        }
+        groupMemberships.addRow(orgGroupId, userId, "UNMANAGED");
+        return true;
+    }
+
+    public void flush() {
+        session.getProvider(JpaConnectionProvider.class).getEntityManager().unwrap(Session.class).doWork(groupMemberships::flush);
+    }
+}
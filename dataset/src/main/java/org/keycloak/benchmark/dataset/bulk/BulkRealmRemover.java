@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import org.jboss.logging.Logger;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.utils.KeycloakModelUtils;
+
+/**
+ * Deletes the users, offline sessions and events of a realm with set-based SQL statements before the realm itself is removed.
+ * <p>
+ * The rows are deleted in batches of the given size, each of them in a separate transaction, so the removal of the realm with
+ * millions of users does not run into the transaction timeout. The caches are not updated, which is fine as they are cleared
+ * once the realm is removed.
+ */
+public class BulkRealmRemover {
+
+    private static final Logger logger = Logger.getLogger(BulkRealmRemover.class);
+
+    private final KeycloakSessionFactory sessionFactory;
+    private final String realmId;
+    private final int batchSize;
+
+    public BulkRealmRemover(KeycloakSessionFactory sessionFactory, String realmId, int batchSize) {
+        this.sessionFactory = sessionFactory;
+        this.realmId = realmId;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return count of the removed users
+     */
+    public long removeUsers() {
+        return deleteInBatches("SELECT ID FROM USER_ENTITY WHERE REALM_ID = :realmId",
+                "DELETE FROM USER_CONSENT_CLIENT_SCOPE WHERE USER_CONSENT_ID IN (SELECT ID FROM USER_CONSENT WHERE USER_ID IN (:ids))",
+                "DELETE FROM USER_CONSENT WHERE USER_ID IN (:ids)",
+                "DELETE FROM CREDENTIAL WHERE USER_ID IN (:ids)",
+                "DELETE FROM USER_ATTRIBUTE WHERE USER_ID IN (:ids)",
+                "DELETE FROM USER_ROLE_MAPPING WHERE USER_ID IN (:ids)",
+                "DELETE FROM USER_GROUP_MEMBERSHIP WHERE USER_ID IN (:ids)",
+                "DELETE FROM USER_REQUIRED_ACTION WHERE USER_ID IN (:ids)",
+                "DELETE FROM FEDERATED_IDENTITY WHERE USER_ID IN (:ids)",
+                "DELETE FROM USER_ENTITY WHERE ID IN (:ids)");
+    }
+
+    /**
+     * @return count of the removed user sessions, which includes both the online and offline sessions stored in the database
+     */
+    public long removeSessions() {
+        return deleteInBatches("SELECT DISTINCT USER_SESSION_ID FROM OFFLINE_USER_SESSION WHERE REALM_ID = :realmId",
+                "DELETE FROM OFFLINE_CLIENT_SESSION WHERE USER_SESSION_ID IN (:ids)",
+                "DELETE FROM OFFLINE_USER_SESSION WHERE USER_SESSION_ID IN (:ids)");
+    }
+
+    /**
+     * @return count of the removed user events and admin events
+     */
+    public long removeEvents() {
+        return deleteInBatches("SELECT ID FROM EVENT_ENTITY WHERE REALM_ID = :realmId",
+                "DELETE FROM EVENT_ENTITY WHERE ID IN (:ids)")
+                + deleteInBatches("SELECT ID FROM ADMIN_EVENT_ENTITY WHERE REALM_ID = :realmId",
+                "DELETE FROM ADMIN_EVENT_ENTITY WHERE ID IN (:ids)");
+    }
+
+    @SuppressWarnings("unchecked")
+    private long deleteInBatches(String selectIds, String... deletes) {
+        long total = 0;
+        while (true) {
+            int deleted = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> {
+                EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+                List<String> ids = em.createNativeQuery(selectIds)
+                        .setParameter("realmId", realmId)
+                        .setMaxResults(batchSize)
+                        .getResultList();
+                for (String delete : deletes) {
+                    if (!ids.isEmpty()) {
+                        em.createNativeQuery(delete).setParameter("ids", ids).executeUpdate();
+                    }
+                }
+                return ids.size();
+            });
+            if (deleted == 0) {
+                return total;
+            }
+            total += deleted;
+            logger.tracef("Deleted %d rows of the realm %s with the query '%s'", total, realmId, selectIds);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.keycloak.benchmark.dataset.RealmContext;
+import org.keycloak.benchmark.dataset.RealmSnapshot;
+import org.keycloak.benchmark.dataset.UserAttributes;
+import org.keycloak.benchmark.dataset.UserDistribution;
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.common.util.Time;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.credential.hash.PasswordHashProvider;
+import org.keycloak.models.GroupModel;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.PasswordPolicy;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.RequiredActionProviderModel;
+import org.keycloak.models.credential.PasswordCredentialModel;
+import org.keycloak.models.utils.KeycloakModelUtils;
+
+/**
+ * Creates users by writing the rows of USER_ENTITY, CREDENTIAL, USER_ROLE_MAPPING, USER_GROUP_MEMBERSHIP, USER_REQUIRED_ACTION,
+ * USER_ATTRIBUTE and FEDERATED_IDENTITY directly with JDBC instead of going through the {@link org.keycloak.models.UserModel} API.
+ * <p>
+ * The created rows are the same as the ones created by {@code DatasetResourceProvider.createUsers}, including the default
+ * role, default groups and default required actions of the realm. The user cache is not updated, so the caller is responsible
+ * for invalidating it after all users were created.
+ */
+public class BulkUserWriter {
+
+    // Same as the priority of the first credential of the user created by JpaUserCredentialStore
+    private static final int CREDENTIAL_PRIORITY = 10;
+
+    private final KeycloakSession session;
+    private final RealmContext context;
+    private final List<PasswordCredentialModel> credentials;
+
+    private final JdbcBatchInserter users = new JdbcBatchInserter("USER_ENTITY",
+            "ID", "USERNAME", "EMAIL", "EMAIL_CONSTRAINT", "EMAIL_VERIFIED", "ENABLED", "FIRST_NAME", "LAST_NAME", "REALM_ID", "CREATED_TIMESTAMP", "NOT_BEFORE");
+    private final JdbcBatchInserter userCredentials = new JdbcBatchInserter("CREDENTIAL",
+            "ID", "TYPE", "USER_ID", "CREATED_DATE", "SECRET_DATA", "CREDENTIAL_DATA", "PRIORITY");
+    private final JdbcBatchInserter roleMappings = new JdbcBatchInserter("USER_ROLE_MAPPING", "ROLE_ID", "USER_ID");
+    private final JdbcBatchInserter groupMemberships = new JdbcBatchInserter("USER_GROUP_MEMBERSHIP", "GROUP_ID", "USER_ID", "MEMBERSHIP_TYPE");
+    private final JdbcBatchInserter requiredActions = new JdbcBatchInserter("USER_REQUIRED_ACTION", "USER_ID", "REQUIRED_ACTION");
+    private final JdbcBatchInserter attributes = new JdbcBatchInserter("USER_ATTRIBUTE", "ID", "NAME", "VALUE", "USER_ID");
+    private final JdbcBatchInserter federatedIdentities = new JdbcBatchInserter("FEDERATED_IDENTITY",
+            "IDENTITY_PROVIDER", "REALM_ID", "FEDERATED_USER_ID", "FEDERATED_USERNAME", "USER_ID");
+
+    public BulkUserWriter(KeycloakSession session, RealmContext context, List<PasswordCredentialModel> credentials) {
+        this.session = session;
+        this.context = context;
+        this.credentials = credentials;
+    }
+
+    public void createUsers(int startIndex, int endIndex) {
+        // Refresh the realm
+        RealmModel realm = session.realms().getRealm(context.getRealm().getId());
+        DatasetConfig config = context.getConfig();
+
+        String defaultRoleId = realm.getDefaultRole().getId();
+        List<String> defaultGroupIds = realm.getDefaultGroupsStream().map(GroupModel::getId).collect(Collectors.toList());
+        List<String> defaultRequiredActions = realm.getRequiredActionProvidersStream()
+                .filter(RequiredActionProviderModel::isEnabled)
+                .filter(RequiredActionProviderModel::isDefaultAction)
+                .map(RequiredActionProviderModel::getAlias)
+                .collect(Collectors.toList());
+
+        PasswordPolicy policy = realm.getPasswordPolicy();
+        PasswordHashProvider hashProvider = credentials.isEmpty() ? getHashProvider(policy) : null;
+
+        long now = Time.currentTimeMillis();
+        RealmSnapshot snapshot = context.getSnapshot();
+        UserDistribution distribution = context.getUserDistribution();
+
+        for (int i = startIndex; i < endIndex; i++) {
+            String userId = KeycloakModelUtils.generateId();
+            String username = (config.getUserPrefix() + i).toLowerCase();
+            String email = (username + String.format("@%s.com", realm.getName())).toLowerCase();
+            String emailConstraint = realm.isDuplicateEmailsAllowed() ? KeycloakModelUtils.generateId() : email;
+
+            users.addRow(userId, username, email, emailConstraint, false, true, username + "-first", username + "-last", realm.getId(), now, 0);
+
+            PasswordCredentialModel password;
+            if (credentials.isEmpty()) {
+                password = hashProvider.encodedCredential(String.format("%s-password", username), policy.getHashIterations());
+            } else {
+                password = credentials.get(i % config.getUniqueCredentialCount());
+            }
+            Long createdDate = password.getCreatedDate() != null ? password.getCreatedDate() : now;
+            userCredentials.addRow(KeycloakModelUtils.generateId(), password.getType(), userId, createdDate,
+                    password.getSecretData(), password.getCredentialData(), CREDENTIAL_PRIORITY);
+
+            // Same assignment of the roles and groups as when creating users through the model API
+            Set<String> roleIds = new LinkedHashSet<>();
+            roleIds.add(defaultRoleId);
+            for (int roleIndex : distribution.select(i, config.getRealmRolesPerUser(), snapshot.getRealmRoleIds().size(), UserDistribution.REALM_ROLES)) {
+                roleIds.add(snapshot.getRealmRoleIds().get(roleIndex));
+            }
+            for (int roleIndex : distribution.select(i, config.getClientRolesPerUser(), snapshot.getClientRoleIds().size(), UserDistribution.CLIENT_ROLES)) {
+                roleIds.add(snapshot.getClientRoleIds().get(roleIndex));
+            }
+            roleIds.forEach(roleId -> roleMappings.addRow(roleId, userId));
+
+            Set<String> groupIds = new LinkedHashSet<>(defaultGroupIds);
+            for (int groupIndex : distribution.select(i, config.getGroupsPerUser(), snapshot.getGroupIds().size(), UserDistribution.GROUPS)) {
+                groupIds.add(snapshot.getGroupIds().get(groupIndex));
+            }
+            groupIds.forEach(groupId -> groupMemberships.addRow(groupId, userId, "UNMANAGED"));
+
+            defaultRequiredActions.forEach(action -> requiredActions.addRow(userId, action));
+
+            // The attribute values are at most 255 characters long, so they fit into the VALUE column
+            for (int j = 0; j < config.getAttributesPerUser(); j++) {
+                attributes.addRow(KeycloakModelUtils.generateId(), UserAttributes.attributeName(j),
+                        UserAttributes.attributeValue(username, j, config.getAttributeValueSize()), userId);
+            }
+
+            for (int j = 0; j < config.getFederatedIdentitiesPerUser(); j++) {
+                federatedIdentities.addRow(UserAttributes.identityProviderAlias(j), realm.getId(), UserAttributes.federatedUserId(username, j), username, userId);
+            }
+
+            context.incUserCount();
+        }
+
+        flush();
+    }
+
+    private void flush() {
+        session.getProvider(JpaConnectionProvider.class).getEntityManager().unwrap(Session.class).doWork(connection -> {
+            // Users first because of the foreign keys of the other tables
+            users.flush(connection);
+            userCredentials.flush(connection);
+            roleMappings.flush(connection);
+            groupMemberships.flush(connection);
+            requiredActions.flush(connection);
+            attributes.flush(connection);
+            federatedIdentities.flush(connection);
+        });
+    }
+
+    private PasswordHashProvider getHashProvider(PasswordPolicy policy) {
+        return policy.getHashAlgorithm() != null ?
+                session.getProvider(PasswordHashProvider.class, policy.getHashAlgorithm()) :
+                session.getProvider(PasswordHashProvider.class);
+    }
+}
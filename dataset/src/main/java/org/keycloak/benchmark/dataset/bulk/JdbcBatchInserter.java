@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.keycloak.connections.jpa.util.JpaUtils;
+import org.postgresql.PGConnection;
+
+/**
+ * Collects rows for a single table and writes them with as few round-trips as possible. On PostgreSQL the rows are
+ * streamed with {@code COPY ... FROM STDIN}, on other databases they are sent as JDBC batches of {@link #JDBC_BATCH_SIZE} rows.
+ * <p>
+ * Null values are bound as {@link Types#VARCHAR} unless the SQL types of the columns are given, so without the types they should
+ * only be used for text columns.
+ */
+public class JdbcBatchInserter {
+
+    static final int JDBC_BATCH_SIZE = 1000;
+
+    private final String table;
+    private final String[] columns;
+    private final int[] types;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    public JdbcBatchInserter(String table, String... columns) {
+        this(table, columns, null);
+    }
+
+    /**
+     * @param types SQL types of the columns from {@link Types}, which are used for binding the null values
+     */
+    public JdbcBatchInserter(String table, String[] columns, int[] types) {
+        this.table = table;
+        this.columns = columns;
+        this.types = types;
+    }
+
+    public void addRow(Object... values) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values for table " + table + " but got " + values.length);
+        }
+        rows.add(values);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Write all collected rows using the given connection, which is expected to be the connection of the current transaction.
+     */
+    public void flush(Connection connection) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        String dbKind = JpaUtils.getDatabaseType(connection.getMetaData().getDatabaseProductName());
+        if (dbKind.equals("postgresql") && connection.isWrapperFor(PGConnection.class)) {
+            copy(connection);
+        } else {
+            insert(connection);
+        }
+        rows.clear();
+    }
+
+    private void copy(Connection connection) throws SQLException {
+        StringBuilder csv = new StringBuilder();
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                Object value = row[i];
+                if (value instanceof String) {
+                    csv.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    // an unquoted empty value is NULL in the CSV format
+                    csv.append(value);
+                }
+            }
+            csv.append('\n');
+        }
+
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("Failed to copy rows into table " + table, e);
+        }
+    }
+
+    private void insert(Connection connection) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int batched = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        statement.setNull(i + 1, types != null ? types[i] : Types.VARCHAR);
+                    } else {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                }
+                statement.addBatch();
+                if (++batched % JDBC_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            if (batched % JDBC_BATCH_SIZE != 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.bulk;
+
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import org.keycloak.benchmark.dataset.EntityIndexes;
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.UserModel;
+import org.keycloak.storage.adapter.InMemoryUserAdapter;
+
+/**
+ * Ids of the users and clients of a realm, which are used by the created sessions and events. They are loaded once per realm with a single
+ * query for each table, so creating a session does not need to look up the user and the client by their names.
+ * <p>
+ * The users are returned as {@link InMemoryUserAdapter}, which only have the id and the username. It is enough for creating the user
+ * session, which only stores the id of the user, but they should not be used for anything else.
+ */
+public class SessionPool {
+
+    private final String[] userIds;
+    private final String[] usernames;
+    private final String[] clientUuids;
+    private final String[] clientIds;
+
+    private SessionPool(String[] userIds, String[] usernames, String[] clientUuids, String[] clientIds) {
+        this.userIds = userIds;
+        this.usernames = usernames;
+        this.clientUuids = clientUuids;
+        this.clientIds = clientIds;
+    }
+
+    /**
+     * Load at most "users-per-realm" users with the "user-prefix" and at most "clients-per-realm" clients with the "client-prefix". When
+     * there are more of them, the first ones ordered by their names are loaded, which is the order of the unique index of the names.
+     */
+    @SuppressWarnings("unchecked")
+    public static SessionPool load(KeycloakSession session, RealmModel realm, DatasetConfig config) {
+        EntityManager em = session.getProvider(JpaConnectionProvider.class).getEntityManager();
+
+        List<Object[]> users = em.createNativeQuery("SELECT ID, USERNAME FROM USER_ENTITY WHERE REALM_ID = :realmId AND USERNAME LIKE :prefix"
+                        + EntityIndexes.LIKE_ESCAPE + " AND SERVICE_ACCOUNT_CLIENT_LINK IS NULL ORDER BY USERNAME")
+                .setParameter("realmId", realm.getId())
+                .setParameter("prefix", EntityIndexes.likePrefix(config.getUserPrefix().toLowerCase()))
+                .setMaxResults(config.getUsersPerRealm())
+                .getResultList();
+        if (users.isEmpty()) {
+            throw new DatasetException("Not found any user with the prefix '" + config.getUserPrefix() + "' in the realm '" + realm.getName() + "'");
+        }
+
+        List<Object[]> clients = em.createNativeQuery("SELECT ID, CLIENT_ID FROM CLIENT WHERE REALM_ID = :realmId AND CLIENT_ID LIKE :prefix"
+                        + EntityIndexes.LIKE_ESCAPE + " ORDER BY CLIENT_ID")
+                .setParameter("realmId", realm.getId())
+                .setParameter("prefix", EntityIndexes.likePrefix(config.getClientPrefix()))
+                .setMaxResults(config.getClientsPerRealm())
+                .getResultList();
+        if (clients.isEmpty()) {
+            throw new DatasetException("Not found any client with the prefix '" + config.getClientPrefix() + "' in the realm '" + realm.getName() + "'");
+        }
+
+        String[] userIds = new String[users.size()];
+        String[] usernames = new String[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            userIds[i] = (String) users.get(i)[0];
+            usernames[i] = (String) users.get(i)[1];
+        }
+        String[] clientUuids = new String[clients.size()];
+        String[] clientIds = new String[clients.size()];
+        for (int i = 0; i < clients.size(); i++) {
+            clientUuids[i] = (String) clients.get(i)[0];
+            clientIds[i] = (String) clients.get(i)[1];
+        }
+        return new SessionPool(userIds, usernames, clientUuids, clientIds);
+    }
+
+    public int getUserCount() {
+        return userIds.length;
+    }
+
+    public int getClientCount() {
+        return clientUuids.length;
+    }
+
+    public UserModel getUser(KeycloakSession session, RealmModel realm, int index) {
+        InMemoryUserAdapter user = new InMemoryUserAdapter(session, realm, userIds[index]);
+        user.setUsername(usernames[index]);
+        return user;
+    }
+
+    public String getUserId(int index) {
+        return userIds[index];
+    }
+
+    public String getUsername(int index) {
+        return usernames[index];
+    }
+
+    /**
+     * @return internal id of the client
+     */
+    public String getClientUuid(int index) {
+        return clientUuids[index];
+    }
+
+    public String getClientId(int index) {
+        return clientIds[index];
+    }
+}
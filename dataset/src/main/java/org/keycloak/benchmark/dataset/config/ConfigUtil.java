@@ -20,7 +20,8 @@ package org.keycloak.benchmark.dataset.config;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
-import java.util.function.Function;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.jboss.logging.Logger;
 import org.keycloak.http.HttpRequest;
@@ -41,6 +42,17 @@ public class ConfigUtil {
      * @return
      */
     public static DatasetConfig createConfigFromQueryParams(HttpRequest httpRequest, DatasetOperation operation) {
+        return createConfigFromParams(getQueryParams(httpRequest), operation);
+    }
+
+    /**
+     * Create the config class based on the given parameters and the defaults. The parameters have the same names as the HTTP query parameters.
+     *
+     * @param params
+     * @param operation
+     * @return
+     */
+    public static DatasetConfig createConfigFromParams(Map<String, String> params, DatasetOperation operation) {
         DatasetConfig config = new DatasetConfig();
 
         StringBuilder toString = new StringBuilder("DatasetConfig [ ");
@@ -51,7 +63,7 @@ public class ConfigUtil {
                 boolean applicable = Arrays.asList(qpf.operations()).contains(operation);
                 if (!applicable) continue;
 
-                String val = httpRequest.getUri().getQueryParameters().getFirst(qpf.paramName());
+                String val = params.get(qpf.paramName());
                 if (val == null) {
                     if (qpf.required()) {
                         throw new DatasetException("Required parameter '" + qpf.paramName() + "' missing");
@@ -72,7 +84,7 @@ public class ConfigUtil {
                 boolean applicable = Arrays.asList(qpfInt.operations()).contains(operation);
                 if (!applicable) continue;
 
-                String valStr = httpRequest.getUri().getQueryParameters().getFirst(qpfInt.paramName());
+                String valStr = params.get(qpfInt.paramName());
                 Integer val;
                 if (valStr == null) {
                     if (qpfInt.required()) {
@@ -97,43 +109,19 @@ public class ConfigUtil {
         return config;
     }
 
-
     /**
-     * Find the first available index where the new entities can be created.
+     * Obtain the first value of every HTTP query parameter.
      *
-     * For example if there are already realms "realm0, realm1, ... realm157", then this method will return 158, which means
-     * that we can start creating realms from "realm158" and bigger.
-     *
-     * @param finder
+     * @param httpRequest
      * @return
      */
-    public static int findFreeEntityIndex(Function<Integer, Boolean> finder) {
-        int lastFound = -1;
-        int lastFailed = -1;
-        int current = 100;
-
-        // Try to find very first entity
-        if (finder.apply(0)) {
-            lastFound = 0;
-        } else {
-            return 0;
-        }
-
-        while (lastFailed == -1 || (lastFailed - lastFound > 1)) {
-            //logger.info("Current: " + current);
-            boolean found = finder.apply(current);
-            if (found) {
-                lastFound = current;
-            } else {
-                lastFailed = current;
-            }
-            if (lastFailed == -1) {
-                current = current * 2;
-            } else {
-                current = (lastFound + lastFailed) / 2;
+    public static Map<String, String> getQueryParams(HttpRequest httpRequest) {
+        Map<String, String> params = new HashMap<>();
+        httpRequest.getUri().getQueryParameters().forEach((name, values) -> {
+            if (!values.isEmpty()) {
+                params.put(name, values.get(0));
             }
-        }
-
-        return lastFailed;
+        });
+        return params;
     }
 }
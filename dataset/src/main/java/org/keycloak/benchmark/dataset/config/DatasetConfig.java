@@ -18,20 +18,25 @@
 
 package org.keycloak.benchmark.dataset.config;
 
+import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_ADMIN_EVENTS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_AUTHZ_CLIENT;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_CLIENTS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_EVENTS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_GROUPS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_OFFLINE_SESSIONS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_ORGS;
+import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_ORG_MEMBERSHIPS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_REALMS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_SESSIONS;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_USERS;
+import static org.keycloak.benchmark.dataset.config.DatasetOperation.EVALUATE_AUTHZ_CLIENT;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.LAST_CLIENT;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.LAST_REALM;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.LAST_USER;
 import static org.keycloak.benchmark.dataset.config.DatasetOperation.REMOVE_REALMS;
 
+import org.eclipse.microprofile.config.ConfigProvider;
+
 /**
  * Configuration parameters, which can be send to the particular datasource operation. They can be send for example through HTTP request
  * query parameters
@@ -40,9 +45,16 @@ import static org.keycloak.benchmark.dataset.config.DatasetOperation.REMOVE_REAL
  */
 public class DatasetConfig {
 
+    // Default of the "db-pool-max-size" option of Keycloak
+    private static final int DEFAULT_DB_POOL_MAX_SIZE = 100;
+
+    // DB connections left to the progress publisher, the checkpoints, the transaction of the task itself and the other requests
+    // when the count of concurrent transactions is derived from the size of the DB connection pool
+    static final int DB_POOL_HEADROOM = 4;
+
     // Used when creating many realms as a prefix. For example when prefix us "foo", we will create realms like "foo0", "foo1" etc.
     // For many events, it will need the realm prefix as events are created randomly in all the already created realms
-    @QueryParamFill(paramName = "realm-prefix", defaultValue = "realm-", operations = { CREATE_REALMS, CREATE_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS,
+    @QueryParamFill(paramName = "realm-prefix", defaultValue = "realm-", operations = { CREATE_REALMS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS,
             REMOVE_REALMS, LAST_REALM })
     private String realmPrefix;
 
@@ -58,19 +70,27 @@ public class DatasetConfig {
     @QueryParamIntFill(paramName = "last-to-remove", defaultValue = -1, operations = { REMOVE_REALMS })
     private Integer lastToRemove;
 
+    // If true, the users, offline sessions and events of the realm are deleted with SQL statements in separate transactions before the realm is removed
+    @QueryParamFill(paramName = "fast-delete", defaultValue = "false", operations = { REMOVE_REALMS })
+    private String fastDelete;
+
+    // Count of the users, sessions or events deleted in each transaction of the fast delete. It is used and validated only with "fast-delete=true"
+    @QueryParamIntFill(paramName = "delete-batch-size", defaultValue = 1000, operations = { REMOVE_REALMS })
+    private Integer deleteBatchSize;
+
     // Realm-name is required when creating many clients or users. The realm where clients/users will be created must already exists
-    @QueryParamFill(paramName = "realm-name",  required = true, operations = { CREATE_CLIENTS, CREATE_USERS, CREATE_GROUPS, LAST_CLIENT, LAST_USER, CREATE_AUTHZ_CLIENT })
+    @QueryParamFill(paramName = "realm-name",  required = true, operations = { CREATE_CLIENTS, CREATE_USERS, CREATE_GROUPS, LAST_CLIENT, LAST_USER, CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT })
     private String realmName;
 
     // NOTE: Start index is not available as parameter as it will be "auto-detected" based on already created realms (clients, users)
     private Integer start;
 
     // Count of entities to be created. Entity is realm, client or user based on the operation
-    @QueryParamIntFill(paramName = "count", required = true, operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_EVENTS, CREATE_GROUPS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, CREATE_AUTHZ_CLIENT, CREATE_ORGS })
+    @QueryParamIntFill(paramName = "count", required = true, operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_GROUPS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT, CREATE_ORGS })
     private Integer count;
 
     // Prefix for realm roles to create in every realm (in case of CREATE_REALMS) or to assign to users (in case of CREATE_USERS)
-    @QueryParamFill(paramName = "realm-role-prefix", defaultValue = "role-", operations = { CREATE_REALMS, CREATE_USERS })
+    @QueryParamFill(paramName = "realm-role-prefix", defaultValue = "role-", operations = { CREATE_REALMS, CREATE_USERS, CREATE_AUTHZ_CLIENT })
     private String realmRolePrefix;
 
     // Count of realm roles to be created in every created realm
@@ -78,10 +98,10 @@ public class DatasetConfig {
     private Integer realmRolesPerRealm;
 
     // Prefix for newly created clients (in case of CREATE_REALMS and CREATE_CLIENTS). In case of CREATE_USERS it is used to find the clients with clientRoles, which will be assigned to users
-    @QueryParamFill(paramName = "client-prefix", defaultValue = "client-", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_OFFLINE_SESSIONS, LAST_CLIENT })
+    @QueryParamFill(paramName = "client-prefix", defaultValue = "client-", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, LAST_CLIENT, CREATE_AUTHZ_CLIENT })
     private String clientPrefix;
 
-    @QueryParamIntFill(paramName = "clients-per-realm", defaultValue = 30, operations = { CREATE_REALMS, CREATE_SESSIONS })
+    @QueryParamIntFill(paramName = "clients-per-realm", defaultValue = 30, operations = { CREATE_REALMS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS })
     private Integer clientsPerRealm;
 
     // Count of clients created in every DB transaction
@@ -93,7 +113,7 @@ public class DatasetConfig {
     private Integer entriesPerTransaction;
 
     // Prefix of clientRoles to be created (in case of CREATE_REALMS and CREATE_CLIENTS). In case of CREATE_USERS it is used to find the clientRoles, which will be assigned to users
-    @QueryParamFill(paramName = "client-role-prefix", defaultValue = "client-role-", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS })
+    @QueryParamFill(paramName = "client-role-prefix", defaultValue = "client-role-", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_AUTHZ_CLIENT })
     private String clientRolePrefix;
 
     // Check if created clients should be service account clients
@@ -109,7 +129,7 @@ public class DatasetConfig {
     private Integer clientRolesPerClient;
 
     // Prefix of groups to be created (in case of CREATE_REALMS operation) or assigned to the users (In case of CREATE_USERS and CREATE_REALMS operations)
-    @QueryParamFill(paramName = "group-prefix", defaultValue = "group-", operations = { CREATE_REALMS, CREATE_USERS, CREATE_GROUPS })
+    @QueryParamFill(paramName = "group-prefix", defaultValue = "group-", operations = { CREATE_REALMS, CREATE_USERS, CREATE_GROUPS, CREATE_AUTHZ_CLIENT })
     private String groupPrefix;
 
     // Count of groups to be created in every created realm
@@ -124,7 +144,7 @@ public class DatasetConfig {
     @QueryParamFill(paramName = "groups-with-hierarchy", defaultValue = "false", operations = { CREATE_REALMS, CREATE_GROUPS })
     private String groupsWithHierarchy;
 
-   // Depth of the group hierarchy tree. Active if groups-with-hierarchy = true
+   // Depth of the group hierarchy tree. Every top-level group has "depth + 1" levels of subgroups. Active if groups-with-hierarchy = true
     @QueryParamIntFill(paramName = "groups-hierarchy-depth", defaultValue = 3, operations = { CREATE_REALMS, CREATE_GROUPS })
     private Integer groupsHierarchyDepth;
 
@@ -133,11 +153,11 @@ public class DatasetConfig {
     private Integer countGroupsAtEachLevel;
 
     // Prefix for newly created users
-    @QueryParamFill(paramName = "user-prefix", defaultValue = "user-", operations = { CREATE_REALMS, CREATE_USERS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, LAST_USER, CREATE_AUTHZ_CLIENT })
+    @QueryParamFill(paramName = "user-prefix", defaultValue = "user-", operations = { CREATE_REALMS, CREATE_USERS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, LAST_USER, CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT, CREATE_ORG_MEMBERSHIPS })
     private String userPrefix;
 
     // Count of users to be created in every realm (In case of CREATE_REALMS)
-    @QueryParamIntFill(paramName = "users-per-realm", defaultValue = 200, operations = { CREATE_REALMS, CREATE_SESSIONS, CREATE_AUTHZ_CLIENT })
+    @QueryParamIntFill(paramName = "users-per-realm", defaultValue = 200, operations = { CREATE_REALMS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT, CREATE_ORG_MEMBERSHIPS })
     private Integer usersPerRealm;
 
     // Count of groups assigned to every user
@@ -152,6 +172,42 @@ public class DatasetConfig {
     @QueryParamIntFill(paramName = "client-roles-per-user", defaultValue = 4, operations = { CREATE_REALMS, CREATE_USERS })
     private Integer clientRolesPerUser;
 
+    // Distribution of the realm roles and client roles assigned to the users. With "uniform" the roles are assigned in round-robin, so every role has the same count of users.
+    // With "zipf" the first roles are assigned to most of the users
+    @QueryParamFill(paramName = "role-distribution", defaultValue = "uniform", operations = { CREATE_REALMS, CREATE_USERS })
+    private String roleDistribution;
+
+    // Distribution of the groups assigned to the users. Same values as for "role-distribution"
+    @QueryParamFill(paramName = "group-distribution", defaultValue = "uniform", operations = { CREATE_REALMS, CREATE_USERS })
+    private String groupDistribution;
+
+    // With "fixed", every user has exactly "realm-roles-per-user", "client-roles-per-user" and "groups-per-user" of them.
+    // With "power-law" these are the average counts, but most users have less of them and a few users have many more
+    // In case of CREATE_SESSIONS it is the distribution of "clients-per-session"
+    // In case of CREATE_ORG_MEMBERSHIPS it is the distribution of "orgs-per-user"
+    @QueryParamFill(paramName = "count-distribution", defaultValue = "fixed", operations = { CREATE_REALMS, CREATE_USERS, CREATE_SESSIONS, CREATE_ORG_MEMBERSHIPS })
+    private String countDistribution;
+
+    // Exponent of the "zipf" and "power-law" distributions. Higher value means more skewed distribution
+    @QueryParamFill(paramName = "distribution-exponent", defaultValue = "1.0", operations = { CREATE_REALMS, CREATE_USERS, CREATE_SESSIONS, CREATE_ORG_MEMBERSHIPS })
+    private String distributionExponent;
+
+    // Seed of the random choices of the distributions. The same seed creates the same dataset
+    @QueryParamIntFill(paramName = "distribution-seed", defaultValue = 0, operations = { CREATE_REALMS, CREATE_USERS, CREATE_ORG_MEMBERSHIPS })
+    private Integer distributionSeed;
+
+    // Count of attributes of every user. The attributes are named "attribute-0", "attribute-1" etc.
+    @QueryParamIntFill(paramName = "attributes-per-user", defaultValue = 0, operations = { CREATE_REALMS, CREATE_USERS })
+    private Integer attributesPerUser;
+
+    // Length of the value of every user attribute. With "bulk=true" it can be at most 255
+    @QueryParamIntFill(paramName = "attribute-value-size", defaultValue = 32, operations = { CREATE_REALMS, CREATE_USERS })
+    private Integer attributeValueSize;
+
+    // Count of the federated identities of every user. The identity providers "user-idp-0", "user-idp-1" etc. are created in the realm if they do not exist
+    @QueryParamIntFill(paramName = "federated-identities-per-user", defaultValue = 0, operations = { CREATE_REALMS, CREATE_USERS })
+    private Integer federatedIdentitiesPerUser;
+
     // Password policy with the password hash algorithm.
     @QueryParamFill(paramName = "password-hash-algorithm", operations = { CREATE_REALMS })
     private String passwordHashAlgorithm;
@@ -166,30 +222,48 @@ public class DatasetConfig {
 
     // Transaction timeout used for transactions for creating objects
     @QueryParamIntFill(paramName = "transaction-timeout", defaultValue = 300, operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS,
-            CREATE_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_GROUPS })
+            CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_ORG_MEMBERSHIPS, CREATE_GROUPS })
     private Integer transactionTimeoutInSeconds;
 
     // Count of users created in every transaction
-    @QueryParamIntFill(paramName = "users-per-transaction", defaultValue = 10, operations = { CREATE_REALMS, CREATE_USERS })
+    @QueryParamIntFill(paramName = "users-per-transaction", defaultValue = 10, operations = { CREATE_REALMS, CREATE_USERS, CREATE_ORG_MEMBERSHIPS })
     private Integer usersPerTransaction;
 
     // Count of worker threads concurrently creating entities
     @QueryParamIntFill(paramName = "threads-count", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_GROUPS,
-            CREATE_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS })
+            CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_ORG_MEMBERSHIPS })
     private Integer threadsCount;
 
+    // Adapt the count of concurrently running transactions to the latency and failures of the transactions. The "threads-count" is used as the maximum.
+    // Adding new tasks blocks when too many of them are waiting, so the DB is not overloaded
+    @QueryParamFill(paramName = "adaptive-concurrency", defaultValue = "false", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_GROUPS,
+            CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_ORG_MEMBERSHIPS })
+    private String adaptiveConcurrency;
+
+    // Run the tasks on "platform" threads or on "virtual" threads. With virtual threads, every transaction runs in its own thread
+    // and the "threads-count" is ignored. The count of concurrent transactions is limited by "max-concurrent-transactions" instead
+    @QueryParamFill(paramName = "executor", defaultValue = "platform", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_GROUPS,
+            CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_ORG_MEMBERSHIPS })
+    private String executor;
+
+    // Maximum count of concurrent DB transactions when using virtual threads. By default the maximum size of the DB connection pool of Keycloak
+    // minus a few connections, which are left for the rest of the server
+    @QueryParamIntFill(paramName = "max-concurrent-transactions", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_GROUPS,
+            CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_ORG_MEMBERSHIPS })
+    private Integer maxConcurrentTransactions;
+
     // Timeout for the whole task. If timeout expires, then the existing task may not be terminated immediatelly. However it will be permitted to start another task
     // (EG. Send another HTTP request for creating realms), which can cause conflicts
     @QueryParamIntFill(paramName = "task-timeout", defaultValue = 3600, operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS,
-            CREATE_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_GROUPS })
+            CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, REMOVE_REALMS, CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT, CREATE_ORGS, CREATE_ORG_MEMBERSHIPS, CREATE_GROUPS })
     private Integer taskTimeout;
 
     // The client id of a client to which data is going to be provisioned
-    @QueryParamFill(paramName = "client-id", operations = { CREATE_AUTHZ_CLIENT })
+    @QueryParamFill(paramName = "client-id", operations = { CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT })
     private String clientId;
 
     // The prefix to resource names
-    @QueryParamFill(paramName = "resource-prefix", defaultValue = "resource-", operations = { CREATE_AUTHZ_CLIENT })
+    @QueryParamFill(paramName = "resource-prefix", defaultValue = "resource-", operations = { CREATE_AUTHZ_CLIENT, EVALUATE_AUTHZ_CLIENT })
     private String resourcePrefix;
 
     // The number of scopes per resource
@@ -204,6 +278,22 @@ public class DatasetConfig {
     @QueryParamIntFill(paramName = "users-per-user-policy", defaultValue = 1, operations = CREATE_AUTHZ_CLIENT)
     private int usersPerUserPolicy;
 
+    // Types of the policies of the resources with their weights. Same format as "event-types". Supported types are user, role, group, client, time, regex and aggregate
+    @QueryParamFill(paramName = "policy-mix", defaultValue = "user", operations = CREATE_AUTHZ_CLIENT)
+    private String policyMix;
+
+    // Maximum count of the nested levels of the aggregate policies
+    @QueryParamIntFill(paramName = "aggregate-policy-depth", defaultValue = 1, operations = CREATE_AUTHZ_CLIENT)
+    private int aggregatePolicyDepth;
+
+    // Count of the policies in every aggregate policy
+    @QueryParamIntFill(paramName = "aggregate-policy-fan-out", defaultValue = 2, operations = CREATE_AUTHZ_CLIENT)
+    private int aggregatePolicyFanOut;
+
+    // Count of the random permissions requested in every evaluation of the authorization benchmark
+    @QueryParamIntFill(paramName = "permissions-per-evaluation", defaultValue = 1, operations = EVALUATE_AUTHZ_CLIENT)
+    private int permissionsPerEvaluation;
+
     @QueryParamFill(paramName = "name", operations = { CREATE_ORGS })
     private String name;
 
@@ -213,7 +303,7 @@ public class DatasetConfig {
     @QueryParamIntFill(paramName = "domains-count", operations = { CREATE_ORGS })
     private int domainsCount;
 
-    @QueryParamFill(paramName = "org-prefix", defaultValue = "org-", operations = { CREATE_ORGS })
+    @QueryParamFill(paramName = "org-prefix", defaultValue = "org-", operations = { CREATE_ORGS, CREATE_ORG_MEMBERSHIPS })
     private String orgPrefix;
 
     @QueryParamIntFill(paramName = "unmanaged-members-count", operations = CREATE_ORGS)
@@ -226,16 +316,87 @@ public class DatasetConfig {
     @QueryParamIntFill(paramName = "identity-provider-mappers-count", operations = CREATE_ORGS)
     private int identityProviderMappersCount;
 
+    // Count of the organizations of every user. It is the average count with "count-distribution=power-law"
+    @QueryParamIntFill(paramName = "orgs-per-user", defaultValue = 1, operations = CREATE_ORG_MEMBERSHIPS)
+    private int orgsPerUser;
+
+    // Distribution of the organizations of the users. With "uniform" the organizations are assigned in round-robin, so every organization has the same count of members.
+    // With "zipf" the first organizations have most of the members
+    @QueryParamFill(paramName = "org-distribution", defaultValue = "uniform", operations = CREATE_ORG_MEMBERSHIPS)
+    private String orgDistribution;
+
     @QueryParamIntFill(paramName = "unique-credential-count", defaultValue = 0, operations =  {CREATE_REALMS, CREATE_USERS})
     private int uniqueCredentialCount;
 
+    // Create users with batched JDBC inserts instead of the model API. The user cache of the realm is invalidated once all users are created.
+    // In case of CREATE_CLIENTS and CREATE_REALMS the first client of every transaction is created with the model API and the other ones are copies of its rows.
+    // In case of CREATE_SESSIONS the sessions are written to the database and imported to the caches in batches. It requires the persistent user sessions.
+    // In case of CREATE_OFFLINE_SESSIONS the offline sessions are written only to the database and loaded to the caches once they are used.
+    // In case of CREATE_EVENTS and CREATE_ADMIN_EVENTS the events are written with batched JDBC inserts instead of the event store
+    // In case of CREATE_AUTHZ_CLIENT the resources, policies and permissions are written with batched JDBC inserts instead of the authorization stores
+    @QueryParamFill(paramName = "bulk", defaultValue = "false", operations = { CREATE_REALMS, CREATE_CLIENTS, CREATE_USERS, CREATE_EVENTS, CREATE_ADMIN_EVENTS, CREATE_SESSIONS, CREATE_OFFLINE_SESSIONS, CREATE_AUTHZ_CLIENT })
+    private String bulk;
+
     // Count of sessions created in every DB transaction
     @QueryParamIntFill(paramName = "sessions-per-transaction", defaultValue = 1000, operations = CREATE_SESSIONS)
     private Integer sessionsPerTransaction;
 
+    // Count of events created in every DB transaction
+    @QueryParamIntFill(paramName = "events-per-transaction", defaultValue = 10000, operations = { CREATE_EVENTS, CREATE_ADMIN_EVENTS })
+    private Integer eventsPerTransaction;
+
+    // Types of the created events with their weights. For example "LOGIN:60,LOGIN_ERROR:5" creates 12 times more LOGIN events than LOGIN_ERROR events
+    @QueryParamFill(paramName = "event-types", defaultValue = "LOGIN:60,CODE_TO_TOKEN:25,REFRESH_TOKEN:10,LOGIN_ERROR:5", operations = CREATE_EVENTS)
+    private String eventTypes;
+
+    // The times of the events are spread across the given count of seconds before the start of the task
+    @QueryParamIntFill(paramName = "event-time-spread", defaultValue = 0, operations = { CREATE_EVENTS, CREATE_ADMIN_EVENTS })
+    private int eventTimeSpread;
+
+    // Size of the additional payload in the details of every event
+    @QueryParamIntFill(paramName = "event-details-size", defaultValue = 0, operations = CREATE_EVENTS)
+    private int eventDetailsSize;
+
+    // Operation types of the created admin events with their weights. Same format as "event-types"
+    @QueryParamFill(paramName = "admin-operation-types", defaultValue = "CREATE:20,UPDATE:60,DELETE:10,ACTION:10", operations = CREATE_ADMIN_EVENTS)
+    private String adminOperationTypes;
+
+    // Resource types of the created admin events with their weights. Same format as "event-types"
+    @QueryParamFill(paramName = "admin-resource-types", defaultValue = "USER:50,GROUP_MEMBERSHIP:20,REALM_ROLE_MAPPING:20,CLIENT:10", operations = CREATE_ADMIN_EVENTS)
+    private String adminResourceTypes;
+
+    // Size of the representation of every admin event. No representation is stored if it is 0
+    @QueryParamIntFill(paramName = "admin-representation-size", defaultValue = 0, operations = CREATE_ADMIN_EVENTS)
+    private int adminRepresentationSize;
+
+    // Count of offline sessions created in every DB transaction
+    @QueryParamIntFill(paramName = "offline-sessions-per-transaction", defaultValue = 100, operations = CREATE_OFFLINE_SESSIONS)
+    private Integer offlineSessionsPerTransaction;
+
     @QueryParamIntFill(paramName = "session-expiration-interval", defaultValue = 0, operations =  CREATE_SESSIONS)
     private int sessionExpirationInterval;
 
+    // Maximum age of the created sessions in seconds. The last refresh of every session is moved to the past by its age
+    @QueryParamIntFill(paramName = "session-max-age", defaultValue = 0, operations = CREATE_SESSIONS)
+    private int sessionMaxAge;
+
+    // Distribution of the ages of the sessions. With "uniform" all ages up to "session-max-age" are equally likely.
+    // With "exponential" most sessions are young and only a few of them are close to "session-max-age"
+    @QueryParamFill(paramName = "session-age-distribution", defaultValue = "uniform", operations = CREATE_SESSIONS)
+    private String sessionAgeDistribution;
+
+    // Count of client sessions of every user session. It is the average count with "count-distribution=power-law"
+    @QueryParamIntFill(paramName = "clients-per-session", defaultValue = 1, operations = CREATE_SESSIONS)
+    private int clientsPerSession;
+
+    // Size of the note added to every user session and client session
+    @QueryParamIntFill(paramName = "session-note-size", defaultValue = 0, operations = CREATE_SESSIONS)
+    private int sessionNoteSize;
+
+    // Percentage of the created sessions, which are also converted to offline sessions
+    @QueryParamIntFill(paramName = "offline-sessions-percentage", defaultValue = 0, operations = CREATE_SESSIONS)
+    private int offlineSessionsPercentage;
+
     // String representation of this configuration (cached here to not be computed in runtime)
     private String toString = "DatasetConfig []";
 
@@ -255,6 +416,14 @@ public class DatasetConfig {
         return lastToRemove;
     }
 
+    public Boolean getFastDelete() {
+        return Boolean.valueOf(fastDelete);
+    }
+
+    public Integer getDeleteBatchSize() {
+        return deleteBatchSize;
+    }
+
     public String getRealmName() {
         return realmName;
     }
@@ -366,6 +535,18 @@ public class DatasetConfig {
         return threadsCount;
     }
 
+    public String getExecutor() {
+        return executor;
+    }
+
+    public Integer getMaxConcurrentTransactions() {
+        if (maxConcurrentTransactions == null || maxConcurrentTransactions == -1) {
+            int poolSize = ConfigProvider.getConfig().getOptionalValue("quarkus.datasource.jdbc.max-size", Integer.class).orElse(DEFAULT_DB_POOL_MAX_SIZE);
+            return Math.max(1, poolSize - DB_POOL_HEADROOM);
+        }
+        return maxConcurrentTransactions;
+    }
+
     public Integer getTaskTimeout() {
         return taskTimeout;
     }
@@ -410,6 +591,22 @@ public class DatasetConfig {
         return usersPerUserPolicy;
     }
 
+    public String getPolicyMix() {
+        return policyMix;
+    }
+
+    public int getAggregatePolicyDepth() {
+        return aggregatePolicyDepth;
+    }
+
+    public int getAggregatePolicyFanOut() {
+        return aggregatePolicyFanOut;
+    }
+
+    public int getPermissionsPerEvaluation() {
+        return permissionsPerEvaluation;
+    }
+
     @Override
     public String toString() {
         return toString;
@@ -443,15 +640,115 @@ public class DatasetConfig {
         return identityProviderMappersCount;
     }
 
+    public int getOrgsPerUser() {
+        return orgsPerUser;
+    }
+
+    public String getOrgDistribution() {
+        return orgDistribution;
+    }
+
     public int getUniqueCredentialCount() {
         return uniqueCredentialCount;
     }
 
+    public Boolean getAdaptiveConcurrency() {
+        return Boolean.valueOf(adaptiveConcurrency);
+    }
+
+    public String getRoleDistribution() {
+        return roleDistribution;
+    }
+
+    public String getGroupDistribution() {
+        return groupDistribution;
+    }
+
+    public String getCountDistribution() {
+        return countDistribution;
+    }
+
+    public String getDistributionExponent() {
+        return distributionExponent;
+    }
+
+    public Integer getDistributionSeed() {
+        return distributionSeed;
+    }
+
+    public Integer getAttributesPerUser() {
+        return attributesPerUser;
+    }
+
+    public Integer getAttributeValueSize() {
+        return attributeValueSize;
+    }
+
+    public Integer getFederatedIdentitiesPerUser() {
+        return federatedIdentitiesPerUser;
+    }
+
+    public Boolean getBulk() {
+        return Boolean.valueOf(bulk);
+    }
+
     public Integer getSessionsPerTransaction() {
         return sessionsPerTransaction;
     }
 
+    public Integer getEventsPerTransaction() {
+        return eventsPerTransaction;
+    }
+
+    public String getEventTypes() {
+        return eventTypes;
+    }
+
+    public int getEventTimeSpread() {
+        return eventTimeSpread;
+    }
+
+    public int getEventDetailsSize() {
+        return eventDetailsSize;
+    }
+
+    public String getAdminOperationTypes() {
+        return adminOperationTypes;
+    }
+
+    public String getAdminResourceTypes() {
+        return adminResourceTypes;
+    }
+
+    public int getAdminRepresentationSize() {
+        return adminRepresentationSize;
+    }
+
+    public Integer getOfflineSessionsPerTransaction() {
+        return offlineSessionsPerTransaction;
+    }
+
     public int getSessionExpirationInterval() {
         return sessionExpirationInterval;
     }
+
+    public int getSessionMaxAge() {
+        return sessionMaxAge;
+    }
+
+    public String getSessionAgeDistribution() {
+        return sessionAgeDistribution;
+    }
+
+    public int getClientsPerSession() {
+        return clientsPerSession;
+    }
+
+    public int getSessionNoteSize() {
+        return sessionNoteSize;
+    }
+
+    public int getOfflineSessionsPercentage() {
+        return offlineSessionsPercentage;
+    }
 }
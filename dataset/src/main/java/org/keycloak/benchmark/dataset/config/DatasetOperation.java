@@ -25,12 +25,15 @@ public enum DatasetOperation {
     CREATE_REALMS,
     CREATE_CLIENTS,
     CREATE_AUTHZ_CLIENT,
+    EVALUATE_AUTHZ_CLIENT,
     CREATE_USERS,
     CREATE_GROUPS,
     CREATE_EVENTS,
+    CREATE_ADMIN_EVENTS,
     CREATE_SESSIONS,
     CREATE_OFFLINE_SESSIONS,
     CREATE_ORGS,
+    CREATE_ORG_MEMBERSHIPS,
     REMOVE_REALMS,
     LAST_REALM,
     LAST_CLIENT,
@@ -27,11 +27,14 @@ import org.keycloak.benchmark.dataset.ExecutorHelper;
 import org.keycloak.benchmark.dataset.Task;
 import org.keycloak.benchmark.dataset.TaskManager;
 import org.keycloak.benchmark.dataset.TaskResponse;
+import org.keycloak.benchmark.dataset.TaskThreads;
 import org.keycloak.benchmark.dataset.config.ConfigUtil;
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
 import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.http.HttpRequest;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.KeycloakSessionTask;
+import org.keycloak.models.KeycloakUriInfo;
 import org.keycloak.models.RealmModel;
 import org.keycloak.models.utils.KeycloakModelUtils;
 import org.keycloak.organization.OrganizationProvider;
@@ -39,10 +42,22 @@ import org.keycloak.organization.OrganizationProvider;
 public class AbstractOrganizationProvisioner extends DatasetResourceProvider {
 
     private final String realmName;
+    private final DatasetConfig config;
 
     public AbstractOrganizationProvisioner(KeycloakSession session) {
-        super(session);
-        realmName = session.getContext().getRealm().getName();
+        this(session, session.getContext().getRealm().getName(), null);
+    }
+
+    // Used when the configuration is not obtained from the query parameters, for example when the organizations are created by the dataset spec
+    protected AbstractOrganizationProvisioner(KeycloakSession session, String realmName, DatasetConfig config) {
+        this(session, realmName, config, session.getContext().getHttpRequest(), session.getContext().getUri());
+    }
+
+    // Used outside of the HTTP request, for example by the tasks adding the members and the identity providers of the created organizations
+    protected AbstractOrganizationProvisioner(KeycloakSession session, String realmName, DatasetConfig config, HttpRequest httpRequest, KeycloakUriInfo uriInfo) {
+        super(session, httpRequest, uriInfo);
+        this.realmName = realmName;
+        this.config = config;
     }
 
     protected Response start(String name, Runnable runnable) {
@@ -56,7 +71,7 @@ public class AbstractOrganizationProvisioner extends DatasetResourceProvider {
         }
 
         try {
-            new Thread(runnable).start();
+            TaskThreads.start(config, runnable);
             return Response.ok(TaskResponse.taskStarted(task, getStatusUrl())).build();
         } catch (DatasetException de) {
             return handleException(handleDatasetException(de));
@@ -78,6 +93,9 @@ public class AbstractOrganizationProvisioner extends DatasetResourceProvider {
     }
 
     protected DatasetConfig getDatasetConfig() {
+        if (config != null) {
+            return config;
+        }
         return ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_ORGS);
     }
 
@@ -30,9 +30,9 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.resteasy.reactive.NoCache;
 import org.keycloak.OAuth2Constants;
+import org.keycloak.benchmark.dataset.EntityIndexes;
 import org.keycloak.benchmark.dataset.ExecutorHelper;
 import org.keycloak.benchmark.dataset.TaskManager;
-import org.keycloak.benchmark.dataset.config.ConfigUtil;
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
 import org.keycloak.broker.oidc.KeycloakOIDCIdentityProviderFactory;
 import org.keycloak.broker.provider.ConfigConstants;
@@ -53,11 +53,22 @@ public class OrganizationIdentityProviderProvisioner extends AbstractOrganizatio
     private final DatasetConfig config;
 
     public OrganizationIdentityProviderProvisioner(KeycloakSession session, OrganizationModel organization, DatasetConfig config) {
-        super(session);
+        this(session, session.getContext().getRealm().getName(), organization, config);
+    }
+
+    public OrganizationIdentityProviderProvisioner(KeycloakSession session, String realmName, OrganizationModel organization, DatasetConfig config) {
+        super(session, realmName, config);
         this.organization = organization;
         this.config = config;
     }
 
+    // Used when the identity providers are added to organizations by their ids, for example once the organizations are created
+    OrganizationIdentityProviderProvisioner(KeycloakSession session, String realmName, DatasetConfig config) {
+        super(session, realmName, config, null, null);
+        this.organization = null;
+        this.config = config;
+    }
+
     @Path("create")
     @GET
     @NoCache
@@ -154,7 +165,7 @@ public class OrganizationIdentityProviderProvisioner extends AbstractOrganizatio
 
         if (lastIndex == null) {
             RealmModel realm = session.getContext().getRealm();
-            lastIndex = new AtomicInteger(ConfigUtil.findFreeEntityIndex(index -> realm.getIdentityProvidersStream().anyMatch(idp -> idp.getAlias().equals("idp-" + orgName + "-" + index))));
+            lastIndex = new AtomicInteger(EntityIndexes.nextIdentityProviderIndex(session, realm, "idp-" + orgName + "-"));
             session.setAttribute("idpLastIndex", lastIndex);
         }
 
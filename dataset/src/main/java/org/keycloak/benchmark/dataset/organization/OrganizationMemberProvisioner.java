@@ -21,6 +21,7 @@ package org.keycloak.benchmark.dataset.organization;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
 
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
@@ -48,7 +49,11 @@ public class OrganizationMemberProvisioner extends AbstractOrganizationProvision
     private final DatasetConfig config;
 
     public OrganizationMemberProvisioner(KeycloakSession session, OrganizationModel organization, DatasetConfig config) {
-        super(session);
+        this(session, session.getContext().getRealm().getName(), organization, config);
+    }
+
+    public OrganizationMemberProvisioner(KeycloakSession session, String realmName, OrganizationModel organization, DatasetConfig config) {
+        super(session, realmName, config);
         if (organization == null) {
             throw new BadRequestException("Organization not set");
         }
@@ -56,6 +61,13 @@ public class OrganizationMemberProvisioner extends AbstractOrganizationProvision
         this.config = config;
     }
 
+    // Used when the members are added to organizations by their ids, for example once the organizations are created
+    OrganizationMemberProvisioner(KeycloakSession session, String realmName, DatasetConfig config) {
+        super(session, realmName, config, null, null);
+        this.organization = null;
+        this.config = config;
+    }
+
     @Path("create-unmanaged")
     @GET
     @NoCache
@@ -105,11 +117,33 @@ public class OrganizationMemberProvisioner extends AbstractOrganizationProvision
     }
 
     protected void addUnmanagedMembers(KeycloakSession session, String orgId, CountDownLatch latch) {
+        addUnmanagedMembers(session, orgId, 0, latch);
+    }
+
+    /**
+     * Add the users, which are not members of an organization yet, starting the search at the given position in the users of the realm.
+     * The search continues from the first user of the realm, if there are not enough users from the given position.
+     */
+    protected void addUnmanagedMembers(KeycloakSession session, String orgId, int firstResult, CountDownLatch latch) {
         OrganizationProvider provider = getOrganizationProvider(session);
         RealmModel realm = session.getContext().getRealm();
         OrganizationModel organization = provider.getById(orgId);
-        session.users().searchForUserStream(realm, Map.of(UserModel.INCLUDE_SERVICE_ACCOUNT, Boolean.FALSE.toString()))
-                .filter((u) -> provider.getByMember(u) == null)
+        Map<String, String> attributes = Map.of(UserModel.INCLUDE_SERVICE_ACCOUNT, Boolean.FALSE.toString());
+
+        addUnmanagedMembers(provider, organization, session.users().searchForUserStream(realm, attributes, firstResult, null), latch);
+
+        if (latch.getCount() > 0 && firstResult > 0) {
+            addUnmanagedMembers(provider, organization, session.users().searchForUserStream(realm, attributes, 0, firstResult), latch);
+        }
+
+        if (latch.getCount() > 0) {
+            logger.warnf("%d unmanaged members not added to organization %s because there are not enough users without an organization in realm %s",
+                    latch.getCount(), organization.getName(), realm.getName());
+        }
+    }
+
+    private void addUnmanagedMembers(OrganizationProvider provider, OrganizationModel organization, Stream<UserModel> users, CountDownLatch latch) {
+        users.filter((u) -> provider.getByMember(u) == null)
                 .takeWhile(userModel -> latch.getCount() > 0)
                 .forEach(userModel -> {
                     provider.addMember(organization, userModel);
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.dataset.organization;
+
+import static org.keycloak.benchmark.dataset.config.DatasetOperation.CREATE_ORG_MEMBERSHIPS;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.NoCache;
+import org.keycloak.benchmark.dataset.ExecutorHelper;
+import org.keycloak.benchmark.dataset.UserDistribution;
+import org.keycloak.benchmark.dataset.bulk.BulkOrganizationMemberWriter;
+import org.keycloak.benchmark.dataset.config.ConfigUtil;
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.cache.CacheRealmProvider;
+import org.keycloak.models.cache.UserCache;
+
+/**
+ * Adds the existing users of the realm as unmanaged members of the existing organizations, so a user can be a member of several
+ * organizations. The organizations of every user are picked by the {@link UserDistribution} from the organizations named with the
+ * {@code org-prefix}, and the memberships are written with batched inserts by the {@link BulkOrganizationMemberWriter}.
+ */
+public class OrganizationMembershipProvisioner extends AbstractOrganizationProvisioner {
+
+    private DatasetConfig config;
+
+    public OrganizationMembershipProvisioner(KeycloakSession session) {
+        super(session);
+    }
+
+    @Path("create")
+    @GET
+    @NoCache
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response create() {
+        String realmId;
+        List<String> orgGroupIds;
+        try {
+            DatasetConfig config = getDatasetConfig();
+            // Reject invalid distribution parameters before the task is started
+            new UserDistribution(config);
+            if (config.getOrgsPerUser() < 1) {
+                throw new DatasetException("Parameter 'orgs-per-user' must be at least 1");
+            }
+
+            RealmModel realm = getRealm(baseSession);
+            realmId = realm.getId();
+            orgGroupIds = BulkOrganizationMemberWriter.findOrganizationGroupIds(baseSession, realm.getId(), config.getOrgPrefix());
+            if (orgGroupIds.isEmpty()) {
+                throw new DatasetException("No organizations with the prefix '" + config.getOrgPrefix() + "' found in realm '" + realm.getName() + "'");
+            }
+        } catch (DatasetException de) {
+            return handleDatasetException(de);
+        }
+
+        return start("Creation of the organization memberships of " + getDatasetConfig().getUsersPerRealm() + " users in "
+                + orgGroupIds.size() + " organizations", createMemberships(realmId, orgGroupIds));
+    }
+
+    @Override
+    protected DatasetConfig getDatasetConfig() {
+        if (config == null) {
+            config = ConfigUtil.createConfigFromQueryParams(httpRequest, CREATE_ORG_MEMBERSHIPS);
+        }
+        return config;
+    }
+
+    private Runnable createMemberships(String realmId, List<String> orgGroupIds) {
+        return () -> {
+            DatasetConfig config = getDatasetConfig();
+            KeycloakSessionFactory sessionFactory = baseSession.getKeycloakSessionFactory();
+            ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config);
+
+            try {
+                createMemberships(executor, realmId, orgGroupIds);
+                success();
+            } catch (Throwable ex) {
+                logException(ex);
+            } finally {
+                cleanup(executor);
+            }
+        };
+    }
+
+    private void createMemberships(ExecutorHelper executor, String realmId, List<String> orgGroupIds) {
+        DatasetConfig config = getDatasetConfig();
+        UserDistribution distribution = new UserDistribution(config);
+        AtomicLong addedCount = new AtomicLong();
+        AtomicInteger missingUsersCount = new AtomicInteger();
+
+        executor.addTasksRunningInTransaction(0, config.getUsersPerRealm(), config.getUsersPerTransaction(), (startIndex, endIndex) -> session -> {
+            BulkOrganizationMemberWriter writer = new BulkOrganizationMemberWriter(session);
+            List<String> usernames = IntStream.range(startIndex, endIndex)
+                    .mapToObj(i -> config.getUserPrefix() + i)
+                    .collect(Collectors.toList());
+            Map<String, String> userIds = writer.findUsers(realmId, usernames);
+            int added = 0;
+
+            for (int i = startIndex; i < endIndex; i++) {
+                String userId = userIds.get(config.getUserPrefix() + i);
+
+                if (userId == null) {
+                    missingUsersCount.incrementAndGet();
+                    continue;
+                }
+
+                for (int orgIndex : distribution.select(i, config.getOrgsPerUser(), orgGroupIds.size(), UserDistribution.ORGANIZATIONS)) {
+                    if (writer.addMember(orgGroupIds.get(orgIndex), userId)) {
+                        added++;
+                    }
+                }
+            }
+
+            writer.flush();
+            addedCount.addAndGet(added);
+        }, (startIndex, endIndex) -> logger.debugf("Added the organization memberships of users from %d to %d in realm %s", startIndex, endIndex, getRealmName()));
+
+        executor.waitForAllToFinish();
+
+        // The memberships written with the bulk inserts bypass the user cache and the realm cache, which keeps the organizations of the
+        // members and the members of the organizations. Clearing the realm cache clears these entries on all nodes
+        runJobInTransactionWithTimeout(session -> {
+            UserCache userCache = session.getProvider(UserCache.class);
+            if (userCache != null) {
+                userCache.evict(getRealm(session));
+            }
+            CacheRealmProvider realmCache = session.getProvider(CacheRealmProvider.class);
+            if (realmCache != null) {
+                realmCache.clear();
+            }
+        });
+
+        if (missingUsersCount.get() > 0) {
+            logger.warnf("%d users with the prefix '%s' were not found in realm %s", missingUsersCount.get(), config.getUserPrefix(), getRealmName());
+        }
+        logger.infof("Added %d organization memberships to %d organizations in realm %s", addedCount.get(), orgGroupIds.size(), getRealmName());
+    }
+}
@@ -20,10 +20,16 @@ package org.keycloak.benchmark.dataset.organization;
 
 import static org.keycloak.utils.StringUtil.isBlank;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -34,9 +40,9 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jboss.resteasy.reactive.NoCache;
+import org.keycloak.benchmark.dataset.EntityIndexes;
 import org.keycloak.benchmark.dataset.ExecutorHelper;
 import org.keycloak.benchmark.dataset.TaskResponse;
-import org.keycloak.benchmark.dataset.config.ConfigUtil;
 import org.keycloak.benchmark.dataset.config.DatasetConfig;
 import org.keycloak.models.ClientModel;
 import org.keycloak.models.IdentityProviderModel;
@@ -58,6 +64,11 @@ public class OrganizationProvisioner extends AbstractOrganizationProvisioner {
         enableOrganization();
     }
 
+    // Used by the dataset spec, where the organizations are created in the realm given by the spec rather than the realm of the request
+    public OrganizationProvisioner(KeycloakSession session, String realmName, DatasetConfig config) {
+        super(session, realmName, config, null, null);
+    }
+
     @Path("create")
     @GET
     @NoCache
@@ -78,6 +89,11 @@ public class OrganizationProvisioner extends AbstractOrganizationProvisioner {
         return Response.noContent().build();
     }
 
+    @Path("memberships")
+    public Object memberships() {
+        return new OrganizationMembershipProvisioner(baseSession);
+    }
+
     @Path("{org-alias}")
     public Object getOrganization(@PathParam("org-alias") String orgAlias) {
         OrganizationProvider provider = getOrganizationProvider(baseSession);
@@ -108,43 +124,7 @@ public class OrganizationProvisioner extends AbstractOrganizationProvisioner {
             ExecutorHelper executor = new ExecutorHelper(config.getThreadsCount(), sessionFactory, config);
 
             try {
-                Integer count = config.getCount();
-
-                executor.addTask(() -> runJobInTransactionWithTimeout(session -> {
-                    RealmModel realm = getRealm(session);
-                    ClientModel client = realm.getClientByClientId("org-broker-client");
-
-                    if (client == null) {
-                        client = realm.addClient("org-broker-client");
-                        client.setSecret("secret");
-                        client.setProtocol(OIDCLoginProtocol.LOGIN_PROTOCOL);
-                        client.setPublicClient(false);
-                        client.addRedirectUri("http://localhost:8180/realms/" + realm.getName() + "/broker/*");
-                    }
-
-                    int startIndex = getLastIndex(session);
-
-                    if (isBlank(config.getName())) {
-                        for (int i = startIndex; i < (startIndex + count); i += config.getEntriesPerTransaction()) {
-                            int orgStartIndex = i;
-                            int endIndex = Math.min(orgStartIndex + config.getEntriesPerTransaction(), startIndex + count);
-
-                            addTaskRunningInTransaction(executor, s -> {
-                                for (int j = orgStartIndex; j < endIndex; j++) {
-                                    createOrganization(config.getOrgPrefix() + j, s, config);
-                                }
-
-                                int createdCount = endIndex - orgStartIndex;
-
-                                logger.infof("Created %d organizations in realm %s from %d to %d", createdCount, getRealmName(), orgStartIndex, endIndex);
-                            });
-                        }
-                    } else {
-                        createOrganization(config.getName(), session, config);
-                    }
-                }));
-
-                executor.waitForAllToFinish();
+                createOrganizations(executor);
                 success();
             } catch (Exception e) {
                 cleanup(executor);
@@ -153,15 +133,80 @@ public class OrganizationProvisioner extends AbstractOrganizationProvisioner {
         };
     }
 
-    private void createOrganization(String name, KeycloakSession session, DatasetConfig config) {
-        OrganizationProvider orgProvider = getOrganizationProvider(session);
+    /**
+     * Create the organizations with the given executor and wait until they are created. The free range of indexes is looked up once, and
+     * the organizations with their domains are created in chunks of {@code entries-per-transaction}. Once a chunk is committed, the members
+     * and the identity providers of every organization of the chunk are added by separate tasks of the executor.
+     */
+    public void createOrganizations(ExecutorHelper executor) {
+        DatasetConfig config = getDatasetConfig();
+        Integer count = config.getCount();
+        AtomicInteger startIndex = new AtomicInteger();
+        AtomicInteger usersCount = new AtomicInteger();
+
+        runJobInTransactionWithTimeout(session -> {
+            RealmModel realm = getRealm(session);
+            realm.setOrganizationsEnabled(true);
+            ClientModel client = realm.getClientByClientId("org-broker-client");
+
+            if (client == null) {
+                client = realm.addClient("org-broker-client");
+                client.setSecret("secret");
+                client.setProtocol(OIDCLoginProtocol.LOGIN_PROTOCOL);
+                client.setPublicClient(false);
+                client.addRedirectUri("http://localhost:8180/realms/" + realm.getName() + "/broker/*");
+            }
+
+            startIndex.set(getLastIndex(session, realm));
+            usersCount.set(session.users().getUsersCount(realm, false));
+        });
+
+        if (isBlank(config.getName())) {
+            // Ids of the organizations created by every chunk by the start index of the chunk, kept until the chunk is committed
+            Map<Integer, List<String>> createdOrgIds = new ConcurrentHashMap<>();
+
+            executor.addTasksRunningInTransaction(startIndex.get(), startIndex.get() + count, config.getEntriesPerTransaction(), (orgStartIndex, endIndex) -> session -> {
+                List<String> orgIds = new ArrayList<>();
+
+                for (int j = orgStartIndex; j < endIndex; j++) {
+                    orgIds.add(createOrganization(config.getOrgPrefix() + j, session, config).getId());
+                }
+
+                createdOrgIds.put(orgStartIndex, orgIds);
+            }, (orgStartIndex, endIndex) -> {
+                logger.infof("Created %d organizations in realm %s from %d to %d", endIndex - orgStartIndex, getRealmName(), orgStartIndex, endIndex);
 
-        if (orgProvider.getAllStream(name, true, -1, -1).findAny().isPresent()) {
-            RealmModel realm = session.getContext().getRealm();
-            logger.infof("Not creating %s organization in realm %s because it already exists", name, realm.getName());
-            return;
+                List<String> orgIds = createdOrgIds.remove(orgStartIndex);
+
+                for (int j = orgStartIndex; j < endIndex; j++) {
+                    addMembersAndIdentityProviders(executor, config, orgIds.get(j - orgStartIndex), j - startIndex.get(), usersCount.get());
+                }
+            });
+        } else {
+            AtomicReference<String> orgId = new AtomicReference<>();
+
+            runJobInTransactionWithTimeout(session -> {
+                OrganizationProvider orgProvider = getOrganizationProvider(session);
+                String name = config.getName();
+
+                if (orgProvider.getAllStream(name, true, -1, -1).findAny().isPresent()) {
+                    logger.infof("Not creating %s organization in realm %s because it already exists", name, getRealmName());
+                    return;
+                }
+
+                orgId.set(createOrganization(name, session, config).getId());
+            });
+
+            if (orgId.get() != null) {
+                addMembersAndIdentityProviders(executor, config, orgId.get(), 0, usersCount.get());
+            }
         }
 
+        executor.waitForAllToFinish();
+    }
+
+    private OrganizationModel createOrganization(String name, KeycloakSession session, DatasetConfig config) {
+        OrganizationProvider orgProvider = getOrganizationProvider(session);
         OrganizationModel organization = orgProvider.create(name, name);
         int domainsCount = config.getDomainsCount();
         String domains = Optional.ofNullable(config.getDomains()).filter(StringUtil::isNotBlank).orElse(name);
@@ -178,22 +223,31 @@ public class OrganizationProvisioner extends AbstractOrganizationProvisioner {
 
         organization.setDomains(Stream.of(domains.split(",")).map(OrganizationDomainModel::new).collect(Collectors.toSet()));
 
+        return organization;
+    }
+
+    // Every organization created by the task starts the search for its unmanaged members at its own offset in the users of the realm, so
+    // the organizations added in parallel do not compete for the same users
+    private void addMembersAndIdentityProviders(ExecutorHelper executor, DatasetConfig config, String orgId, int orgIndex, int usersCount) {
         int orgUnmanagedMembersCount = config.getUnManagedMembersCount();
 
         if (orgUnmanagedMembersCount > 0) {
-            new OrganizationMemberProvisioner(baseSession, organization, config).addUnmanagedMembers(session, organization.getId(), new CountDownLatch(orgUnmanagedMembersCount));
+            OrganizationMemberProvisioner members = new OrganizationMemberProvisioner(baseSession, getRealmName(), config);
+            int firstResult = usersCount > 0 ? (int) ((long) orgIndex * orgUnmanagedMembersCount % usersCount) : 0;
+            addTaskRunningInTransaction(executor, session -> members.addUnmanagedMembers(session, orgId, firstResult, new CountDownLatch(orgUnmanagedMembersCount)));
         }
 
         int orgIdentityProvidersCount = config.getIdentityProvidersCount();
 
         if (orgIdentityProvidersCount > 0) {
-            new OrganizationIdentityProviderProvisioner(baseSession, organization, config).addIdentityProviders(session, organization.getId(), new CountDownLatch(orgIdentityProvidersCount));
+            OrganizationIdentityProviderProvisioner identityProviders = new OrganizationIdentityProviderProvisioner(baseSession, getRealmName(), config);
+            addTaskRunningInTransaction(executor, session -> identityProviders.addIdentityProviders(session, orgId, new CountDownLatch(orgIdentityProvidersCount)));
         }
     }
 
-    private int getLastIndex(KeycloakSession session) {
+    private int getLastIndex(KeycloakSession session, RealmModel realm) {
         String orgPrefix = getDatasetConfig().getOrgPrefix();
-        return ConfigUtil.findFreeEntityIndex(index -> getOrganizationProvider(session).getAllStream(orgPrefix + index, true, -1, -1).findAny().isPresent());
+        return EntityIndexes.nextOrganizationIndex(session, realm, orgPrefix);
     }
 
     private void enableOrganization() {
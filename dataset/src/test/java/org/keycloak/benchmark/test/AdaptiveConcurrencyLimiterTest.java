@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.AdaptiveConcurrencyLimiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    public void testLimitGrowsWithStableLatency() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40);
+        assertEquals(10, limiter.getLimit());
+        complete(limiter, 2000, 10 * MILLIS);
+        assertEquals(40, limiter.getLimit());
+    }
+
+    @Test
+    public void testBacksOffWhenSlow() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40);
+        complete(limiter, 2000, 10 * MILLIS);
+        complete(limiter, 200, 100 * MILLIS);
+        assertTrue(limiter.getLimit() < 40, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    public void testSingleFastTransactionDoesNotPinBaseline() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40);
+        // For example a chunk without any entities to create
+        complete(limiter, 1, 1000);
+        complete(limiter, 100, 10 * MILLIS);
+        assertTrue(limiter.getLimit() >= 10, "limit: " + limiter.getLimit());
+    }
+
+    private void complete(AdaptiveConcurrencyLimiter limiter, int count, long latencyNanos) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            limiter.acquire();
+            limiter.release(latencyNanos, false);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.AuthzPolicyMix;
+import org.keycloak.benchmark.dataset.RealmSnapshot;
+import org.keycloak.benchmark.dataset.config.ConfigUtil;
+import org.keycloak.benchmark.dataset.config.DatasetConfig;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+import org.keycloak.benchmark.dataset.config.DatasetOperation;
+import org.keycloak.representations.idm.authorization.AggregatePolicyRepresentation;
+import org.keycloak.representations.idm.authorization.TimePolicyRepresentation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AuthzPolicyMixTest {
+
+    private static final RealmSnapshot SNAPSHOT = RealmSnapshot.of(List.of("role-0"), List.of(), List.of("group-0"), List.of("client-0"));
+
+    @Test
+    public void testAggregatePoliciesAtMaxDepth() {
+        // The aggregate policies are picked almost always, but not at the maximum depth
+        AuthzPolicyMix policyMix = AuthzPolicyMix.parse(config("aggregate:1000000,time:1", 3, 2), SNAPSHOT);
+        Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            AuthzPolicyMix.PolicyNode policy = policyMix.createPolicy(i, random);
+            assertEquals(8, countLeaves(policy, 0, 3));
+        }
+    }
+
+    @Test
+    public void testOnlyAggregatePolicies() {
+        assertThrows(DatasetException.class, () -> AuthzPolicyMix.parse(config("aggregate", 1, 2), SNAPSHOT));
+        assertThrows(DatasetException.class, () -> AuthzPolicyMix.parse(config("aggregate:10,time:0", 1, 2), SNAPSHOT));
+    }
+
+    @Test
+    public void testTooManyAggregatedPolicies() {
+        assertEquals(1000, countLeaves(AuthzPolicyMix.parse(config("aggregate:1000000,time:1", 3, 10), SNAPSHOT).createPolicy(0, new Random(0)), 0, 3));
+        assertThrows(DatasetException.class, () -> AuthzPolicyMix.parse(config("aggregate,time", 4, 6), SNAPSHOT));
+        assertThrows(DatasetException.class, () -> AuthzPolicyMix.parse(config("aggregate,time", 100, 100), SNAPSHOT));
+
+        // The fan-out does not matter without the aggregate policies
+        AuthzPolicyMix.parse(config("time", 100, 100), SNAPSHOT);
+    }
+
+    @Test
+    public void testUnknownType() {
+        assertThrows(DatasetException.class, () -> AuthzPolicyMix.parse(config("time,unknown", 1, 2), SNAPSHOT));
+    }
+
+    private static DatasetConfig config(String policyMix, int depth, int fanOut) {
+        Map<String, String> params = new HashMap<>();
+        params.put("realm-name", "realm-0");
+        params.put("count", "1");
+        params.put("policy-mix", policyMix);
+        params.put("aggregate-policy-depth", String.valueOf(depth));
+        params.put("aggregate-policy-fan-out", String.valueOf(fanOut));
+        return ConfigUtil.createConfigFromParams(params, DatasetOperation.CREATE_AUTHZ_CLIENT);
+    }
+
+    // Count of the time policies, which are checked to be at the maximum depth
+    private static int countLeaves(AuthzPolicyMix.PolicyNode policy, int depth, int maxDepth) {
+        if (policy.getPolicies().isEmpty()) {
+            assertInstanceOf(TimePolicyRepresentation.class, policy.getRepresentation());
+            assertEquals(maxDepth, depth);
+            return 1;
+        }
+        assertInstanceOf(AggregatePolicyRepresentation.class, policy.getRepresentation());
+        return policy.getPolicies().stream().mapToInt(child -> countLeaves(child, depth + 1, maxDepth)).sum();
+    }
+}
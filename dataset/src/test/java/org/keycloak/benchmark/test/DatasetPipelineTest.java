@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.DatasetPipeline;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DatasetPipelineTest {
+
+    private static final Executor THREAD_PER_STAGE = stage -> new Thread(stage).start();
+
+    @Test
+    public void testLevels() {
+        DatasetPipeline pipeline = new DatasetPipeline()
+                .addStage("users", List.of("realms", "clients", "groups"), () -> {})
+                .addStage("realms", Collections.emptyList(), () -> {})
+                .addStage("clients", List.of("realms"), () -> {})
+                .addStage("sessions", List.of("users", "clients"), () -> {})
+                .addStage("events", List.of("realms"), () -> {});
+
+        // The dependency on the missing "groups" stage is ignored
+        assertEquals("[[realms], [clients, events], [users], [sessions]]", pipeline.getLevels().toString());
+    }
+
+    @Test
+    public void testCyclicDependency() {
+        DatasetPipeline pipeline = new DatasetPipeline()
+                .addStage("a", List.of("c"), () -> {})
+                .addStage("b", List.of("a"), () -> {})
+                .addStage("c", List.of("b"), () -> {});
+
+        assertThrows(DatasetException.class, pipeline::getLevels);
+    }
+
+    @Test
+    public void testOrderAndConcurrency() {
+        List<String> finished = new CopyOnWriteArrayList<>();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        // The independent stages wait for each other, so they would time out if they did not run concurrently
+        Runnable independent = () -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        new DatasetPipeline()
+                .addStage("realms", Collections.emptyList(), () -> finished.add("realms"))
+                .addStage("clients", List.of("realms"), () -> {
+                    independent.run();
+                    finished.add("clients");
+                })
+                .addStage("groups", List.of("realms"), () -> {
+                    independent.run();
+                    finished.add("groups");
+                })
+                .addStage("users", List.of("clients", "groups"), () -> finished.add("users"))
+                .run(THREAD_PER_STAGE);
+
+        assertEquals(4, finished.size());
+        assertEquals("realms", finished.get(0));
+        assertEquals("users", finished.get(3));
+    }
+
+    @Test
+    public void testFailedStageSkipsDependentStages() {
+        List<String> finished = new CopyOnWriteArrayList<>();
+
+        DatasetPipeline pipeline = new DatasetPipeline()
+                .addStage("realms", Collections.emptyList(), () -> finished.add("realms"))
+                .addStage("clients", List.of("realms"), () -> {
+                    throw new IllegalStateException("clients failed");
+                })
+                .addStage("events", List.of("realms"), () -> finished.add("events"))
+                .addStage("users", List.of("clients"), () -> finished.add("users"));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> pipeline.run(THREAD_PER_STAGE));
+        assertEquals("Failed stages [clients]. Skipped stages [users]", ex.getMessage());
+        assertEquals("clients failed", ex.getSuppressed()[0].getMessage());
+        assertEquals(List.of("realms", "events"), finished);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.EntityIndexes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EntityIndexesTest {
+
+    @Test
+    public void testParseIndex() {
+        assertEquals(0, EntityIndexes.parseIndex("user-0", "user-"));
+        assertEquals(12345, EntityIndexes.parseIndex("user-12345", "user-"));
+        assertEquals(2147483647, EntityIndexes.parseIndex("user-2147483647", "user-"));
+    }
+
+    @Test
+    public void testParseInvalidIndex() {
+        assertEquals(-1, EntityIndexes.parseIndex("user-", "user-"));
+        assertEquals(-1, EntityIndexes.parseIndex("client-1", "user-"));
+        assertEquals(-1, EntityIndexes.parseIndex("user-01", "user-"));
+        assertEquals(-1, EntityIndexes.parseIndex("group-1.2", "group-"));
+        assertEquals(-1, EntityIndexes.parseIndex("user-idp-1", "user-"));
+        assertEquals(-1, EntityIndexes.parseIndex("user-2147483648", "user-"));
+        assertEquals(-1, EntityIndexes.parseIndex(null, "user-"));
+    }
+
+    @Test
+    public void testNextIndexWithoutNames() {
+        assertEquals(0, nextIndex(List.of(), "user-"));
+        assertEquals(0, nextIndex(List.of("user-", "user-01", "user-abc"), "user-"));
+    }
+
+    @Test
+    public void testNextIndexOrderedByLength() {
+        // The highest name as a string is user-999, but the highest index is 1234
+        List<String> names = IntStream.range(0, 1235).mapToObj(i -> "user-" + i).collect(Collectors.toList());
+        assertEquals(1235, nextIndex(names, "user-"));
+    }
+
+    @Test
+    public void testNextIndexWithGaps() {
+        assertEquals(71, nextIndex(List.of("user-5", "user-70", "user-9"), "user-"));
+    }
+
+    @Test
+    public void testNextIndexSkipsNamesWithoutNumber() {
+        // The names are ordered after the numbers with the same length, or they are longer than all the numbers
+        assertEquals(100, nextIndex(List.of("user-99", "user-ab", "user-abcdef", "user-0100"), "user-"));
+        assertEquals(11, nextIndex(List.of("user-9", "user-10", "user-1a"), "user-"));
+    }
+
+    @Test
+    public void testNextIndexPagesNamesWithoutNumber() {
+        // More than two pages of the names without a number are ordered before the highest number with the same length
+        List<String> names = new ArrayList<>();
+        IntStream.range(0, 250).forEach(i -> names.add("user-a" + String.format("%03d", i)));
+        names.add("user-1000");
+        names.add("user-999");
+        assertEquals(1001, nextIndex(names, "user-"));
+
+        // None of the longest names has a number, so the shorter ones are used
+        names.remove("user-1000");
+        assertEquals(1000, nextIndex(names, "user-"));
+    }
+
+    // Same lookup as the one in the database, where the names are compared as strings
+    private static int nextIndex(List<String> names, String prefix) {
+        Map<Integer, String> highestNames = names.stream()
+                .filter(name -> name.startsWith(prefix))
+                .collect(Collectors.toMap(String::length, name -> name, (name1, name2) -> name1.compareTo(name2) > 0 ? name1 : name2));
+
+        return EntityIndexes.nextIndex(highestNames, prefix, (length, before) -> names.stream()
+                .filter(name -> name.startsWith(prefix) && name.length() == length && name.compareTo(before) < 0)
+                .sorted(Comparator.reverseOrder())
+                .limit(100)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.IndexRanges;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexRangesTest {
+
+    @Test
+    public void testMergeRanges() {
+        IndexRanges ranges = new IndexRanges();
+        ranges.add(200, 300);
+        ranges.add(0, 100);
+        ranges.add(500, 600);
+        assertEquals("0-100,200-300,500-600", ranges.toString());
+
+        ranges.add(100, 200);
+        assertEquals("0-300,500-600", ranges.toString());
+
+        ranges.add(250, 550);
+        assertEquals("0-600", ranges.toString());
+        assertEquals(600, ranges.size());
+    }
+
+    @Test
+    public void testMissingRanges() {
+        IndexRanges ranges = IndexRanges.parse("100-200,300-400");
+        assertEquals("0-100,200-300,400-500", ranges.missing(0, 500).toString());
+        assertEquals("200-300", ranges.missing(150, 350).toString());
+        assertTrue(ranges.missing(300, 400).isEmpty());
+        assertEquals("0-1000", new IndexRanges().missing(0, 1000).toString());
+    }
+
+    @Test
+    public void testParse() {
+        assertTrue(IndexRanges.parse("").isEmpty());
+        assertEquals("0-1200,1300-1500", IndexRanges.parse("1300-1500,0-1200").toString());
+    }
+}
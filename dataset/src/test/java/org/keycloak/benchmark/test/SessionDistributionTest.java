@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.SessionDistribution;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SessionDistributionTest {
+
+    @Test
+    public void testDefaults() {
+        SessionDistribution distribution = new SessionDistribution(0, "uniform", 1, "fixed", "1.0", 0, 0);
+        Random random = new Random(0);
+        assertEquals(0, distribution.age(random));
+        assertEquals(1, distribution.clientsPerSession(random, 10));
+        assertNull(distribution.getNote());
+        assertFalse(distribution.isOffline(random));
+    }
+
+    @Test
+    public void testAges() {
+        SessionDistribution uniform = new SessionDistribution(3600, "uniform", 1, "fixed", "1.0", 0, 0);
+        SessionDistribution exponential = new SessionDistribution(3600, "exponential", 1, "fixed", "1.0", 0, 0);
+        Random random = new Random(0);
+
+        long uniformTotal = 0;
+        long exponentialTotal = 0;
+        for (int i = 0; i < 10000; i++) {
+            int uniformAge = uniform.age(random);
+            int exponentialAge = exponential.age(random);
+            assertTrue(uniformAge >= 0 && uniformAge < 3600);
+            assertTrue(exponentialAge >= 0 && exponentialAge < 3600);
+            uniformTotal += uniformAge;
+            exponentialTotal += exponentialAge;
+        }
+        assertEquals(1800, uniformTotal / 10000.0, 100);
+        assertEquals(900, exponentialTotal / 10000.0, 100);
+    }
+
+    @Test
+    public void testClientsAndOffline() {
+        SessionDistribution distribution = new SessionDistribution(0, "uniform", 3, "power-law", "1.0", 100, 25);
+        Random random = new Random(0);
+
+        long clients = 0;
+        int offline = 0;
+        for (int i = 0; i < 10000; i++) {
+            int count = distribution.clientsPerSession(random, 50);
+            assertTrue(count >= 1 && count <= 50);
+            clients += count;
+            if (distribution.isOffline(random)) {
+                offline++;
+            }
+        }
+        assertEquals(3, clients / 10000.0, 1);
+        assertEquals(2500, offline, 250);
+        assertEquals(100, distribution.getNote().length());
+        assertEquals(2, new SessionDistribution(0, "uniform", 3, "fixed", "1.0", 0, 0).clientsPerSession(random, 2));
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        assertThrows(DatasetException.class, () -> new SessionDistribution(0, "normal", 1, "fixed", "1.0", 0, 0));
+        assertThrows(DatasetException.class, () -> new SessionDistribution(0, "uniform", 0, "fixed", "1.0", 0, 0));
+        assertThrows(DatasetException.class, () -> new SessionDistribution(0, "uniform", 1, "fixed", "1.0", 0, 101));
+        assertThrows(DatasetException.class, () -> new SessionDistribution(-1, "uniform", 1, "fixed", "1.0", 0, 0));
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.UserAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class UserAttributesTest {
+
+    @Test
+    public void testAttributeValue() {
+        assertEquals("user-1-2-xxxxxx", UserAttributes.attributeValue("user-1", 2, 15));
+        assertEquals("user-", UserAttributes.attributeValue("user-1", 2, 5));
+        assertEquals(300, UserAttributes.attributeValue("user-1", 2, 300).length());
+        assertNotEquals(UserAttributes.attributeValue("user-1", 2, 32), UserAttributes.attributeValue("user-12", 2, 32));
+    }
+
+    @Test
+    public void testNames() {
+        assertEquals("attribute-3", UserAttributes.attributeName(3));
+        assertEquals("user-idp-0", UserAttributes.identityProviderAlias(0));
+        assertEquals("user-1@user-idp-0", UserAttributes.federatedUserId("user-1", 0));
+    }
+}
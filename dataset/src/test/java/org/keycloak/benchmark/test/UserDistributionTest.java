@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.UserDistribution;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserDistributionTest {
+
+    @Test
+    public void testUniformIsRoundRobin() {
+        UserDistribution distribution = new UserDistribution("uniform", "uniform", "fixed", "1.0", 0);
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, distribution.select(0, 4, 10, UserDistribution.REALM_ROLES));
+        assertArrayEquals(new int[] { 8, 9, 0, 1 }, distribution.select(2, 4, 10, UserDistribution.GROUPS));
+        assertEquals(0, distribution.select(5, 4, 0, UserDistribution.CLIENT_ROLES).length);
+    }
+
+    @Test
+    public void testZipfIsSkewed() {
+        UserDistribution distribution = new UserDistribution("zipf", "zipf", "fixed", "1.0", 0);
+        int[] usersPerGroup = new int[100];
+        for (int user = 0; user < 10000; user++) {
+            int[] groups = distribution.select(user, 3, 100, UserDistribution.GROUPS);
+            assertEquals(3, groups.length);
+            assertEquals(3, Arrays.stream(groups).distinct().count());
+            Arrays.stream(groups).forEach(group -> usersPerGroup[group]++);
+        }
+        assertTrue(usersPerGroup[0] > 10 * usersPerGroup[99], Arrays.toString(usersPerGroup));
+    }
+
+    @Test
+    public void testPowerLawCounts() {
+        UserDistribution distribution = new UserDistribution("uniform", "uniform", "power-law", "1.0", 0);
+        long total = 0;
+        int max = 0;
+        for (int user = 0; user < 10000; user++) {
+            int count = distribution.select(user, 10, 1000, UserDistribution.REALM_ROLES).length;
+            total += count;
+            max = Math.max(max, count);
+        }
+        // The average is close to the configured count, but some users have many more
+        assertEquals(10, total / 10000.0, 2);
+        assertTrue(max > 50, "max: " + max);
+    }
+
+    @Test
+    public void testSeed() {
+        UserDistribution first = new UserDistribution("zipf", "zipf", "power-law", "1.0", 42);
+        UserDistribution second = new UserDistribution("zipf", "zipf", "power-law", "1.0", 42);
+        UserDistribution other = new UserDistribution("zipf", "zipf", "power-law", "1.0", 43);
+
+        boolean differs = false;
+        for (int user = 0; user < 100; user++) {
+            int[] groups = first.select(user, 5, 1000, UserDistribution.GROUPS);
+            assertArrayEquals(groups, second.select(user, 5, 1000, UserDistribution.GROUPS));
+            differs |= !Arrays.equals(groups, other.select(user, 5, 1000, UserDistribution.GROUPS));
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public void testOrganizationDistribution() {
+        UserDistribution distribution = new UserDistribution("uniform", "uniform", "zipf", "fixed", "1.0", 0);
+        int[] usersPerOrg = new int[100];
+        for (int user = 0; user < 10000; user++) {
+            Arrays.stream(distribution.select(user, 2, 100, UserDistribution.ORGANIZATIONS)).forEach(org -> usersPerOrg[org]++);
+        }
+        assertTrue(usersPerOrg[0] > 10 * usersPerOrg[99], Arrays.toString(usersPerOrg));
+        // The groups still use their own distribution
+        assertArrayEquals(new int[] { 8, 9, 0, 1 }, distribution.select(2, 4, 10, UserDistribution.GROUPS));
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        assertThrows(DatasetException.class, () -> new UserDistribution("gauss", "uniform", "fixed", "1.0", 0));
+        assertThrows(DatasetException.class, () -> new UserDistribution("uniform", "uniform", "random", "1.0", 0));
+        assertThrows(DatasetException.class, () -> new UserDistribution("zipf", "uniform", "fixed", "-1", 0));
+        assertThrows(DatasetException.class, () -> new UserDistribution("uniform", "uniform", "gauss", "fixed", "1.0", 0));
+        assertArrayEquals(new int[] { 0 }, new UserDistribution(null, null, null, null, 0).select(0, 1, 1, UserDistribution.GROUPS));
+    }
+}
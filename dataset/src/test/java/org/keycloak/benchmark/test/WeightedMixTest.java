@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Red Hat, Inc. and/or its affiliates
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.keycloak.benchmark.test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.keycloak.benchmark.dataset.WeightedMix;
+import org.keycloak.benchmark.dataset.config.DatasetException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WeightedMixTest {
+
+    @Test
+    public void testWeights() {
+        WeightedMix mix = WeightedMix.parse("event-types", "LOGIN:60, CODE_TO_TOKEN:30,LOGIN_ERROR:10,LOGOUT:0");
+        assertEquals(List.of("LOGIN", "CODE_TO_TOKEN", "LOGIN_ERROR"), mix.getValues());
+
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            counts.merge(mix.pick(random), 1, Integer::sum);
+        }
+        assertEquals(6000, counts.get("LOGIN"), 300);
+        assertEquals(3000, counts.get("CODE_TO_TOKEN"), 300);
+        assertEquals(1000, counts.get("LOGIN_ERROR"), 300);
+    }
+
+    @Test
+    public void testDefaultWeight() {
+        WeightedMix mix = WeightedMix.parse("event-types", "LOGIN");
+        assertEquals("LOGIN", mix.pick(new Random(0)));
+        assertEquals(List.of("CREATE", "UPDATE"), WeightedMix.parse("operation-types", "CREATE,UPDATE").getValues());
+    }
+
+    @Test
+    public void testWithout() {
+        WeightedMix mix = WeightedMix.parse("policy-mix", "role:40,aggregate:30,group:30").without("aggregate");
+        assertEquals(List.of("role", "group"), mix.getValues());
+
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            counts.merge(mix.pick(random), 1, Integer::sum);
+        }
+        assertEquals(5714, counts.get("role"), 300);
+        assertEquals(4286, counts.get("group"), 300);
+        assertNull(WeightedMix.parse("policy-mix", "aggregate").without("aggregate"));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(DatasetException.class, () -> WeightedMix.parse("event-types", ""));
+        assertThrows(DatasetException.class, () -> WeightedMix.parse("event-types", "LOGIN:x"));
+        assertThrows(DatasetException.class, () -> WeightedMix.parse("event-types", "LOGIN:-1"));
+        assertThrows(DatasetException.class, () -> WeightedMix.parse("event-types", "LOGIN:0"));
+        assertThrows(DatasetException.class, () -> WeightedMix.parse("event-types", "LOGIN:1:2"));
+    }
+}